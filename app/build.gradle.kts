@@ -1,5 +1,8 @@
+import com.example.mathtrainer.build.CompileLevelsTask
+
 plugins {
     alias(libs.plugins.android.application)
+    alias(libs.plugins.baselineprofile)
 }
 
 android {
@@ -31,13 +34,36 @@ android {
     }
 }
 
+// Уровни из src/main/levels/levels.conf: задачи перечисляются при сборке, таблицы
+// ложатся Java-ресурсами в APK (levels/*.bin) и на classpath юнит-тестов.
+val compileLevels by tasks.registering(CompileLevelsTask::class) {
+    levels.set(layout.projectDirectory.file("src/main/levels/levels.conf"))
+    outputDir.set(layout.buildDirectory.dir("generated/levels"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.resources?.addGeneratedSourceDirectory(compileLevels) { it.outputDir }
+    }
+}
+
 dependencies {
 
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation(libs.recyclerview)
+    implementation(libs.profileinstaller)
+    "baselineProfile"(project(":macrobenchmark"))
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
-}
\ No newline at end of file
+}
+
+// Профили из :macrobenchmark (BaselineProfileGenerator) + ручная затравка
+// в src/main/baselineProfiles. Стартовый профиль раскладывает DEX так, чтобы
+// классы холодного старта лежали в первом файле.
+baselineProfile {
+    dexLayoutOptimization = true
+}
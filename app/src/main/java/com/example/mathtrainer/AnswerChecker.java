@@ -0,0 +1,72 @@
+package com.example.mathtrainer;
+
+/**
+ * Разбор и проверка введённого ответа без Android и без аллокаций:
+ * принимает текст поля ввода как есть (Editable — тоже CharSequence).
+ * Сообщения об ошибках подбирает активити по {@link Result}.
+ */
+public final class AnswerChecker {
+
+    public enum Result {
+        EMPTY,          // пустая строка (после trim)
+        NOT_A_NUMBER,   // не число
+        NOT_POSITIVE,   // ≤ 0 (только для десятичных ответов)
+        WRONG,
+        CORRECT
+    }
+
+    /** Результат {@link #parseInt(CharSequence)} для строки, которая не является целым числом. */
+    public static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    private AnswerChecker() {}
+
+    /** Первый уровень: целое число, как Integer.parseInt(txt.trim()). */
+    public static Result checkInt(CharSequence raw, Task task) {
+        if (isBlank(raw)) return Result.EMPTY;
+        long user = parseInt(raw);
+        if (user == NOT_AN_INT) return Result.NOT_A_NUMBER;
+        return task != null && user == task.getAnswer() ? Result.CORRECT : Result.WRONG;
+    }
+
+    /** Второй уровень: десятичное с точкой или запятой, сравнение в десятых. */
+    public static Result checkDecimal(CharSequence raw, DecimalTask task) {
+        if (isBlank(raw)) return Result.EMPTY;
+        int user = DecimalTask.parseTenths(raw);
+        if (user == DecimalTask.NOT_A_NUMBER) return Result.NOT_A_NUMBER;
+        if (user <= 0) return Result.NOT_POSITIVE;
+        return task != null && task.isCorrect(user) ? Result.CORRECT : Result.WRONG;
+    }
+
+    /**
+     * Целое со знаком в диапазоне int, пробелы по краям игнорируются.
+     * Для нечисла и переполнения — {@link #NOT_AN_INT} (Integer.parseInt бросил бы исключение).
+     */
+    public static long parseInt(CharSequence raw) {
+        int start = 0, end = raw.length();
+        while (start < end && Character.isWhitespace(raw.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(raw.charAt(end - 1))) end--;
+        boolean negative = false;
+        if (start < end && (raw.charAt(start) == '-' || raw.charAt(start) == '+')) {
+            negative = raw.charAt(start) == '-';
+            start++;
+        }
+        if (start == end) return NOT_AN_INT;
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = raw.charAt(i);
+            if (c < '0' || c > '9') return NOT_AN_INT;
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) return NOT_AN_INT;
+        }
+        if (negative) value = -value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NOT_AN_INT : value;
+    }
+
+    private static boolean isBlank(CharSequence raw) {
+        for (int i = 0; i < raw.length(); i++) {
+            if (!Character.isWhitespace(raw.charAt(i))) return false;
+        }
+        return true;
+    }
+}
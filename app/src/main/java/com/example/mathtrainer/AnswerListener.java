@@ -0,0 +1,13 @@
+package com.example.mathtrainer;
+
+/** Вызывается {@link GameSession} на каждый верный ответ (для журнала и статистики). */
+public interface AnswerListener<T> {
+
+    /**
+     * @param latencyMs     время на вопрос без пауз
+     * @param wrongAttempts сколько ответов на этот вопрос было отклонено до верного
+     * @param points        начисленные баллы (с учётом штрафа)
+     * @param freeTimeSec   время на вопрос без штрафа у этого уровня (free_time)
+     */
+    void onAnswered(T task, long latencyMs, int wrongAttempts, double points, long freeTimeSec);
+}
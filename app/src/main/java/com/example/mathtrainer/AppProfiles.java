@@ -0,0 +1,33 @@
+package com.example.mathtrainer;
+
+import android.content.Context;
+
+import java.io.File;
+
+/** Профили приложения: реестр в {@code files/profiles}, один на процесс; писатель — общий с журналами. */
+final class AppProfiles {
+    static final String DIR = "profiles";
+
+    // файлы, которые до профилей лежали прямо в files/: достаются первому текущему профилю
+    private static final String[] LEGACY = {
+            Profiles.Profile.EVENTS, Profiles.Profile.LEADERBOARD, "schedule_level1.bin", "schedule_level2.bin"
+    };
+
+    private static Profiles profiles;
+
+    private AppProfiles() {}
+
+    /** Только с главного потока. Читает реестр (маленький файл) при первом вызове. */
+    static Profiles get(Context context) {
+        if (profiles == null) {
+            File files = context.getApplicationContext().getFilesDir();
+            profiles = Profiles.open(new File(files, DIR), EventLog.singleWriter(), System::currentTimeMillis);
+            profiles.current().adopt(files, LEGACY);
+        }
+        return profiles;
+    }
+
+    static Profiles.Profile current(Context context) {
+        return get(context).current();
+    }
+}
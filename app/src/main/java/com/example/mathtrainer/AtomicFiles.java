@@ -0,0 +1,54 @@
+package com.example.mathtrainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Замена файла целиком: содержимое пишется в соседний «.tmp», сбрасывается на диск
+ * и переименовывается поверх. Читатель видит либо старый файл, либо новый — недописанного
+ * не бывает и после сбоя питания.
+ */
+final class AtomicFiles {
+
+    private AtomicFiles() {}
+
+    /** Содержимое нового файла: пишется в канал временного файла (канал не закрывать). */
+    interface Content {
+        void writeTo(FileChannel ch) throws IOException;
+    }
+
+    /** Заменить {@code file} содержимым {@code data} (от position до limit). */
+    static void replace(File file, ByteBuffer data) throws IOException {
+        replace(file, ch -> {
+            while (data.hasRemaining()) ch.write(data);
+        });
+    }
+
+    /** Заменить {@code file} тем, что запишет {@code content}, — для больших файлов без буфера на весь файл. */
+    static void replace(File file, Content content) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        File tmp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+            raf.setLength(0);
+            FileChannel ch = raf.getChannel();
+            content.writeTo(ch);
+            ch.force(true); // данные на диске раньше переименования — иначе после сбоя питания файл пуст
+        }
+        if (!tmp.renameTo(file)) {
+            if (!file.delete() || !tmp.renameTo(file)) throw new IOException("Не удалось заменить " + file);
+        }
+    }
+
+    /** То же без исключений — для фонового сохранения: при ошибке старый файл остаётся целым. */
+    static void write(File file, byte[] bytes) {
+        try {
+            replace(file, ByteBuffer.wrap(bytes));
+        } catch (IOException ignored) {
+            // сохранится в следующий раз
+        }
+    }
+}
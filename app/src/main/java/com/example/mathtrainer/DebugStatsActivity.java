@@ -0,0 +1,71 @@
+package com.example.mathtrainer;
+
+import android.graphics.Typeface;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.CompoundButton;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+import android.widget.Switch;
+import android.widget.TextView;
+
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+
+/**
+ * Экран отладки: сводка гистограмм {@link Instrumentation} (ответ → кадр, тик, привязка строк),
+ * попадания подкачки задач ({@link TaskPipeline#latestStats()}), выключатель замеров и сброс.
+ * Открывается долгим нажатием на «Уровень 1» в меню уровней.
+ */
+public class DebugStatsActivity extends AppCompatActivity {
+
+    private TextView stats;
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        LinearLayout root = new LinearLayout(this);
+        root.setOrientation(LinearLayout.VERTICAL);
+        root.setPadding(32, 32, 32, 32);
+
+        Switch enabled = new Switch(this);
+        enabled.setText("Замеры включены");
+        enabled.setChecked(Instrumentation.isEnabled());
+        enabled.setOnCheckedChangeListener((CompoundButton b, boolean on) -> Instrumentation.setEnabled(on));
+
+        Button refresh = new Button(this);
+        refresh.setText("Обновить");
+        refresh.setOnClickListener(v -> refresh());
+
+        Button reset = new Button(this);
+        reset.setText("Сбросить");
+        reset.setOnClickListener(v -> {
+            Instrumentation.reset();
+            refresh();
+        });
+
+        stats = new TextView(this);
+        stats.setTypeface(Typeface.MONOSPACE);
+        stats.setTextSize(14f);
+        stats.setTextIsSelectable(true);
+        ScrollView scroll = new ScrollView(this);
+        scroll.addView(stats);
+
+        root.addView(enabled);
+        root.addView(refresh);
+        root.addView(reset);
+        root.addView(scroll);
+        setContentView(root);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh();
+    }
+
+    private void refresh() {
+        stats.setText(Instrumentation.dump() + TaskPipeline.latestStats());
+    }
+}
@@ -2,7 +2,6 @@ package com.example.mathtrainer;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Random;
 
 /**
  * Второй уровень: задачи с десятичными дробями (1 знак после запятой).
@@ -12,140 +11,163 @@ import java.util.Random;
  *  B) i(0..9)     +/- d(0.1..9.9), результат > 0 и ≤ 9.9
  *  C) a(0.1..9.9) *  k(1..9),      результат в (0, 9.9], 1 знак после запятой
  *  D) a(0.1..9.9) /  k(1..9),      результат в [0.1, 9.9], 1 знак после запятой
+ *
+ * Все значения хранятся в фиксированной точке — целыми десятыми (3.7 → 37).
+ * BigDecimal остаётся только как внешнее представление ({@link #getAnswer()}).
  */
 public class DecimalTask {
-    private static final Random RND = new Random();
+    private static final TaskRandom DEFAULT = TaskRandom.shared();
+
+    /** Результат {@link #parseTenths(CharSequence)} для строки, которая не является числом. */
+    public static final int NOT_A_NUMBER = Integer.MIN_VALUE;
 
-    private final BigDecimal a;
-    private final BigDecimal b; // для умножения/деления здесь хранится второй операнд (целое 1..9 как BigDecimal)
-    private final char op;      // '+', '-', '×', '÷'
+    // Ограничение разбора: всё, что больше, заведомо неверный ответ
+    private static final long PARSE_LIMIT = 1_000_000_000L;
+
+    private final int a;   // десятые
+    private final int b;   // десятые; на уровне 2 для умножения/деления — целое 1..9, т.е. 10..90
+    private final char op; // '+', '-', '×', '÷'
+    private final int id;  // индекс в DecimalTaskCatalog, -1 — задача вне каталога
+    private final String text;
 
     public DecimalTask(BigDecimal a, BigDecimal b, char op) {
-        this.a = scale1(a);
-        this.b = scale1(b);
+        this(-1, tenths(a), tenths(b), op, null);
+    }
+
+    // Экземпляры каталога: текст строится один раз при построении
+    DecimalTask(int id, int aTenths, int bTenths, char op, String text) {
+        this.id = id;
+        this.a = aTenths;
+        this.b = bTenths;
         this.op = op;
+        this.text = text;
     }
 
+    /** Глобальный id задачи в {@link DecimalTaskCatalog} своего уровня или -1. */
+    public int getId() { return id; }
+
+    public int getATenths() { return a; }
+    public int getBTenths() { return b; }
+    public char getOp()     { return op; }
+
     public String getText() {
-        // Показываем 1 знак после запятой
-        return fmt(a) + " " + op + " " + fmt(b) + " = ?";
+        if (text != null) return text;
+        return buildText(a, b, op);
     }
 
     public BigDecimal getAnswer() {
-        BigDecimal res;
-        switch (op) {
-            case '+': res = a.add(b); break;
-            case '-': res = a.subtract(b); break;
-            case '×': res = a.multiply(toIntIfPossible(b)); break;
-            case '÷':
-                int k = toIntIfPossible(b).intValueExact();
-                res = a.divide(BigDecimal.valueOf(k), 1, RoundingMode.UNNECESSARY);
-                break;
-            default:  res = BigDecimal.ZERO;
-        }
-        return scale1(res);
+        return BigDecimal.valueOf(getAnswerTenths(), 1);
     }
 
-    // ---------- Генерация ----------
+    /** Ответ в десятых. Деление без остатка; иначе ArithmeticException, как у RoundingMode.UNNECESSARY. */
+    public int getAnswerTenths() {
+        return answerTenths(a, b, op);
+    }
 
-    public static DecimalTask random() {
-        int t = RND.nextInt(4); // 0..3
-        switch (t) {
-            case 0: return genAddSubDecDec();
-            case 1: return genAddSubIntDec();
-            case 2: return genMul();
-            default:return genDiv();
-        }
+    /** Совпадает ли введённое значение (в десятых) с ответом. */
+    public boolean isCorrect(int userTenths) {
+        return userTenths != NOT_A_NUMBER && userTenths == getAnswerTenths();
     }
 
-    // A) a(0.1..9.9) +/- b(0.1..9.9), res in (0, 9.9]
-    private static DecimalTask genAddSubDecDec() {
-        for (int i = 0; i < 10_000; i++) {
-            BigDecimal a = randTenth(1, 99); // 0.1..9.9
-            BigDecimal b = randTenth(1, 99);
-            char op = RND.nextBoolean() ? '+' : '-';
+    // ---------- Генерация ----------
 
-            BigDecimal res = (op == '+') ? a.add(b) : a.subtract(b);
-            if (res.compareTo(BigDecimal.ZERO) > 0 && res.compareTo(BigDecimal.valueOf(9.9)) <= 0) {
-                return new DecimalTask(a, b, op);
-            }
-        }
-        // fallback (теоретически не должен понадобиться)
-        return new DecimalTask(BigDecimal.valueOf(0.5), BigDecimal.valueOf(0.4), '+');
+    public static DecimalTask random() { return random(DEFAULT); }
+
+    public static DecimalTask random(TaskRandom rnd) {
+        // тип равновероятно 0..3, внутри типа — один индекс в заранее перечисленной таблице
+        return DecimalTaskCatalog.forType(rnd.nextInt(DecimalTaskCatalog.TYPES)).random(rnd);
     }
 
-    // B) i(0..9) +/- d(0.1..9.9), res in (0, 9.9]
-    private static DecimalTask genAddSubIntDec() {
-        for (int i = 0; i < 10_000; i++) {
-            BigDecimal I = BigDecimal.valueOf(RND.nextInt(10)); // 0..9
-            BigDecimal d = randTenth(1, 99);                    // 0.1..9.9
-            char op = RND.nextBoolean() ? '+' : '-';
+    /** Случайная задача, отличная от {@code last} (без цикла перегенерации). */
+    public static DecimalTask randomExcept(DecimalTask last) { return randomExcept(DEFAULT, last); }
 
-            BigDecimal res = (op == '+') ? I.add(d) : I.subtract(d);
-            if (res.compareTo(BigDecimal.ZERO) > 0 && res.compareTo(BigDecimal.valueOf(9.9)) <= 0) {
-                return new DecimalTask(I, d, op);
-            }
-        }
-        return new DecimalTask(BigDecimal.valueOf(2), BigDecimal.valueOf(0.5), '-');
+    public static DecimalTask randomExcept(TaskRandom rnd, DecimalTask last) {
+        return DecimalTaskCatalog.forType(rnd.nextInt(DecimalTaskCatalog.TYPES)).randomExcept(rnd, last);
     }
 
-    // C) a(0.1..9.9) * k(1..9), result in (0, 9.9], 1 decimal digit
-    private static DecimalTask genMul() {
-        for (int i = 0; i < 10_000; i++) {
-            int k = 1 + RND.nextInt(9); // 1..9
-            int maxN = 99 / k;          // n/10 * k <= 9.9  =>  n <= 99/k
-            if (maxN < 1) continue;
-            int n = 1 + RND.nextInt(maxN);
-            BigDecimal a = BigDecimal.valueOf(n).divide(BigDecimal.TEN); // n/10
-            BigDecimal res = a.multiply(BigDecimal.valueOf(k));
-            if (res.compareTo(BigDecimal.ZERO) > 0 && res.compareTo(BigDecimal.valueOf(9.9)) <= 0) {
-                return new DecimalTask(a, BigDecimal.valueOf(k), '×');
-            }
-        }
-        return new DecimalTask(BigDecimal.valueOf(0.5), BigDecimal.valueOf(2), '×'); // 1.0
-    }
+    // ---------- Фиксированная точка ----------
 
-    // D) a(0.1..9.9) / k(1..9) -> чтобы ответ был с 1 знаком: генерим сначала результат r, затем a=r*k
-    private static DecimalTask genDiv() {
-        for (int i = 0; i < 10_000; i++) {
-            int k = 1 + RND.nextInt(9);             // 1..9
-            BigDecimal r = randTenth(1, 99);        // желаемый результат 0.1..9.9
-            BigDecimal a = r.multiply(BigDecimal.valueOf(k)); // делимое
-            if (a.compareTo(BigDecimal.valueOf(9.9)) <= 0) {
-                return new DecimalTask(a, BigDecimal.valueOf(k), '÷');
+    static int answerTenths(int a, int b, char op) {
+        switch (op) {
+            case '+': return a + b;
+            case '-': return a - b;
+            case '×': {
+                int p = a * b; // сотые
+                if (p % 10 != 0) throw new ArithmeticException("Rounding necessary");
+                return p / 10;
+            }
+            case '÷': {
+                if (a * 10 % b != 0) throw new ArithmeticException("Rounding necessary");
+                return a * 10 / b;
             }
+            default:  return 0;
         }
-        return new DecimalTask(BigDecimal.valueOf(3.0), BigDecimal.valueOf(3), '÷'); // 1.0
     }
 
-    // ---------- Утилиты ----------
-
-    private static BigDecimal randTenth(int nMin, int nMaxInclusive) {
-        // случайное число вида n/10, где n в [nMin; nMaxInclusive]
-        int n = nMin + RND.nextInt(nMaxInclusive - nMin + 1);
-        return BigDecimal.valueOf(n).divide(BigDecimal.TEN);
+    static String buildText(int a, int b, char op) {
+        StringBuilder sb = new StringBuilder(16);
+        appendTenths(sb, a).append(' ').append(op).append(' ');
+        return appendTenths(sb, b).append(" = ?").toString();
     }
 
-    private static BigDecimal scale1(BigDecimal x) {
-        return x.setScale(1, RoundingMode.UNNECESSARY);
+    /** 50 → "5", 54 → "5.4", 6 → "0.6": хвост .0 убираем, иначе ровно 1 знак. */
+    static StringBuilder appendTenths(StringBuilder sb, int tenths) {
+        if (tenths < 0) {
+            sb.append('-');
+            tenths = -tenths;
+        }
+        sb.append(tenths / 10);
+        if (tenths % 10 != 0) sb.append('.').append((char) ('0' + tenths % 10));
+        return sb;
     }
 
-    private static BigDecimal toIntIfPossible(BigDecimal x) {
-        // для умножения храним k как 1..9, но форматируем с одним знаком, чтобы текст был единообразным
-        return BigDecimal.valueOf(x.intValue());
-    }
+    /**
+     * Разбор ввода пользователя в десятые без BigDecimal: знак, цифры, точка или запятая.
+     * Лишние знаки после запятой округляются HALF_UP, как прежде setScale(1, HALF_UP).
+     * Для нечисла возвращает {@link #NOT_A_NUMBER}.
+     */
+    public static int parseTenths(CharSequence raw) {
+        int start = 0, end = raw.length();
+        while (start < end && Character.isWhitespace(raw.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(raw.charAt(end - 1))) end--;
+        if (start == end) return NOT_A_NUMBER;
+
+        boolean negative = false;
+        char first = raw.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+        }
 
-    // было
-// private static String fmt(BigDecimal x) {
-//     return x.setScale(1, RoundingMode.UNNECESSARY).toPlainString();
-// }
-
-    // стало
-    private static String fmt(BigDecimal x) {
-        // убираем хвост .0, но оставляем 1 знак для неделимых десяток
-        BigDecimal z = x.stripTrailingZeros();
-        if (z.scale() <= 0) return z.toPlainString();        // 5
-        return x.setScale(1, RoundingMode.UNNECESSARY).toPlainString(); // 5.4, 0.6 и т.п.
+        long tenths = 0;
+        int intDigits = 0, fracDigits = 0;
+        boolean separator = false, roundUp = false;
+        for (int i = start; i < end; i++) {
+            char c = raw.charAt(i);
+            if (c == '.' || c == ',') {
+                if (separator) return NOT_A_NUMBER;
+                separator = true;
+            } else if (c >= '0' && c <= '9') {
+                int d = c - '0';
+                if (!separator) {
+                    intDigits++;
+                    if (tenths < PARSE_LIMIT) tenths = tenths * 10 + d * 10;
+                } else if (++fracDigits == 1) {
+                    tenths += d;
+                } else if (fracDigits == 2) {
+                    roundUp = d >= 5;
+                }
+            } else {
+                return NOT_A_NUMBER;
+            }
+        }
+        if (intDigits + fracDigits == 0) return NOT_A_NUMBER;
+        if (roundUp) tenths++;
+        if (tenths > PARSE_LIMIT) tenths = PARSE_LIMIT;
+        return (int) (negative ? -tenths : tenths);
     }
 
+    private static int tenths(BigDecimal x) {
+        return x.setScale(1, RoundingMode.UNNECESSARY).unscaledValue().intValueExact();
+    }
 }
@@ -0,0 +1,166 @@
+package com.example.mathtrainer;
+
+/**
+ * Допустимые задачи десятичного уровня (scale 1 в levels.conf, см. {@link DecimalTask}),
+ * перечисленные при сборке: столбцы берутся из {@link LevelRegistry.Table}.
+ *
+ * Операнды хранятся в десятых долях (int × 10): 0.5 → 5, 3 → 30.
+ * Выбор — один индекс за O(1), без циклов отбраковки. Уровень 2:
+ *  A) a ± b   — равномерно по всем допустимым (a, b, op), как у отбраковки;
+ *  B) i ± d   — то же самое;
+ *  C) a × k   — k равновероятно 1..9, затем n равновероятно 1..99/k (по «строкам» k);
+ *  D) a ÷ k   — равномерно по всем допустимым (k, r), как у отбраковки.
+ * Методы без номера уровня — про уровень 2.
+ *
+ * Экземпляры {@link DecimalTask} и тексты вопросов создаются один раз при построении.
+ */
+public final class DecimalTaskCatalog {
+    /** Десятичный уровень по умолчанию. */
+    static final int LEVEL = 2;
+
+    /** Типов задач уровня 2. */
+    public static final int TYPES = LevelRegistry.get().level(LEVEL).types();
+
+    private final int level;
+    private final int type;
+    private final int idBase;
+    private final int[] a;
+    private final int[] b;
+    private final char[] op;
+    private final DecimalTask[] tasks;
+    // начала строк внешнего операнда (pick rows); null — равномерный выбор
+    private final int[] rowOffset;
+
+    private DecimalTaskCatalog(LevelRegistry.Level level, int type) {
+        LevelRegistry.Table table = level.table();
+        this.level = level.number();
+        this.type = type;
+        this.idBase = level.idBase(type);
+        this.a = table.a(type);
+        this.b = table.b(type);
+        this.op = table.op(type);
+        this.rowOffset = table.rowOffset(type);
+        this.tasks = new DecimalTask[a.length];
+        for (int i = 0; i < tasks.length; i++) {
+            String text = DecimalTask.buildText(a[i], b[i], op[i]);
+            tasks[i] = new DecimalTask(idBase + i, a[i], b[i], op[i], text);
+        }
+    }
+
+    // ---------- Доступ ----------
+
+    public static DecimalTaskCatalog forType(int type) {
+        if (type < 0 || type >= TYPES) throw new IllegalArgumentException("Неизвестный тип задачи: " + type);
+        return Holder.LEVEL_2[type];
+    }
+
+    public static DecimalTaskCatalog forType(int level, int type) {
+        DecimalTaskCatalog[] c = catalogs(level);
+        if (type < 0 || type >= c.length) throw new IllegalArgumentException("Неизвестный тип задачи: " + type);
+        return c[type];
+    }
+
+    /** Каталог уровня 2, которому принадлежит глобальный id (или null). */
+    public static DecimalTaskCatalog forId(int id) { return find(Holder.LEVEL_2, id); }
+
+    public static DecimalTaskCatalog forId(int level, int id) { return find(catalogs(level), id); }
+
+    /** Общее число задач во всех каталогах уровня 2. */
+    public static int totalSize() { return totalSize(LEVEL); }
+
+    public static int totalSize(int level) { return LevelRegistry.get().level(level).totalSize(); }
+
+    public int level()                { return level; }
+    public int type()                 { return type; }
+    public int size()                 { return tasks.length; }
+    public int idBase()               { return idBase; }
+    public int a(int index)           { return a[index]; }
+    public int b(int index)           { return b[index]; }
+    public char op(int index)         { return op[index]; }
+    public DecimalTask task(int index) { return tasks[index]; }
+
+    // ---------- Случайный выбор ----------
+
+    /** Индекс случайной задачи: равномерно или (pick rows) строка равновероятно, затем задача в ней. */
+    public int randomIndex(TaskRandom rnd) {
+        if (rowOffset == null) return rnd.nextInt(tasks.length);
+        int row = rnd.nextInt(rowOffset.length);
+        int rowEnd = row + 1 < rowOffset.length ? rowOffset[row + 1] : tasks.length;
+        return rowOffset[row] + rnd.nextInt(rowEnd - rowOffset[row]);
+    }
+
+    public DecimalTask random(TaskRandom rnd) {
+        return tasks[randomIndex(rnd)];
+    }
+
+    /**
+     * То же, что {@link #random(TaskRandom)}, но никогда не возвращает {@code except}.
+     * Без повторных попыток: исключённый индекс просто «перепрыгиваем».
+     */
+    public DecimalTask randomExcept(TaskRandom rnd, DecimalTask except) {
+        int skip = except == null ? -1 : except.getId() - idBase;
+        if (skip < 0 || skip >= tasks.length) return random(rnd);
+
+        if (rowOffset == null) {
+            int j = rnd.nextInt(tasks.length - 1);
+            return tasks[j >= skip ? j + 1 : j];
+        }
+        int row = rnd.nextInt(rowOffset.length);
+        int from = rowOffset[row];
+        int rowSize = (row + 1 < rowOffset.length ? rowOffset[row + 1] : tasks.length) - from;
+        if (skip < from || skip >= from + rowSize) return tasks[from + rnd.nextInt(rowSize)];
+        int j = from + rnd.nextInt(rowSize - 1);
+        return tasks[j >= skip ? j + 1 : j];
+    }
+
+    /** Вероятность задачи {@code index} у {@link #randomIndex(TaskRandom)}. */
+    public double probability(int index) {
+        if (rowOffset == null) return 1.0 / tasks.length;
+        int row = rowOffset.length - 1;
+        while (rowOffset[row] > index) row--;
+        int rowEnd = row + 1 < rowOffset.length ? rowOffset[row + 1] : tasks.length;
+        return 1.0 / rowOffset.length / (rowEnd - rowOffset[row]);
+    }
+
+    /** Вероятность каждого глобального id у {@link DecimalTask#random()} (тип равновероятен). */
+    public static double[] idProbabilities() { return idProbabilities(LEVEL); }
+
+    /** То же для уровня {@code level}: типы равновероятны. */
+    public static double[] idProbabilities(int level) {
+        DecimalTaskCatalog[] all = catalogs(level);
+        double[] p = new double[totalSize(level)];
+        for (DecimalTaskCatalog c : all) {
+            for (int i = 0; i < c.size(); i++) p[c.idBase + i] = c.probability(i) / all.length;
+        }
+        return p;
+    }
+
+    // ---------- Построение ----------
+
+    private static final DecimalTaskCatalog[][] BY_LEVEL = new DecimalTaskCatalog[LevelRegistry.get().size()][];
+
+    /** Каталоги уровня по типам; строятся из таблицы при первом обращении. Массив не менять. */
+    static synchronized DecimalTaskCatalog[] catalogs(int level) {
+        LevelRegistry.Level l = LevelRegistry.get().level(level);
+        if (l.scale() != 1) throw new IllegalArgumentException("Уровень " + level + " не десятичный");
+        DecimalTaskCatalog[] c = BY_LEVEL[level - 1];
+        if (c == null) {
+            c = new DecimalTaskCatalog[l.types()];
+            for (int t = 0; t < c.length; t++) c[t] = new DecimalTaskCatalog(l, t);
+            BY_LEVEL[level - 1] = c;
+        }
+        return c;
+    }
+
+    private static DecimalTaskCatalog find(DecimalTaskCatalog[] all, int id) {
+        for (DecimalTaskCatalog c : all) {
+            if (id >= c.idBase && id < c.idBase + c.size()) return c;
+        }
+        return null;
+    }
+
+    // Ленивая инициализация: каталоги уровня 2 строятся при первом обращении к классу
+    private static final class Holder {
+        static final DecimalTaskCatalog[] LEVEL_2 = catalogs(LEVEL);
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.mathtrainer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Журнал ответов: двоичный файл только на дозапись, одна запись фиксированной длины
+ * на каждый верно решённый вопрос.
+ *
+ * append() только кладёт запись в буфер в памяти (без I/O и без аллокаций). Полный буфер
+ * или {@link #flush()} передаёт пачку единственному писателю (фоновый поток),
+ * так что путь ответа на главном потоке никогда не ждёт диск. Писать в журнал
+ * должен один поток (главный), читать файл — {@link Cursor}.
+ *
+ * Формат (big-endian): заголовок MAGIC, VERSION, RECORD_SIZE, затем записи:
+ * <pre>
+ *  0 long  время (мс, настенные часы)     20 int   b
+ *  8 byte  уровень (с 1)                  24 int   время ответа, мс
+ *  9 byte  тип задачи в каталоге (-1)     28 short отклонённых ответов
+ * 10 char  операция                       30 short штрафных секунд
+ * 12 int   id задачи                      32 int   баллы × 1000
+ * 16 int   a (уровень 2 — a и b в десятых)
+ * </pre>
+ * У выражений (операция {@link Task#EXPRESSION}) в записи a и b, а полный набор a, b, c
+ * и текст восстанавливаются по уровню и id задачи: ключ записи — id в каталоге уровня.
+ * Недописанный «хвост» после сбоя отбрасывается и при чтении, и при следующей записи.
+ */
+public final class EventLog {
+
+    public static final int MAGIC       = 0x4D54454C; // "MTEL"
+    public static final short VERSION   = 1;
+    public static final int HEADER_SIZE = 8;
+    public static final int RECORD_SIZE = 36;
+
+    /** Записей в одной пачке: столько накапливается в памяти до сброса на диск. */
+    static final int BATCH = 64;
+
+    private static ExecutorService singleWriter;
+
+    /** Общий фоновый писатель процесса: все журналы пишут по очереди в одном потоке. */
+    public static synchronized Executor singleWriter() {
+        if (singleWriter == null) {
+            singleWriter = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "event-log-writer");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return singleWriter;
+    }
+
+    private final File file;
+    private final Executor writer;
+    private final GameClock wallClock;
+    // свободные буферы возвращаются писателем, чтобы append не аллоцировал
+    private final ArrayBlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(4);
+    private ByteBuffer pending;
+    private volatile IOException lastError;
+
+    public EventLog(File file, Executor writer, GameClock wallClock) {
+        this.file = file;
+        this.writer = writer;
+        this.wallClock = wallClock;
+        this.pending = newBatch();
+    }
+
+    public File file()               { return file; }
+    /** Последняя ошибка записи (пачка при этом теряется), или null. */
+    public IOException lastError()   { return lastError; }
+
+    // ---------- Запись ----------
+
+    public void append(Task task, long latencyMs, int wrongAttempts, double points) {
+        append(1, task, latencyMs, wrongAttempts, points);
+    }
+
+    /** Ответ на задачу целого уровня {@code level} (id задачи — в его каталогах). */
+    public void append(int level, Task task, long latencyMs, int wrongAttempts, double points) {
+        append(level, task, latencyMs, wrongAttempts, points, freeTimeSec(level));
+    }
+
+    /** То же при {@code freeTimeSec} секундах на вопрос без штрафа (как у {@link GameSession}). */
+    public void append(int level, Task task, long latencyMs, int wrongAttempts, double points, long freeTimeSec) {
+        TaskCatalog c = TaskCatalog.forId(level, task.getId());
+        append(level, c == null ? -1 : c.type(), task.getId(), task.getA(), task.getB(), task.getOp(),
+                latencyMs, wrongAttempts, points, freeTimeSec);
+    }
+
+    public void append(DecimalTask task, long latencyMs, int wrongAttempts, double points) {
+        append(DecimalTaskCatalog.LEVEL, task, latencyMs, wrongAttempts, points);
+    }
+
+    /** Ответ на задачу десятичного уровня {@code level}. */
+    public void append(int level, DecimalTask task, long latencyMs, int wrongAttempts, double points) {
+        append(level, task, latencyMs, wrongAttempts, points, freeTimeSec(level));
+    }
+
+    public void append(int level, DecimalTask task, long latencyMs, int wrongAttempts, double points, long freeTimeSec) {
+        DecimalTaskCatalog c = DecimalTaskCatalog.forId(level, task.getId());
+        append(level, c == null ? -1 : c.type(), task.getId(), task.getATenths(), task.getBTenths(), task.getOp(),
+                latencyMs, wrongAttempts, points, freeTimeSec);
+    }
+
+    /** Запись как есть; штрафные секунды — сверх {@code freeTimeSec}, как у {@link GameSession}. */
+    public void append(int level, int type, int taskId, int a, int b, char op,
+                       long latencyMs, int wrongAttempts, double points, long freeTimeSec) {
+        long sec = latencyMs / 1000L;
+        long penaltySec = Math.min(GameSession.PENALTY_WINDOW, Math.max(0L, sec - freeTimeSec));
+        ByteBuffer out = pending;
+        out.putLong(wallClock.nowMs())
+           .put((byte) level)
+           .put((byte) type)
+           .putChar(op)
+           .putInt(taskId)
+           .putInt(a)
+           .putInt(b)
+           .putInt((int) Math.min(Integer.MAX_VALUE, latencyMs))
+           .putShort((short) Math.min(Short.MAX_VALUE, wrongAttempts))
+           .putShort((short) penaltySec)
+           .putInt((int) Math.round(points * 1000.0));
+        if (!out.hasRemaining()) flush();
+    }
+
+    // free_time уровня из levels.conf
+    private static long freeTimeSec(int level) {
+        return LevelRegistry.get().level(level).freeTimeSec();
+    }
+
+    /** Отдать накопленные записи писателю (например, в конце уровня и в onPause). */
+    public void flush() {
+        ByteBuffer batch = pending;
+        if (batch.position() == 0) return;
+        ByteBuffer next = free.poll();
+        pending = next != null ? next : newBatch();
+        batch.flip();
+        writer.execute(() -> write(batch));
+    }
+
+    private static ByteBuffer newBatch() {
+        return ByteBuffer.allocate(BATCH * RECORD_SIZE);
+    }
+
+    // Выполняется писателем
+    private void write(ByteBuffer batch) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            FileChannel ch = raf.getChannel();
+            long size = ch.size();
+            if (size < HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE);
+                header.flip();
+                ch.truncate(0);
+                ch.write(header, 0);
+                size = HEADER_SIZE;
+            } else {
+                long tail = (size - HEADER_SIZE) % RECORD_SIZE;
+                if (tail != 0) ch.truncate(size -= tail);
+            }
+            long pos = size;
+            while (batch.hasRemaining()) pos += ch.write(batch, pos);
+        } catch (IOException e) {
+            lastError = e;
+        }
+        batch.clear();
+        free.offer(batch);
+    }
+
+    // ---------- Чтение ----------
+
+    /**
+     * Последовательное чтение журнала: одна переиспользуемая «текущая запись»,
+     * без объектов на событие.
+     * <pre>
+     * try (EventLog.Cursor c = EventLog.Cursor.open(file)) {
+     *     while (c.next()) { ... c.latencyMs() ... }
+     * }
+     * </pre>
+     */
+    public static final class Cursor implements Closeable {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocate(1024 * RECORD_SIZE);
+
+        private long timeMs;
+        private int level, type, taskId, a, b, latencyMs, wrongAttempts, penaltySec, pointsMilli;
+        private char op;
+
+        private Cursor(FileChannel ch) {
+            this.ch = ch;
+            buf.limit(0);
+        }
+
+        /** Открыть журнал; отсутствующий файл — пустой журнал. */
+        public static Cursor open(File file) throws IOException {
+            if (!file.exists()) return new Cursor(null);
+            FileChannel ch = new FileInputStream(file).getChannel();
+            try {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while (header.hasRemaining() && ch.read(header) >= 0) { /* дочитываем */ }
+                header.flip();
+                if (header.remaining() == 0) return new Cursor(ch);
+                if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC
+                        || header.getShort() != VERSION || header.getShort() != RECORD_SIZE) {
+                    throw new IOException("Не журнал событий или неизвестная версия: " + file);
+                }
+                return new Cursor(ch);
+            } catch (IOException | RuntimeException e) {
+                ch.close();
+                throw e;
+            }
+        }
+
+        /** Перейти к следующей записи; false — записи кончились (недописанная не считается). */
+        public boolean next() throws IOException {
+            if (buf.remaining() < RECORD_SIZE && !fill()) return false;
+            timeMs        = buf.getLong();
+            level         = buf.get();
+            type          = buf.get();
+            op            = buf.getChar();
+            taskId        = buf.getInt();
+            a             = buf.getInt();
+            b             = buf.getInt();
+            latencyMs     = buf.getInt();
+            wrongAttempts = buf.getShort();
+            penaltySec    = buf.getShort();
+            pointsMilli   = buf.getInt();
+            return true;
+        }
+
+        private boolean fill() throws IOException {
+            if (ch == null) return false;
+            buf.compact();
+            while (buf.position() < RECORD_SIZE) {
+                if (ch.read(buf) < 0) break;
+            }
+            buf.flip();
+            return buf.remaining() >= RECORD_SIZE;
+        }
+
+        public long timeMs()       { return timeMs; }
+        public int level()         { return level; }
+        public int type()          { return type; }
+        public char op()           { return op; }
+        public int taskId()        { return taskId; }
+        public int a()             { return a; }
+        public int b()             { return b; }
+        public int latencyMs()     { return latencyMs; }
+        public int wrongAttempts() { return wrongAttempts; }
+        public int penaltySec()    { return penaltySec; }
+        public int pointsMilli()   { return pointsMilli; }
+
+        @Override
+        public void close() throws IOException {
+            if (ch != null) ch.close();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.mathtrainer;
+
+import java.util.Arrays;
+
+/**
+ * Арифметическое выражение с приоритетом и скобками: {@code 7 + 3 × 4}, {@code (a − b) × c}.
+ *
+ * {@link #compile(String)} разбирает текст один раз (рекурсивный спуск) в постфиксный
+ * код — плоский int[]: неотрицательное число — литерал, {@link #VAR} − i — переменная
+ * i ('a' → 0, 'b' → 1, …), остальное — операции. {@link #evaluate(int[], int[])} проходит
+ * код со стеком вызывающего: без аллокаций и без дерева, один экземпляр на все потоки.
+ *
+ * Деление — только нацело: остаток, деление на 0 или выход за int дают
+ * {@link #NOT_AN_INTEGER}. Знаки в тексте: + - − * × / ÷ :; унарного минуса нет.
+ * По этому же классу LevelCompiler (buildSrc) перечисляет выражения уровней при сборке.
+ */
+public final class Expression {
+
+    /** Ответ выражения, которое не вычисляется нацело. */
+    public static final int NOT_AN_INTEGER = Integer.MIN_VALUE;
+
+    static final int ADD = -1, SUB = -2, MUL = -3, DIV = -4;
+    /** Код переменной i — VAR − i. */
+    static final int VAR = -16;
+
+    private static final int MAX_VARIABLES = 26;
+
+    private final String source;
+    private final int[] code;
+    private final int stackSize;
+    private final int variables; // старшая переменная + 1
+
+    private Expression(String source, int[] code, int stackSize, int variables) {
+        this.source = source;
+        this.code = code;
+        this.stackSize = stackSize;
+        this.variables = variables;
+    }
+
+    /** Разобрать выражение; ошибка синтаксиса — IllegalArgumentException с позицией. */
+    public static Expression compile(String text) {
+        Parser p = new Parser(text);
+        p.expression();
+        p.skipSpaces();
+        if (p.pos < text.length()) throw p.error("лишний символ «" + text.charAt(p.pos) + "»");
+        int[] code = Arrays.copyOf(p.code, p.size);
+        int depth = 0, max = 0, vars = 0;
+        for (int c : code) {
+            if (c >= 0 || c <= VAR) max = Math.max(max, ++depth);
+            else depth--;
+            if (c <= VAR) vars = Math.max(vars, VAR - c + 1);
+        }
+        return new Expression(text, code, max, vars);
+    }
+
+    /** Глубина стека для {@link #evaluate(int[], int[])}. */
+    public int stackSize() { return stackSize; }
+
+    /** Сколько значений ждёт {@code vars}: старшая переменная + 1. */
+    public int variables() { return variables; }
+
+    /** Постфиксный код; не менять. */
+    int[] code() { return code; }
+
+    /** Значение при {@code vars} ('a' — vars[0]); {@code stack} — не короче {@link #stackSize()}. */
+    public int evaluate(int[] vars, int[] stack) {
+        int sp = 0;
+        for (int c : code) {
+            if (c >= 0) {
+                stack[sp++] = c;
+            } else if (c <= VAR) {
+                stack[sp++] = vars[VAR - c];
+            } else {
+                long y = stack[--sp], x = stack[sp - 1], r;
+                switch (c) {
+                    case ADD: r = x + y; break;
+                    case SUB: r = x - y; break;
+                    case MUL: r = x * y; break;
+                    default:
+                        if (y == 0 || x % y != 0) return NOT_AN_INTEGER;
+                        r = x / y;
+                }
+                if (r < -Integer.MAX_VALUE || r > Integer.MAX_VALUE) return NOT_AN_INTEGER;
+                stack[sp - 1] = (int) r;
+            }
+        }
+        return stack[0];
+    }
+
+    /** Значение выражения без переменных (разово: стек аллоцируется). */
+    public int evaluate() {
+        if (variables > 0) throw new IllegalStateException("В выражении есть переменные: " + source);
+        return evaluate(new int[0], new int[stackSize]);
+    }
+
+    /** Текст с подставленными {@code vars}: знаки + - × ÷, только нужные скобки (и у отрицательных). */
+    public String text(int[] vars) {
+        String[] s = new String[stackSize];
+        int[] prec = new int[stackSize]; // 3 — операнд, 2 — × ÷, 1 — + -
+        int sp = 0;
+        for (int c : code) {
+            if (c >= 0 || c <= VAR) {
+                int v = c >= 0 ? c : vars[VAR - c];
+                s[sp] = v < 0 ? "(" + v + ")" : String.valueOf(v);
+                prec[sp++] = 3;
+                continue;
+            }
+            sp--;
+            int p = c == ADD || c == SUB ? 1 : 2;
+            // левоассоциативно: справа скобки и при равном приоритете у − и ÷
+            String left = prec[sp - 1] < p ? "(" + s[sp - 1] + ")" : s[sp - 1];
+            boolean wrap = prec[sp] < p || (prec[sp] == p && (c == SUB || c == DIV));
+            String right = wrap ? "(" + s[sp] + ")" : s[sp];
+            s[sp - 1] = left + " " + symbol(c) + " " + right;
+            prec[sp - 1] = p;
+        }
+        return s[0];
+    }
+
+    private static char symbol(int op) {
+        switch (op) {
+            case ADD: return '+';
+            case SUB: return '-';
+            case MUL: return '×';
+            default:  return '÷';
+        }
+    }
+
+    @Override
+    public String toString() { return source; }
+
+    // ---------- Разбор ----------
+
+    // expression := term (('+' | '-') term)*;  term := factor (('×' | '÷') factor)*;
+    // factor := число | буква | '(' expression ')'
+    private static final class Parser {
+        final String text;
+        int pos;
+        int[] code = new int[16];
+        int size;
+
+        Parser(String text) { this.text = text; }
+
+        void expression() {
+            term();
+            for (int op; (op = operator("+", "-−", ADD, SUB)) != 0; ) {
+                term();
+                emit(op);
+            }
+        }
+
+        void term() {
+            factor();
+            for (int op; (op = operator("*×", "/÷:", MUL, DIV)) != 0; ) {
+                factor();
+                emit(op);
+            }
+        }
+
+        void factor() {
+            skipSpaces();
+            if (pos == text.length()) throw error("ожидается число, переменная или «(»");
+            char ch = text.charAt(pos);
+            if (ch == '(') {
+                pos++;
+                expression();
+                skipSpaces();
+                if (pos == text.length() || text.charAt(pos) != ')') throw error("ожидается «)»");
+                pos++;
+            } else if (ch >= '0' && ch <= '9') {
+                long v = 0;
+                while (pos < text.length() && text.charAt(pos) >= '0' && text.charAt(pos) <= '9') {
+                    v = v * 10 + (text.charAt(pos++) - '0');
+                    if (v > Integer.MAX_VALUE) throw error("слишком большое число");
+                }
+                emit((int) v);
+            } else if (ch >= 'a' && ch < 'a' + MAX_VARIABLES) {
+                pos++;
+                emit(VAR - (ch - 'a'));
+            } else {
+                throw error("неожиданный символ «" + ch + "»");
+            }
+        }
+
+        // следующий знак: из first — op1, из second — op2, иначе 0 (позиция не сдвигается)
+        int operator(String first, String second, int op1, int op2) {
+            skipSpaces();
+            if (pos == text.length()) return 0;
+            char ch = text.charAt(pos);
+            int op = first.indexOf(ch) >= 0 ? op1 : second.indexOf(ch) >= 0 ? op2 : 0;
+            if (op != 0) pos++;
+            return op;
+        }
+
+        void emit(int c) {
+            if (size == code.length) code = Arrays.copyOf(code, size * 2);
+            code[size++] = c;
+        }
+
+        void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("«" + text + "», позиция " + (pos + 1) + ": " + message);
+        }
+    }
+}
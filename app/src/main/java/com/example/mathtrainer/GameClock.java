@@ -0,0 +1,6 @@
+package com.example.mathtrainer;
+
+/** Источник времени для {@link GameSession}; в тестах и бенчмарках подменяется вручную управляемым. */
+public interface GameClock {
+    long nowMs();
+}
@@ -0,0 +1,198 @@
+package com.example.mathtrainer;
+
+/**
+ * Игровой процесс уровня без Android: текущая задача, время уровня и вопроса,
+ * штраф, счёт, цель и рекорды. Активити только показывают состояние и передают ввод.
+ *
+ * Правила (как было в MainActivity/Level2Activity):
+ *  - на вопрос даётся {@link #FREE_TIME_LIMIT} сек (или free_time уровня), за верный ответ — 1 балл;
+ *  - дальше идёт штрафная минута: балл линейно убывает от 1.000 до 0.000;
+ *  - уровень пройден, когда сумма баллов достигла {@link #TARGET_SCORE}.
+ *
+ * Часы должны быть монотонными (на Android — SystemClock.elapsedRealtime): время
+ * на паузе ({@link #pause()}/{@link #resume()}) не засчитывается ни уровню, ни вопросу.
+ */
+public final class GameSession<T> {
+
+    public static final long   FREE_TIME_LIMIT = 60;   // сек на обдумывание
+    public static final long   PENALTY_WINDOW  = 60;   // сек штрафной минуты
+    public static final double TARGET_SCORE    = 30.0; // целевые баллы
+
+    private final TaskSource<T> source;
+    private final GameClock clock;
+    private final RecordStore records;
+    private final double targetScore;
+    private final long freeTimeLimit;
+    private AnswerListener<T> listener;
+
+    private T current;
+    private long levelStartMs;
+    private long questionStartMs;
+    private long levelDurationMs = -1; // -1 — уровень ещё не пройден
+    private int recordRank = -1;       // место прохождения в рекордах, -1 — не попало
+    private long pausedAtMs = -1;      // -1 — не на паузе
+    private double totalScore;
+    private int answered;
+    private int wrongAttempts; // отклонённые ответы на текущий вопрос
+
+    public GameSession(TaskSource<T> source, GameClock clock, RecordStore records) {
+        this(source, clock, records, TARGET_SCORE);
+    }
+
+    public GameSession(TaskSource<T> source, GameClock clock, RecordStore records, double targetScore) {
+        this(source, clock, records, targetScore, FREE_TIME_LIMIT);
+    }
+
+    /** Цель и время на вопрос — из объявления уровня ({@link LevelRegistry.Level}). */
+    public GameSession(TaskSource<T> source, GameClock clock, RecordStore records, double targetScore,
+                       long freeTimeLimit) {
+        this.source = source;
+        this.clock = clock;
+        this.records = records;
+        this.targetScore = targetScore;
+        this.freeTimeLimit = freeTimeLimit;
+    }
+
+    /** Подписаться на верные ответы (null — отписаться). */
+    public void setAnswerListener(AnswerListener<T> listener) {
+        this.listener = listener;
+    }
+
+    // ---------- Управление ----------
+
+    /** Начать (или начать заново) уровень: обнулить счёт и выдать первую задачу. */
+    public void start() {
+        pausedAtMs = -1;
+        levelStartMs = clock.nowMs();
+        levelDurationMs = -1;
+        recordRank = -1;
+        totalScore = 0.0;
+        answered = 0;
+        nextTask();
+    }
+
+    /**
+     * Проверить ответ на текущую задачу. При верном ответе начисляет баллы и либо
+     * завершает уровень ({@link #isFinished()}), либо сразу выдаёт следующую задачу.
+     */
+    public AnswerChecker.Result submit(CharSequence input) {
+        if (isFinished()) return AnswerChecker.Result.WRONG;
+        AnswerChecker.Result result = source.check(input, current);
+        if (result != AnswerChecker.Result.CORRECT) {
+            if (result != AnswerChecker.Result.EMPTY) wrongAttempts++;
+            return result;
+        }
+
+        long now = now();
+        long latencyMs = now - questionStartMs;
+        double points = pointsFor(latencyMs / 1000L, freeTimeLimit);
+        totalScore += points;
+        answered++;
+        if (listener != null) listener.onAnswered(current, latencyMs, wrongAttempts, points, freeTimeLimit);
+
+        if (totalScore >= targetScore) {
+            levelDurationMs = now - levelStartMs;
+            if (records != null) recordRank = records.record(levelDurationMs, totalScore);
+        } else {
+            nextTask();
+        }
+        return result;
+    }
+
+    private void nextTask() {
+        questionStartMs = now();
+        wrongAttempts = 0;
+        current = source.next(current);
+    }
+
+    /** Остановить время уровня и вопроса (кнопка «Стоп», уход активити в фон). */
+    public void pause() {
+        if (pausedAtMs < 0 && !isFinished()) pausedAtMs = clock.nowMs();
+    }
+
+    /** Продолжить: отсчёт идёт с того же места, время паузы не учитывается. */
+    public void resume() {
+        if (pausedAtMs < 0) return;
+        long pausedFor = clock.nowMs() - pausedAtMs;
+        levelStartMs += pausedFor;
+        questionStartMs += pausedFor;
+        pausedAtMs = -1;
+    }
+
+    // «Игровое» текущее время: на паузе стоит на моменте паузы
+    private long now() {
+        return pausedAtMs >= 0 ? pausedAtMs : clock.nowMs();
+    }
+
+    // ---------- Состояние ----------
+
+    public T currentTask()        { return current; }
+    public String questionText()  { return source.text(current); }
+    public double totalScore()    { return totalScore; }
+    public int answeredCount()    { return answered; }
+    public boolean isFinished()   { return levelDurationMs >= 0; }
+    public boolean isPaused()     { return pausedAtMs >= 0; }
+    public RecordStore records()  { return records; }
+    /** Секунд на вопрос без штрафа. */
+    public long freeTimeLimit()   { return freeTimeLimit; }
+
+    /** Сколько баллов осталось до цели; 0 — уровень пройден. */
+    public double scoreToTarget() {
+        return Math.max(0.0, targetScore - totalScore);
+    }
+
+    /** Время прохождения уровня (мс) или -1, пока уровень не пройден. */
+    public long levelDurationMs() { return levelDurationMs; }
+
+    /** Место пройденного уровня в рекордах (0 — лучшее) или -1. */
+    public int recordRank()       { return recordRank; }
+
+    /** Секунды с начала уровня (для таймера уровня). */
+    public long levelSeconds() {
+        return (now() - levelStartMs) / 1000L;
+    }
+
+    /** Секунды сверх времени на вопрос на текущем вопросе, 0..{@link #PENALTY_WINDOW}. */
+    public long penaltySeconds() {
+        long sinceStartSec = (now() - questionStartMs) / 1000L;
+        if (sinceStartSec <= freeTimeLimit) return 0L;
+        return Math.min(PENALTY_WINDOW, sinceStartSec - freeTimeLimit);
+    }
+
+    /** Штрафной балл: убывает 1 - (штрафные_сек / 60). */
+    public double penaltyBall() {
+        return Math.max(0.0, 1.0 - (penaltySeconds() / (double) PENALTY_WINDOW));
+    }
+
+    /**
+     * Через сколько мс изменится {@link #levelSeconds()} или {@link #penaltySeconds()};
+     * -1, если на паузе или уровень пройден (тикать не нужно). Тикер планирует
+     * следующий тик ровно на эту границу секунды, поэтому не накапливает дрейф.
+     */
+    public long msUntilNextChange() {
+        if (isPaused() || isFinished()) return -1;
+        long now = clock.nowMs();
+        long next = 1000L - (now - levelStartMs) % 1000L;
+
+        long sinceQuestion = now - questionStartMs;
+        long penaltyFrom = (freeTimeLimit + 1) * 1000L;             // 0 → 1 штрафная секунда
+        long penaltyTo   = (freeTimeLimit + PENALTY_WINDOW) * 1000L; // дальше не растёт
+        if (sinceQuestion < penaltyFrom) {
+            next = Math.min(next, penaltyFrom - sinceQuestion);
+        } else if (sinceQuestion < penaltyTo) {
+            next = Math.min(next, 1000L - sinceQuestion % 1000L);
+        }
+        return next;
+    }
+
+    /** Сколько баллов приносит верный ответ, данный через {@code sec} секунд после показа вопроса. */
+    public static double pointsFor(long sec) {
+        return pointsFor(sec, FREE_TIME_LIMIT);
+    }
+
+    /** То же при {@code freeTimeLimit} секундах на вопрос без штрафа. */
+    public static double pointsFor(long sec, long freeTimeLimit) {
+        if (sec <= freeTimeLimit) return 1.0;
+        return Math.max(0.0, 1.0 - ((sec - freeTimeLimit) / (double) PENALTY_WINDOW));
+    }
+}
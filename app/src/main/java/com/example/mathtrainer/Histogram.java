@@ -0,0 +1,103 @@
+package com.example.mathtrainer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гистограмма длительностей в наносекундах в духе HDR: логарифмические корзины
+ * (степени двойки), каждая делится на {@link #SUB_BUCKETS} линейных частей —
+ * относительная погрешность не больше 1/16 на всём диапазоне long. Значения меньше 16
+ * хранятся точно.
+ *
+ * Запись без блокировок и аллокаций: один атомарный инкремент корзины плюс сумма
+ * и максимум; писать можно из любых потоков, читать — параллельно с записью
+ * (снимок тогда может быть чуть несогласованным, для метрик это неважно).
+ */
+public final class Histogram {
+
+    public static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = 4;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram(String name) {
+        this.name = name;
+    }
+
+    public String name() { return name; }
+
+    public void record(long nanos) {
+        long v = Math.max(0L, nanos);
+        counts.incrementAndGet(index(v));
+        count.incrementAndGet();
+        total.addAndGet(v);
+        long m = max.get();
+        while (v > m && !max.compareAndSet(m, v)) m = max.get();
+    }
+
+    public long count()    { return count.get(); }
+    public long maxNanos() { return max.get(); }
+
+    public double meanNanos() {
+        long n = count.get();
+        return n == 0 ? Double.NaN : total.get() / (double) n;
+    }
+
+    /** Верхняя граница корзины, в которую попал процентиль {@code p} (0..1); 0 без замеров. */
+    public long percentileNanosAtMost(double p) {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += counts.get(i);
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), maxNanos());
+        }
+        return maxNanos();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0L);
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    /** «tick: n=120 mean=35.2us p50≤31us p90≤48us p99≤95us max=130us». */
+    public StringBuilder appendSummary(StringBuilder sb) {
+        sb.append(name).append(": n=").append(count());
+        if (count() == 0) return sb;
+        sb.append(" mean=").append(Math.round(meanNanos() / 100) / 10.0).append("us");
+        appendUs(sb.append(" p50≤"), percentileNanosAtMost(0.50));
+        appendUs(sb.append(" p90≤"), percentileNanosAtMost(0.90));
+        appendUs(sb.append(" p99≤"), percentileNanosAtMost(0.99));
+        return appendUs(sb.append(" max="), maxNanos());
+    }
+
+    private static StringBuilder appendUs(StringBuilder sb, long nanos) {
+        return sb.append((nanos + 999) / 1000).append("us");
+    }
+
+    // ---------- Корзины ----------
+
+    // [0, 16) — по одной на значение; дальше для 2^k ≤ v < 2^(k+1): (k-3)*16 + 4 бита после старшего
+    static int index(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int k = 63 - Long.numberOfLeadingZeros(v);
+        return (k - SUB_BITS + 1) * SUB_BUCKETS + (int) ((v >>> (k - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int k = index / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = SUB_BUCKETS + index % SUB_BUCKETS;
+        long next = (sub + 1) << (k - SUB_BITS);
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
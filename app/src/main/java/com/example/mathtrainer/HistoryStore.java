@@ -0,0 +1,413 @@
+package com.example.mathtrainer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * История ответов для статистики: колонки фиксированной ширины в файле, который
+ * отображается в память и читается без объектов на запись. Строится из {@link EventLog}
+ * целиком ({@link #build}) и перестраивается, когда журнал вырос ({@link #openFresh}).
+ *
+ * Каждая группа — «факт» (уровень + id задачи), операция уровня или день — это блок
+ * индекса с готовыми суммами и отрезок колонки времени ответа, отсортированный
+ * по возрастанию. Среднее — одно деление, процентиль — одно чтение. Факты и операции
+ * нумеруются по уровням из {@link LevelRegistry}: новый уровень в levels.conf попадает
+ * в статистику без правок здесь.
+ *
+ * Разделы файла (big-endian, смещения кратны 8 для long):
+ * <pre>
+ * заголовок | блоки: факты, операции, дни | time[N] | ключи дней[D] (+выравнивание)
+ *           | latency[3N]: по фактам, по операциям, по дням | points[N] | wrong[N]
+ * </pre>
+ * time/points/wrong и первая треть latency — колонки записей в порядке фактов:
+ * записи факта лежат подряд с {@link #offset(int)}.
+ */
+public final class HistoryStore {
+
+    public static final int MAGIC   = 0x4D544853; // "MTHS"
+    public static final int VERSION = 2;
+
+    static final int HEADER_SIZE = 48;
+    // int offset, int count, long sumLatencyMs, long sumPointsMilli, long sumWrong
+    static final int BLOCK_SIZE = 32;
+
+    // уровень 1 пишет '*', уровень 2 — '×' и '÷': группируем по смыслу;
+    // пятая группа уровня — задачи без одной операции (выражения)
+    private static final String OPS = "+-*/";
+    static final int OPS_PER_LEVEL = OPS.length() + 1;
+    private static final long DAY_MS = 86_400_000L;
+    // буфер записи при построении
+    private static final int CHUNK = 64 * 1024;
+
+    private final int records;
+    private final int facts;
+    private final int opSlots;
+    private final int days;
+    private final long sourceLength;
+    private final long zoneOffsetMs;
+
+    private final ByteBuffer blocks;
+    private final IntBuffer dayKeys;
+    private final LongBuffer time;
+    private final IntBuffer latency;
+    private final IntBuffer points;
+    private final IntBuffer wrong;
+
+    private HistoryStore(ByteBuffer map) throws IOException {
+        if (map.capacity() < HEADER_SIZE || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            throw new IOException("Не файл истории или неизвестная версия");
+        }
+        records      = map.getInt(8);
+        facts        = map.getInt(12);
+        days         = map.getInt(16);
+        opSlots      = map.getInt(20);
+        sourceLength = map.getLong(24);
+        zoneOffsetMs = map.getLong(32);
+
+        int n = records;
+        int pos = HEADER_SIZE;
+        int blockCount = facts + opSlots + days;
+        blocks  = section(map, pos, blockCount * BLOCK_SIZE);
+        pos += blockCount * BLOCK_SIZE;
+        time    = section(map, pos, n * 8).asLongBuffer();
+        pos += n * 8;
+        dayKeys = section(map, pos, days * 4).asIntBuffer();
+        pos += align8(days * 4);
+        latency = section(map, pos, 3 * n * 4).asIntBuffer();
+        pos += 3 * n * 4;
+        points  = section(map, pos, n * 4).asIntBuffer();
+        pos += n * 4;
+        wrong   = section(map, pos, n * 4).asIntBuffer();
+        pos += n * 4;
+        if (pos != map.capacity()) throw new IOException("Файл истории повреждён");
+    }
+
+    private static ByteBuffer section(ByteBuffer map, int pos, int length) throws IOException {
+        if (pos + length > map.capacity()) throw new IOException("Файл истории повреждён");
+        ByteBuffer b = map.duplicate();
+        b.position(pos).limit(pos + length);
+        return b.slice();
+    }
+
+    private static int align8(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    // ---------- Открытие ----------
+
+    /** Отобразить готовый файл в память (канал сразу закрывается, отображение остаётся). */
+    public static HistoryStore open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            MappedByteBuffer map = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            return new HistoryStore(map);
+        }
+    }
+
+    /**
+     * Открыть историю, перестроив её, если журнал с тех пор изменился, сменился
+     * часовой пояс или каталоги задач. Перестройка — O(N log N), вызывать не с главного потока.
+     */
+    public static HistoryStore openFresh(File log, File store, long zoneOffsetMs) throws IOException {
+        if (store.exists()) {
+            try {
+                HistoryStore h = open(store);
+                if (h.sourceLength == log.length() && h.zoneOffsetMs == zoneOffsetMs && h.facts == factTotal() && h.opSlots == opSlots()) {
+                    return h;
+                }
+            } catch (IOException ignored) {
+                // повреждённый или старый файл — просто перестроим
+            }
+        }
+        build(log, store, zoneOffsetMs);
+        return open(store);
+    }
+
+    // ---------- Блоки (факты, операции, дни) ----------
+
+    /** Число фактов: все задачи всех уровней. */
+    public static int factTotal() {
+        return FactBase.BASE[FactBase.BASE.length - 1];
+    }
+
+    /** Групп «уровень + операция». */
+    public static int opSlots() {
+        return LevelRegistry.get().size() * OPS_PER_LEVEL;
+    }
+
+    /** Ключ факта для id задачи из каталога уровня, или -1. */
+    public static int factKey(int level, int taskId) {
+        int[] base = FactBase.BASE;
+        if (level < 1 || level >= base.length) return -1;
+        int key = base[level - 1] + taskId;
+        return taskId >= 0 && key < base[level] ? key : -1;
+    }
+
+    private static int opSlot(int level, char op) {
+        if (level < 1 || level > LevelRegistry.get().size()) return -1;
+        int i = OPS.indexOf(op == '×' ? '*' : op == '÷' ? '/' : op);
+        return (level - 1) * OPS_PER_LEVEL + (i < 0 ? OPS.length() : i);
+    }
+
+    // Начала фактов уровней: BASE[level - 1] — первый ключ уровня, BASE[уровней] — всего
+    private static final class FactBase {
+        static final int[] BASE;
+        static {
+            LevelRegistry r = LevelRegistry.get();
+            BASE = new int[r.size() + 1];
+            for (int l = 1; l <= r.size(); l++) BASE[l] = BASE[l - 1] + r.level(l).totalSize();
+        }
+    }
+
+    /** Блок факта (например, «7 × 8» первого уровня), или -1. */
+    public int factBlock(int level, int taskId) {
+        return factKey(level, taskId);
+    }
+
+    /** Блок всех задач уровня с операцией {@code op} (у выражений — любой знак не из + - × ÷), или -1. */
+    public int opBlock(int level, char op) {
+        int slot = opSlot(level, op);
+        return slot < 0 ? -1 : facts + slot;
+    }
+
+    /** Блок дня (эпохальный день в поясе построения), или -1, если в этот день ответов нет. */
+    public int dayBlock(int epochDay) {
+        int lo = 0, hi = days - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int d = dayKeys.get(mid);
+            if (d < epochDay) lo = mid + 1;
+            else if (d > epochDay) hi = mid - 1;
+            else return facts + opSlots + mid;
+        }
+        return -1;
+    }
+
+    public int dayCount()                 { return days; }
+    /** Эпохальный день i-го дня истории (по возрастанию). */
+    public int day(int i)                 { return dayKeys.get(i); }
+    public int dayBlockAt(int i)          { return facts + opSlots + i; }
+
+    public int count(int block)           { return blocks.getInt(block * BLOCK_SIZE + 4); }
+    public long sumLatencyMs(int block)   { return blocks.getLong(block * BLOCK_SIZE + 8); }
+    public long sumPointsMilli(int block) { return blocks.getLong(block * BLOCK_SIZE + 16); }
+    public long sumWrong(int block)       { return blocks.getLong(block * BLOCK_SIZE + 24); }
+
+    /** Среднее время ответа, мс (NaN для пустого блока). */
+    public double meanLatencyMs(int block) {
+        int n = count(block);
+        return n == 0 ? Double.NaN : sumLatencyMs(block) / (double) n;
+    }
+
+    /** Процентиль времени ответа по ближайшему рангу, {@code p} в [0, 1]; -1 для пустого блока. */
+    public int percentileLatencyMs(int block, double p) {
+        int n = count(block);
+        if (n == 0) return -1;
+        int rank = (int) Math.ceil(p * n);
+        int k = Math.min(n, Math.max(1, rank)) - 1;
+        return latency.get(blocks.getInt(block * BLOCK_SIZE) + k);
+    }
+
+    /** Среднее время ответа по всем задачам уровня, мс (NaN — ответов нет). */
+    public double levelMeanLatencyMs(int level) {
+        if (level < 1 || level > opSlots / OPS_PER_LEVEL) return Double.NaN;
+        long sum = 0;
+        int n = 0;
+        int first = facts + (level - 1) * OPS_PER_LEVEL;
+        for (int block = first; block < first + OPS_PER_LEVEL; block++) {
+            sum += sumLatencyMs(block);
+            n += count(block);
+        }
+        return n == 0 ? Double.NaN : sum / (double) n;
+    }
+
+    /**
+     * Самый медленный факт уровня: id задачи с наибольшим средним временем ответа среди
+     * фактов, на которые ответили не меньше {@code minCount} раз; -1 — таких нет.
+     */
+    public int slowestFact(int level, int minCount) {
+        int[] base = FactBase.BASE;
+        if (level < 1 || level >= base.length) return -1;
+        int slowest = -1;
+        double worst = -1;
+        for (int key = base[level - 1]; key < base[level]; key++) {
+            if (count(key) < Math.max(1, minCount)) continue;
+            double mean = meanLatencyMs(key);
+            if (mean > worst) {
+                worst = mean;
+                slowest = key - base[level - 1];
+            }
+        }
+        return slowest;
+    }
+
+    // ---------- Колонки записей (в порядке фактов) ----------
+
+    public int records()                { return records; }
+    /** Первая запись факта в колонках; записи факта идут подряд, {@link #count(int)} штук. */
+    public int offset(int factBlock)    { return blocks.getInt(factBlock * BLOCK_SIZE); }
+    public long timeMs(int i)           { return time.get(i); }
+    public int latencyMs(int i)         { return latency.get(i); }
+    public int pointsMilli(int i)       { return points.get(i); }
+    public int wrongAttempts(int i)     { return wrong.get(i); }
+
+    public long zoneOffsetMs()          { return zoneOffsetMs; }
+
+    public static int epochDay(long timeMs, long zoneOffsetMs) {
+        return (int) Math.floorDiv(timeMs + zoneOffsetMs, DAY_MS);
+    }
+
+    // ---------- Построение ----------
+
+    /** Построить файл истории по журналу (через временный файл и переименование). */
+    public static void build(File log, File out, long zoneOffsetMs) throws IOException {
+        long sourceLength = log.length();
+        Columns c = Columns.read(log);
+        int n = c.size;
+        int facts = factTotal();
+        int opSlots = opSlots();
+
+        int[] dayOf = new int[n];
+        for (int i = 0; i < n; i++) dayOf[i] = epochDay(c.time[i], zoneOffsetMs);
+        int[] dayKeys = distinctSorted(dayOf);
+        for (int i = 0; i < n; i++) dayOf[i] = Arrays.binarySearch(dayKeys, dayOf[i]);
+        int days = dayKeys.length;
+
+        int[] factStart = new int[facts + 1];
+        int[] opStart = new int[opSlots + 1];
+        int[] dayStart = new int[days + 1];
+        int[] byFact = order(c.fact, facts, c.latency, factStart);
+        int[] byOp   = order(c.op, opSlots, c.latency, opStart);
+        int[] byDay  = order(dayOf, days, c.latency, dayStart);
+
+        // колонки пишутся потоком через буфер в CHUNK байт: в памяти — только массивы записей
+        AtomicFiles.replace(out, ch -> {
+            DataOutputStream o = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch), CHUNK));
+            o.writeInt(MAGIC);
+            o.writeInt(VERSION);
+            o.writeInt(n);
+            o.writeInt(facts);
+            o.writeInt(days);
+            o.writeInt(opSlots);
+            o.writeLong(sourceLength);
+            o.writeLong(zoneOffsetMs);
+            o.writeLong(0L);
+
+            writeBlocks(o, c, byFact, factStart, 0);
+            writeBlocks(o, c, byOp, opStart, n);
+            writeBlocks(o, c, byDay, dayStart, 2 * n);
+            for (int i : byFact) o.writeLong(c.time[i]);
+            for (int d : dayKeys) o.writeInt(d);
+            for (int pad = align8(days * 4) - days * 4; pad > 0; pad--) o.writeByte(0);
+            for (int i : byFact) o.writeInt(c.latency[i]);
+            for (int i : byOp)   o.writeInt(c.latency[i]);
+            for (int i : byDay)  o.writeInt(c.latency[i]);
+            for (int i : byFact) o.writeInt(c.points[i]);
+            for (int i : byFact) o.writeInt(c.wrong[i]);
+            o.flush(); // канал закроет AtomicFiles
+        });
+    }
+
+    private static void writeBlocks(DataOutputStream o, Columns c, int[] order, int[] start, int latencyBase)
+            throws IOException {
+        for (int g = 0; g + 1 < start.length; g++) {
+            long sumLatency = 0, sumPoints = 0, sumWrong = 0;
+            for (int k = start[g]; k < start[g + 1]; k++) {
+                int i = order[k];
+                sumLatency += c.latency[i];
+                sumPoints += c.points[i];
+                sumWrong += c.wrong[i];
+            }
+            o.writeInt(latencyBase + start[g]);
+            o.writeInt(start[g + 1] - start[g]);
+            o.writeLong(sumLatency);
+            o.writeLong(sumPoints);
+            o.writeLong(sumWrong);
+        }
+    }
+
+    // Порядок записей: по группе (подсчётом), внутри группы — по времени ответа.
+    // start получает начало каждой группы и общий конец в start[groups].
+    private static int[] order(int[] group, int groups, int[] latency, int[] start) {
+        int n = group.length;
+        for (int g : group) start[g + 1]++;
+        for (int g = 0; g < groups; g++) start[g + 1] += start[g];
+        int[] fill = Arrays.copyOf(start, groups);
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[fill[group[i]]++] = ((long) latency[i] << 32) | i;
+        for (int g = 0; g < groups; g++) Arrays.sort(keys, start[g], start[g + 1]);
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++) order[k] = (int) keys[k];
+        return order;
+    }
+
+    private static int[] distinctSorted(int[] values) {
+        int[] s = values.clone();
+        Arrays.sort(s);
+        int m = 0;
+        for (int i = 0; i < s.length; i++) {
+            if (m == 0 || s[m - 1] != s[i]) s[m++] = s[i];
+        }
+        return Arrays.copyOf(s, m);
+    }
+
+    // Записи журнала в примитивных массивах; задачи не из каталогов пропускаются
+    private static final class Columns {
+        long[] time = new long[1024];
+        int[] fact = new int[1024];
+        int[] op = new int[1024];
+        int[] latency = new int[1024];
+        int[] points = new int[1024];
+        int[] wrong = new int[1024];
+        int size;
+
+        static Columns read(File log) throws IOException {
+            Columns c = new Columns();
+            try (EventLog.Cursor cur = EventLog.Cursor.open(log)) {
+                while (cur.next()) {
+                    int fact = factKey(cur.level(), cur.taskId());
+                    int op = opSlot(cur.level(), cur.op());
+                    if (fact < 0 || op < 0) continue;
+                    if (c.size == c.time.length) c.grow();
+                    int i = c.size++;
+                    c.time[i] = cur.timeMs();
+                    c.fact[i] = fact;
+                    c.op[i] = op;
+                    c.latency[i] = Math.max(0, cur.latencyMs());
+                    c.points[i] = cur.pointsMilli();
+                    c.wrong[i] = cur.wrongAttempts();
+                }
+            }
+            c.trim();
+            return c;
+        }
+
+        private void grow() {
+            int cap = time.length * 2;
+            time = Arrays.copyOf(time, cap);
+            fact = Arrays.copyOf(fact, cap);
+            op = Arrays.copyOf(op, cap);
+            latency = Arrays.copyOf(latency, cap);
+            points = Arrays.copyOf(points, cap);
+            wrong = Arrays.copyOf(wrong, cap);
+        }
+
+        private void trim() {
+            time = Arrays.copyOf(time, size);
+            fact = Arrays.copyOf(fact, size);
+            op = Arrays.copyOf(op, size);
+            latency = Arrays.copyOf(latency, size);
+            points = Arrays.copyOf(points, size);
+            wrong = Arrays.copyOf(wrong, size);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.mathtrainer;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Текст одного поля шапки без String.format: MM:SS и баллы с тремя знаками
+ * пишутся в собственный char[], который отдаётся в TextView.setText(char[], int, int).
+ *
+ * TextView не копирует массив, поэтому у каждого поля — свой экземпляр.
+ * Разделитель и цифры берутся из {@link Locale}, как у String.format(locale, ...).
+ */
+public final class HudText {
+
+    // знак + 19 цифр long + разделитель + запас
+    private static final int CAPACITY = 24;
+
+    private final char[] buf = new char[CAPACITY];
+    private final char zero;
+    private final char separator;
+    private int length;
+
+    public HudText(Locale locale) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.zero = symbols.getZeroDigit();
+        this.separator = symbols.getDecimalSeparator();
+    }
+
+    public char[] chars() { return buf; }
+    public int length()   { return length; }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, length);
+    }
+
+    // ---------- Форматирование ----------
+
+    /** Секунды как MM:SS (как "%02d:%02d"); минуты могут быть длиннее двух цифр. Возвращает длину. */
+    public int time(long seconds) {
+        long sec = Math.max(0L, seconds);
+        int pos = CAPACITY;
+        pos = putDigits(sec % 60, 2, pos);
+        buf[--pos] = ':';
+        pos = putDigits(sec / 60, 2, pos);
+        return moveToStart(pos);
+    }
+
+    /**
+     * Число с тремя знаками после разделителя (как "%.3f"), округление половины вверх.
+     * Рассчитано на игровые баллы: |p| < 1e15.
+     */
+    public int points(double p) {
+        boolean negative = p < 0;
+        long thousandths = Math.round(Math.abs(p) * 1000.0);
+        int pos = CAPACITY;
+        pos = putDigits(thousandths % 1000, 3, pos);
+        buf[--pos] = separator;
+        pos = putDigits(thousandths / 1000, 1, pos);
+        if (negative && thousandths != 0) buf[--pos] = '-';
+        return moveToStart(pos);
+    }
+
+    // пишет value справа налево, дополняя нулями до minDigits; возвращает новую левую границу
+    private int putDigits(long value, int minDigits, int pos) {
+        int end = pos;
+        do {
+            buf[--pos] = (char) (zero + (int) (value % 10));
+            value /= 10;
+        } while (value > 0);
+        while (end - pos < minDigits) buf[--pos] = zero;
+        return pos;
+    }
+
+    private int moveToStart(int pos) {
+        length = CAPACITY - pos;
+        System.arraycopy(buf, pos, buf, 0, length);
+        return length;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.mathtrainer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Всегда включённые замеры главного потока: от «Готово» на клавиатуре до кадра
+ * со следующим вопросом, время тика таймеров и время привязки строк ленты.
+ *
+ * Использование: {@code long t = Instrumentation.start(); ...; Instrumentation.stop(TICK, t);}.
+ * Выключено — {@link #start()} возвращает 0 без вызова часов, а {@link #stop} сразу выходит:
+ * на горячем пути остаются чтение одного поля и сравнение.
+ */
+public final class Instrumentation {
+
+    public static final Histogram ANSWER_TO_FRAME = new Histogram("answer→frame");
+    public static final Histogram TICK            = new Histogram("tick");
+    public static final Histogram BIND            = new Histogram("bind");
+
+    private static final List<Histogram> ALL =
+            Collections.unmodifiableList(Arrays.asList(ANSWER_TO_FRAME, TICK, BIND));
+
+    private static volatile boolean enabled = true;
+
+    private Instrumentation() {}
+
+    public static boolean isEnabled() { return enabled; }
+
+    public static void setEnabled(boolean on) { enabled = on; }
+
+    /** Метка начала замера; 0 — замеры выключены. */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Histogram h, long startNanos) {
+        if (startNanos != 0L) h.record(System.nanoTime() - startNanos);
+    }
+
+    public static List<Histogram> all() { return ALL; }
+
+    /** Сводка по всем гистограммам, по строке на каждую (экран отладки, тесты). */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder(256);
+        for (Histogram h : ALL) h.appendSummary(sb).append('\n');
+        return sb.toString();
+    }
+
+    public static void reset() {
+        for (Histogram h : ALL) h.reset();
+    }
+}
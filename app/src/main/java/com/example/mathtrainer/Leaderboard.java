@@ -0,0 +1,170 @@
+package com.example.mathtrainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+
+/**
+ * Таблицы рекордов профиля: по {@link #K} лучших прохождений на уровень — время,
+ * баллы и дата. Лучше то, что быстрее; при равном времени — больше баллов, при
+ * полном равенстве выше тот, кто был раньше.
+ *
+ * Таблица уровня ({@link Table}) — отсортированные примитивные массивы в памяти:
+ * место новой записи ищется двоичным поиском за O(log K), сдвиг хвоста — один
+ * arraycopy не длиннее K. Загружается файл целиком один раз ({@link #load}, не с
+ * главного потока); дальше чтение идёт только из памяти. Каждая вставка снимает
+ * снимок байтов на вызывающем потоке и отдаёт запись единственному писателю.
+ *
+ * Файл (big-endian) фиксированного размера: заголовок MAGIC, VERSION, уровней, K,
+ * затем на каждый уровень число записей (int) и K слотов:
+ * <pre>
+ *  0 long  дата (мс, настенные часы)
+ *  8 int   время прохождения, мс
+ * 12 int   баллы × 1000
+ * </pre>
+ */
+public final class Leaderboard {
+
+    public static final int MAGIC   = 0x4D544C42; // "MTLB"
+    public static final int VERSION = 1;
+    /** Записей в таблице уровня. */
+    public static final int K = 10;
+
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE  = 16;
+
+    private final File file;
+    private final Executor writer;
+    private final GameClock wallClock;
+    private final Table[] tables; // уровень n — tables[n - 1]
+
+    private Leaderboard(File file, int levels, Executor writer, GameClock wallClock) {
+        this.file = file;
+        this.writer = writer;
+        this.wallClock = wallClock;
+        tables = new Table[levels];
+        for (int i = 0; i < levels; i++) tables[i] = new Table();
+    }
+
+    /** Прочитать таблицы из файла; нет файла или он повреждён — пустые таблицы. */
+    public static Leaderboard load(File file, int levels, Executor writer, GameClock wallClock) {
+        Leaderboard board = new Leaderboard(file, levels, writer, wallClock);
+        if (file.exists()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                byte[] bytes = new byte[(int) raf.length()];
+                raf.readFully(bytes);
+                board.restore(ByteBuffer.wrap(bytes));
+            } catch (IOException e) {
+                for (Table t : board.tables) t.size = 0; // начнём заново
+            }
+        }
+        return board;
+    }
+
+    /** Таблица уровня (с 1). */
+    public Table level(int level) {
+        if (level < 1 || level > tables.length) {
+            throw new IllegalArgumentException("Нет уровня " + level + ", уровней " + tables.length);
+        }
+        return tables[level - 1];
+    }
+
+    public int levels() { return tables.length; }
+
+    // ---------- Таблица уровня ----------
+
+    /** Лучшие прохождения уровня, по местам. Менять — только с одного потока (главного). */
+    public final class Table implements RecordStore {
+        private final long[] dateMs = new long[K];
+        private final int[] durationMs = new int[K];
+        private final int[] scoreMilli = new int[K];
+        private int size;
+
+        @Override
+        public int record(long durationMs, double score) {
+            int d = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, durationMs));
+            int s = (int) Math.round(score * 1000.0);
+            int rank = rankOf(d, s);
+            if (rank >= K) return -1;
+            int moved = Math.min(size, K - 1) - rank; // последняя запись полной таблицы выпадает
+            System.arraycopy(dateMs, rank, dateMs, rank + 1, moved);
+            System.arraycopy(this.durationMs, rank, this.durationMs, rank + 1, moved);
+            System.arraycopy(scoreMilli, rank, scoreMilli, rank + 1, moved);
+            dateMs[rank] = wallClock.nowMs();
+            this.durationMs[rank] = d;
+            scoreMilli[rank] = s;
+            if (size < K) size++;
+            saveAsync();
+            return rank;
+        }
+
+        // первое место, где запись хуже новой (равные остаются выше)
+        private int rankOf(int d, int s) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                boolean worse = durationMs[mid] > d || (durationMs[mid] == d && scoreMilli[mid] < s);
+                if (worse) hi = mid;
+                else lo = mid + 1;
+            }
+            return lo;
+        }
+
+        public int size()               { return size; }
+        public long dateMs(int i)       { return dateMs[check(i)]; }
+        public long durationMs(int i)   { return durationMs[check(i)]; }
+        public double score(int i)      { return scoreMilli[check(i)] / 1000.0; }
+
+        private int check(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Место " + i + ", записей " + size);
+            return i;
+        }
+    }
+
+    // ---------- Файл ----------
+
+    /** Снимок берётся сразу (на вызывающем потоке), запись файла — на писателе. */
+    public void saveAsync() {
+        byte[] bytes = snapshot();
+        writer.execute(() -> AtomicFiles.write(file, bytes));
+    }
+
+    byte[] snapshot() {
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + tables.length * (4 + K * ENTRY_SIZE));
+        out.putInt(MAGIC).putInt(VERSION).putInt(tables.length).putInt(K);
+        for (Table t : tables) {
+            out.putInt(t.size);
+            for (int i = 0; i < K; i++) out.putLong(t.dateMs[i]).putInt(t.durationMs[i]).putInt(t.scoreMilli[i]);
+        }
+        return out.array();
+    }
+
+    // уровни и K из файла могут отличаться от текущих: лишнее отбрасывается
+    private void restore(ByteBuffer in) throws IOException {
+        if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IOException("Не таблица рекордов или неизвестная версия");
+        }
+        int levels = in.getInt();
+        int k = in.getInt();
+        if (levels < 0 || k < 0 || in.remaining() != (long) levels * (4 + (long) k * ENTRY_SIZE)) {
+            throw new IOException("Таблица рекордов повреждена");
+        }
+        for (int l = 0; l < levels; l++) {
+            int n = in.getInt();
+            if (n < 0 || n > k) throw new IOException("Таблица рекордов повреждена");
+            Table t = l < tables.length ? tables[l] : null;
+            for (int i = 0; i < k; i++) {
+                long date = in.getLong();
+                int d = in.getInt();
+                int s = in.getInt();
+                if (t == null || i >= n || i >= K) continue;
+                t.dateMs[i] = date;
+                t.durationMs[i] = d;
+                t.scoreMilli[i] = s;
+            }
+            if (t != null) t.size = Math.min(n, K);
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.example.mathtrainer;
+
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.view.KeyEvent;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputMethodManager;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.TextView;
+
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Экран уровня из {@link LevelRegistry}: шапка с таймерами и баллами, поле ввода или
+ * лента истории ({@link #EXTRA_FEED}), пауза, экран победы, журнал ответов и расписание
+ * повторений профиля. Правила игры — в {@link GameSession}.
+ *
+ * Подклассы задают только то, чем уровни различаются: тип задачи (откуда берутся —
+ * {@link #source}, как пишутся в журнал) и какой ответ принимает поле (тип ввода,
+ * подсказка на не-число).
+ */
+public abstract class LevelActivity<T> extends AppCompatActivity {
+
+    /** true — режим ленты: отвеченные задачи прокручиваются над активной. */
+    public static final String EXTRA_FEED = "feed";
+    /** Номер уровня из {@link LevelRegistry}. */
+    public static final String EXTRA_LEVEL = "level";
+
+    private static final int NO_REPEAT_WINDOW = 8;   // столько последних задач не повторяются
+
+    private final int defaultLevel;
+    private final int inputType;
+    private final String notANumberError;
+
+    // --- Шапка (2 строки) ---
+    private TextView levelTimerView;    // время уровня (MM:SS), верхняя строка
+    private TextView tvTotal;           // общий балл (0.000), верхняя строка
+    private TextView penaltyTimerView;  // штрафной таймер (MM:SS), нижняя строка
+    private TextView penaltyScoreView;  // штрафной балл (0.000), нижняя строка
+    private Button   btnStop;
+
+    // --- Активная задача ---
+    private TextView tvQuestion;
+    private EditText etAnswer;
+
+    // --- Лента истории (EXTRA_FEED) ---
+    private RecyclerView historyFeed;
+    private final TaskFeed feed = new TaskFeed();
+    private TaskAdapter feedAdapter;
+
+    // --- Игровой процесс: задача, время, штраф, счёт, рекорды ---
+    private LevelRegistry.Level level; // объявление уровня (EXTRA_LEVEL): цель, время, задачи
+    private GameSession<T> session;
+    private Profiles.Profile profile; // шард текущего ученика: рекорды, журнал, расписание
+    private EventLog events;       // журнал ответов (пишется пачками в фоне); см. events()
+    private Uri winVideoUri;       // видео экрана победы; готовится после первого кадра
+    private WinScreen winScreen;   // экран победы: готовится заранее, ближе к цели
+    private RepetitionScheduler scheduler; // какие факты повторять
+    private TaskPipeline<T> pipeline;      // готовые задачи из фонового потока
+
+    // Замер «Готово» → кадр со следующим вопросом: метку ставит ответ, снимает ближайшая отрисовка
+    private long answerStartNanos; // 0 — замер не идёт
+    private final ViewTreeObserver.OnDrawListener frameProbe = () -> {
+        if (answerStartNanos != 0) {
+            Instrumentation.stop(Instrumentation.ANSWER_TO_FRAME, answerStartNanos);
+            answerStartNanos = 0;
+        }
+    };
+
+    // --- Тикер ---
+    private boolean resumed = false;  // между onResume и onPause
+    private boolean wasRunningBeforePause = false;
+    private long shownLevelSec   = -1;   // что сейчас показано в шапке
+    private long shownPenaltySec = -1;
+
+    // Тексты полей шапки: у каждого TextView свой буфер (setText(char[]) его не копирует)
+    private HudText levelTimeText;
+    private HudText penaltyTimeText;
+    private HudText totalText;
+    private HudText penaltyText;
+
+    // Тикер: обновляет таймер уровня + штрафной таймер/балл, только если значение изменилось.
+    // Следующий тик — ровно на границе секунды по монотонным часам сессии.
+    private final Ticker.Client tick = () -> {
+        // таймер уровня
+        long levelSec = session.levelSeconds();
+        if (levelSec != shownLevelSec) {
+            shownLevelSec = levelSec;
+            showTime(levelTimerView, levelTimeText, levelSec);
+        }
+
+        // штрафной таймер (сверх бесплатного времени на текущий вопрос)
+        long penaltySec = session.penaltySeconds();
+        if (penaltySec != shownPenaltySec) {
+            shownPenaltySec = penaltySec;
+            showTime(penaltyTimerView, penaltyTimeText, penaltySec);
+            updatePenaltyLabel();
+        }
+        return session.msUntilNextChange();
+    };
+
+    /**
+     * @param defaultLevel    уровень, если {@link #EXTRA_LEVEL} не передан
+     * @param inputType       тип ввода поля ответа (InputType)
+     * @param notANumberError ошибка поля, когда ответ не разобрался как число
+     */
+    protected LevelActivity(int defaultLevel, int inputType, String notANumberError) {
+        this.defaultLevel = defaultLevel;
+        this.inputType = inputType;
+        this.notANumberError = notANumberError;
+    }
+
+    /** Вероятность каждого глобального id задачи уровня — для расписания повторений. */
+    protected abstract double[] idProbabilities(int level);
+
+    /** Задачи уровня по расписанию повторений (без окна повторов — его добавит экран). */
+    protected abstract TaskSource<T> source(int level, RepetitionScheduler scheduler);
+
+    /** Глобальный id задачи в каталогах уровня. */
+    protected abstract int taskId(T task);
+
+    /** Записать ответ в журнал (у {@link EventLog} своя перегрузка на каждый тип задачи). */
+    protected abstract void log(EventLog log, int level, T task, long latencyMs, int wrongAttempts,
+                                double points, long freeTimeSec);
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        Trace.beginSection(getClass().getSimpleName() + ".onCreate");
+        try {
+            create(savedInstanceState);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private void create(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        profile = AppProfiles.current(this);
+        level = LevelRegistry.get().level(getIntent().getIntExtra(EXTRA_LEVEL, defaultLevel));
+        int number = level.number();
+        // расписание читается с диска в фоне, пока надувается разметка; на том же писателе,
+        // что и saveAsync, — после сохранения, которое мог поставить прошлый экран уровня
+        CompletableFuture<RepetitionScheduler> loading = CompletableFuture.supplyAsync(
+                () -> RepetitionScheduler.load(scheduleFile(), idProbabilities(number)),
+                EventLog.singleWriter());
+        setContentView(R.layout.activity_main);
+        // окно и его декор живут всю активити — зонд кадров ставим один раз
+        getWindow().getDecorView().getViewTreeObserver().addOnDrawListener(frameProbe);
+
+        levelTimerView   = findViewById(R.id.levelTimerView);
+        tvTotal          = findViewById(R.id.totalScoreView);
+        penaltyTimerView = findViewById(R.id.penaltyTimerView);
+        penaltyScoreView = findViewById(R.id.penaltyScoreView);
+        btnStop          = findViewById(R.id.stopButton);
+        tvQuestion       = findViewById(R.id.textQuestion);
+        etAnswer         = findViewById(R.id.editAnswer);
+        historyFeed      = findViewById(R.id.historyFeed);
+        winScreen = new WinScreen(findViewById(R.id.winStub), findViewById(R.id.gameContent),
+                "Ещё раз уровень " + number, this::resetLevel);
+
+        Locale locale = Locale.getDefault();
+        levelTimeText   = new HudText(locale);
+        penaltyTimeText = new HudText(locale);
+        totalText       = new HudText(locale);
+        penaltyText     = new HudText(locale);
+        showTime(levelTimerView, levelTimeText, 0);
+        showTime(penaltyTimerView, penaltyTimeText, 0);
+        showPoints(tvTotal, totalText, 0.0);
+        showPoints(penaltyScoreView, penaltyText, 1.0);
+        setUpFeed();
+
+        // Стоп — пауза уровня (время не идёт), повторное нажатие — продолжить
+        btnStop.setOnClickListener(v -> togglePause());
+
+        // Обработка ответа
+        etAnswer.setInputType(inputType);
+        etAnswer.setImeOptions(EditorInfo.IME_ACTION_DONE);
+        etAnswer.setOnEditorActionListener((v, actionId, event) -> {
+            boolean enter = event != null
+                    && event.getKeyCode() == KeyEvent.KEYCODE_ENTER
+                    && event.getAction() == KeyEvent.ACTION_UP;
+            if (actionId == EditorInfo.IME_ACTION_DONE || enter) {
+                checkAnswer();
+                return true;
+            }
+            return false;
+        });
+
+        // уровень стартует, когда расписание прочитано: главный поток его не ждёт
+        loading.thenAccept(s -> runOnUiThread(() -> startLevel(s)));
+
+        // некритичное — после первого кадра: поток журнала, чтение рекордов, URI видео
+        Startup.afterFirstDraw(this, () -> {
+            events();
+            profile.leaderboard(TaskPipeline.prefetcher());
+            winVideoUri();
+        });
+    }
+
+    // ---------- Игровая логика ----------
+
+    // расписание прочитано: задачи, сессия и первый вопрос (на главном потоке)
+    private void startLevel(RepetitionScheduler loaded) {
+        if (isDestroyed()) return;
+        int number = level.number();
+        scheduler = loaded;
+        TaskSource<T> source = TaskSource.withoutRepeats(source(number, scheduler),
+                this::taskId, level.totalSize(), NO_REPEAT_WINDOW);
+        pipeline = new TaskPipeline<>(source, TaskPipeline.prefetcher(), TaskPipeline.DEFAULT_CAPACITY);
+        session = new GameSession<>(pipeline, SystemClock::elapsedRealtime,
+                this::recordRun, level.targetScore(), level.freeTimeSec());
+        session.setAnswerListener((task, latencyMs, wrongAttempts, points, freeTimeSec) -> {
+            log(events(), number, task, latencyMs, wrongAttempts, points, freeTimeSec);
+            scheduler.record(taskId(task), latencyMs, wrongAttempts, freeTimeSec);
+        });
+        session.start();
+        showNextTask();
+        if (resumed) {
+            scheduleTick(); // фоновый тикер
+        } else {
+            // экран уже ушёл в фон — время пойдёт с onResume
+            session.pause();
+            wasRunningBeforePause = true;
+        }
+    }
+
+    // показать задачу, которую выдала сессия (новая задача не равна предыдущей)
+    private void showNextTask() {
+        shownPenaltySec = 0;
+        showTime(penaltyTimerView, penaltyTimeText, 0);
+        updatePenaltyLabel();
+        if (feedAdapter != null) {
+            feedAdapter.showQuestion(session.questionText());
+            return;
+        }
+        etAnswer.setText("");
+        tvQuestion.setText(session.questionText());
+    }
+
+    private void checkAnswer() {
+        switch (submitAnswer(etAnswer.getText())) {
+            case EMPTY:        etAnswer.setError("Введите ответ"); return;
+            case NOT_A_NUMBER: etAnswer.setError(notANumberError); return;
+            case NOT_POSITIVE: etAnswer.setError("Ответ должен быть положительным"); return;
+            case WRONG:        etAnswer.setError("Неверно"); return;
+            default:           break;
+        }
+    }
+
+    // общий путь для поля ввода и активной строки ленты
+    private AnswerChecker.Result submitAnswer(CharSequence input) {
+        if (session == null) return AnswerChecker.Result.EMPTY; // уровень ещё не стартовал
+        long enterNanos = Instrumentation.start();
+        if (session.isPaused()) togglePause(); // ответ снимает паузу
+        double before = session.totalScore();
+        String question = session.questionText();
+        AnswerChecker.Result result = session.submit(input);
+        if (result != AnswerChecker.Result.CORRECT) return result;
+
+        // балл уже начислен сессией (штрафной балл убывает от 1.000 до 0.000 в течение штрафной минуты)
+        showPoints(tvTotal, totalText, session.totalScore());
+        if (feedAdapter != null) {
+            feedAdapter.submitList(feed.append(question, input.toString().trim(), session.totalScore() - before),
+                    () -> historyFeed.scrollToPosition(feedAdapter.activePosition()));
+        }
+
+        if (session.isFinished()) {
+            events().flush();
+            showWinScreen();
+            return result;
+        }
+        if (session.scoreToTarget() <= WinScreen.PRELOAD_MARGIN) {
+            winScreen.prepare(this, winVideoUri()); // до победы несколько ответов
+        }
+        answerStartNanos = enterNanos;
+        showNextTask();
+        return result;
+    }
+
+    // Режим ленты: вместо вопроса и поля ввода — RecyclerView с историей уровня
+    private void setUpFeed() {
+        if (!getIntent().getBooleanExtra(EXTRA_FEED, false)) return;
+        tvQuestion.setVisibility(View.GONE);
+        etAnswer.setVisibility(View.GONE);
+        historyFeed.setVisibility(View.VISIBLE);
+        LinearLayoutManager lm = new LinearLayoutManager(this);
+        lm.setStackFromEnd(true);
+        historyFeed.setLayoutManager(lm);
+        feedAdapter = new TaskAdapter(this::submitAnswer, inputType);
+        historyFeed.setAdapter(feedAdapter);
+        feedAdapter.submitList(feed.clear());
+    }
+
+    // ---------- Вспомогательные ----------
+
+    private void updatePenaltyLabel() {
+        // убывает: 1 - (штрафные_сек / 60)
+        showPoints(penaltyScoreView, penaltyText, session.penaltyBall());
+    }
+
+    private void scheduleTick() {
+        long delay = session.msUntilNextChange();
+        if (delay >= 0) Ticker.main().start(tick, delay);
+    }
+
+    private void pauseTicker() {
+        Ticker.main().stop(tick);
+    }
+
+    private void togglePause() {
+        if (session == null) return;
+        if (session.isPaused()) {
+            session.resume();
+            btnStop.setText("Стоп");
+            scheduleTick();
+        } else {
+            session.pause();
+            btnStop.setText("Продолжить");
+            pauseTicker();
+        }
+    }
+
+    private static void showTime(TextView tv, HudText text, long seconds) {
+        tv.setText(text.chars(), 0, text.time(seconds));
+    }
+
+    private static void showPoints(TextView tv, HudText text, double points) {
+        tv.setText(text.chars(), 0, text.points(points));
+    }
+
+    /** Форматировать миллисекунды как MM:SS */
+    private static String formatMsAsMMSS(long ms) {
+        long sec = Math.max(0L, ms / 1000L);
+        return String.format(Locale.getDefault(), "%02d:%02d", sec / 60, sec % 60);
+    }
+
+    // ---------- Победа ----------
+
+    private void showWinScreen() {
+        pauseTicker();
+        hideKeyboard();
+
+        // время уровня + рекорды (сессия уже записала результат в таблицу)
+        winScreen.show(this, winVideoUri(),
+                "Поздравляем! Уровень " + level.number() + " пройден 🎉",
+                "Время уровня: " + formatMsAsMMSS(session.levelDurationMs()),
+                "Баллы: " + String.format(Locale.getDefault(), "%.3f", session.totalScore()),
+                WinScreen.recordsText(records(), session.recordRank()));
+    }
+
+    // экран победы скрывается, view уровня и их слушатели остаются прежними
+    private void resetLevel() {
+        winScreen.hide();
+        if (feedAdapter != null) feedAdapter.submitList(feed.clear());
+
+        session.start();
+        btnStop.setText("Стоп");
+        shownLevelSec = -1;
+        showPoints(tvTotal, totalText, session.totalScore());
+        showTime(levelTimerView, levelTimeText, 0);
+
+        showNextTask();
+        scheduleTick();
+    }
+
+    private void hideKeyboard() {
+        InputMethodManager imm = (InputMethodManager) getSystemService(INPUT_METHOD_SERVICE);
+        if (imm != null) imm.hideSoftInputFromWindow(etAnswer.getWindowToken(), 0);
+    }
+
+    // ---------- Жизненный цикл: «заморозка» без Стоп ----------
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        resumed = false;
+        winScreen.pause();
+        if (events != null) events.flush();
+        if (session == null) return; // расписание ещё читается — сохранять нечего
+        wasRunningBeforePause = !session.isPaused() && !session.isFinished();
+        session.pause();
+        pauseTicker();
+        scheduler.saveAsync(scheduleFile(), EventLog.singleWriter());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        resumed = true;
+        winScreen.resume();
+        if (wasRunningBeforePause) {
+            session.resume();
+            scheduleTick();
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        pauseTicker();
+        getWindow().getDecorView().getViewTreeObserver().removeOnDrawListener(frameProbe);
+        winScreen.release();
+    }
+
+    // ---------- Файлы профиля ----------
+
+    private File scheduleFile() {
+        return profile.file("schedule_level" + level.number() + ".bin");
+    }
+
+    private EventLog events() {
+        if (events == null) events = profile.events();
+        return events;
+    }
+
+    // таблица рекордов уровня; загрузка начата после первого кадра и к победе готова
+    private Leaderboard.Table records() {
+        return profile.leaderboard(TaskPipeline.prefetcher()).join().level(level.number());
+    }
+
+    // RecordStore сессии: заголовок шарда (для списка профилей) и таблица рекордов
+    private int recordRun(long durationMs, double score) {
+        profile.noteRun(level.number(), durationMs);
+        return records().record(durationMs, score);
+    }
+
+    private Uri winVideoUri() {
+        if (winVideoUri == null) {
+            winVideoUri = Uri.parse("android.resource://" + getPackageName() + "/" + R.raw.mal);
+        }
+        return winVideoUri;
+    }
+}
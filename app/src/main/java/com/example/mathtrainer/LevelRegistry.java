@@ -0,0 +1,201 @@
+package com.example.mathtrainer;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Уровни из src/main/levels/levels.conf, скомпилированные при сборке (buildSrc,
+ * LevelCompiler) в Java-ресурсы levels/index.bin и levels/level&lt;N&gt;.bin.
+ *
+ * Индекс — названия, цели, время на вопрос, размеры типов — маленький и читается
+ * при первом {@link #get()}. Таблица задач уровня ({@link Level#table()}) — готовые
+ * столбцы a, b, op (у выражений — a, b, c) и начала строк, в порядке id; читается один
+ * раз при первом обращении (каталоги строятся на потоке подкачки). Перечисления
+ * и отбраковки на устройстве нет.
+ */
+public final class LevelRegistry {
+
+    public static final int MAGIC   = 0x4D544C56; // "MTLV"
+    public static final int VERSION = 2;
+
+    static final String DIR = "/levels/";
+
+    private final Level[] levels;
+
+    private LevelRegistry(Level[] levels) {
+        this.levels = levels;
+    }
+
+    public static LevelRegistry get() { return Holder.INSTANCE; }
+
+    public int size() { return levels.length; }
+
+    /** Уровень по номеру (с 1). */
+    public Level level(int number) {
+        if (number < 1 || number > levels.length) {
+            throw new IllegalArgumentException("Нет уровня " + number + ", уровней " + levels.length);
+        }
+        return levels[number - 1];
+    }
+
+    // ---------- Уровень ----------
+
+    public static final class Level {
+        private final int number;
+        private final String title;
+        private final int scale;
+        private final double targetScore;
+        private final long freeTimeSec;
+        private final String[] typeNames;
+        private final String[] expressions; // "" — задачи a op b
+        private final int[] idBase; // idBase[types] — всего задач
+        private Table table;        // null — ещё не читали
+
+        private Level(int number, String title, int scale, double targetScore, long freeTimeSec,
+                      String[] typeNames, String[] expressions, int[] idBase) {
+            this.number = number;
+            this.title = title;
+            this.scale = scale;
+            this.targetScore = targetScore;
+            this.freeTimeSec = freeTimeSec;
+            this.typeNames = typeNames;
+            this.expressions = expressions;
+            this.idBase = idBase;
+        }
+
+        public int number()              { return number; }
+        public String title()            { return title; }
+        /** Знаков после запятой: 0 — целые ({@link TaskCatalog}), 1 — десятые ({@link DecimalTaskCatalog}). */
+        public int scale()               { return scale; }
+        public double targetScore()      { return targetScore; }
+        public long freeTimeSec()        { return freeTimeSec; }
+        public int types()               { return typeNames.length; }
+        public String typeName(int type) { return typeNames[type]; }
+        /** Выражение типа над a, b, c ({@link Expression}) или null — задачи a op b. */
+        public String expression(int type) { return expressions[type].isEmpty() ? null : expressions[type]; }
+        public int idBase(int type)      { return idBase[type]; }
+        public int typeSize(int type)    { return idBase[type + 1] - idBase[type]; }
+        public int totalSize()           { return idBase[typeNames.length]; }
+
+        /** Таблица задач уровня; первое обращение читает ресурс (не с главного потока). */
+        public synchronized Table table() {
+            if (table == null) {
+                try (DataInputStream in = open("level" + number + ".bin")) {
+                    table = Table.read(in, this);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Таблица задач уровня " + number + " повреждена", e);
+                }
+            }
+            return table;
+        }
+
+        @Override
+        public String toString() { return title; }
+    }
+
+    // ---------- Таблица задач ----------
+
+    /** Столбцы задач по типам; массивы общие с каталогами — не менять. */
+    public static final class Table {
+        private final int[][] a, b, c, rowOffset;
+        private final char[][] op;
+
+        private Table(int types) {
+            a = new int[types][];
+            b = new int[types][];
+            c = new int[types][];
+            op = new char[types][];
+            rowOffset = new int[types][];
+        }
+
+        int[] a(int type)         { return a[type]; }
+        int[] b(int type)         { return b[type]; }
+        /** Третья переменная выражения; null у задач a op b. */
+        int[] c(int type)         { return c[type]; }
+        /** Знаки; null у выражений. */
+        char[] op(int type)       { return op[type]; }
+        /** Начала строк внешнего операнда или null — выбор равномерный. */
+        int[] rowOffset(int type) { return rowOffset[type]; }
+
+        private static Table read(DataInputStream in, Level level) throws IOException {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Не таблица задач или неизвестная версия");
+            }
+            if (in.readInt() != level.number || in.readInt() != level.types()) {
+                throw new IOException("Таблица не совпадает с индексом уровней");
+            }
+            Table t = new Table(level.types());
+            for (int type = 0; type < level.types(); type++) {
+                int size = in.readInt();
+                if (size != level.typeSize(type)) throw new IOException("Таблица не совпадает с индексом уровней");
+                int rows = in.readInt();
+                t.rowOffset[type] = rows == 0 ? null : readInts(in, rows);
+                t.a[type] = readInts(in, size);
+                t.b[type] = readInts(in, size);
+                if (level.expression(type) != null) {
+                    t.c[type] = readInts(in, size);
+                    continue;
+                }
+                char[] op = new char[size];
+                for (int i = 0; i < size; i++) op[i] = in.readChar();
+                t.op[type] = op;
+            }
+            return t;
+        }
+
+        private static int[] readInts(DataInputStream in, int n) throws IOException {
+            int[] v = new int[n];
+            for (int i = 0; i < n; i++) v[i] = in.readInt();
+            return v;
+        }
+    }
+
+    // ---------- Индекс ----------
+
+    private static DataInputStream open(String name) throws IOException {
+        InputStream in = LevelRegistry.class.getResourceAsStream(DIR + name);
+        if (in == null) throw new IOException("Нет ресурса " + DIR + name + " (задача сборки compileLevels)");
+        return new DataInputStream(new BufferedInputStream(in));
+    }
+
+    private static LevelRegistry readIndex() throws IOException {
+        try (DataInputStream in = open("index.bin")) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Не индекс уровней или неизвестная версия");
+            }
+            Level[] levels = new Level[in.readInt()];
+            for (int i = 0; i < levels.length; i++) {
+                int number = in.readInt();
+                String title = in.readUTF();
+                int scale = in.readByte();
+                double target = in.readInt() / 1000.0;
+                long freeTime = in.readInt();
+                String[] names = new String[in.readInt()];
+                String[] expressions = new String[names.length];
+                int[] idBase = new int[names.length + 1];
+                for (int t = 0; t < names.length; t++) {
+                    names[t] = in.readUTF();
+                    expressions[t] = in.readUTF();
+                    idBase[t + 1] = idBase[t] + in.readInt();
+                }
+                if (number != i + 1) throw new IOException("Уровни в индексе не по порядку");
+                levels[i] = new Level(number, title, scale, target, freeTime, names, expressions, idBase);
+            }
+            return new LevelRegistry(levels);
+        }
+    }
+
+    // Ленивая инициализация: индекс читается при первом обращении
+    private static final class Holder {
+        static final LevelRegistry INSTANCE;
+        static {
+            try {
+                INSTANCE = readIndex();
+            } catch (IOException e) {
+                throw new IllegalStateException("Индекс уровней недоступен", e);
+            }
+        }
+    }
+}
@@ -2,23 +2,181 @@ package com.example.mathtrainer;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
 import android.widget.Button;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.Spinner;
+import android.widget.TextView;
 
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.util.ArrayList;
+import java.util.Locale;
+
 public class LevelSelectorActivity extends AppCompatActivity {
+
+    /** Факт попадает в «дольше всего», если на него ответили хотя бы столько раз. */
+    private static final int SLOW_FACT_MIN_ANSWERS = 3;
+
+    // --- Профили: переключение читает только заголовок шарда ---
+    private Profiles profiles;
+    private ArrayAdapter<Profiles.Profile> profileAdapter;
+    private Spinner profileSpinner;
+    private TextView profileSummary;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_level_selector);
 
         Button btnLevel1 = findViewById(R.id.btnLevel1);
+        Button btnLevel1Feed = findViewById(R.id.btnLevel1Feed);
         Button btnLevel2 = findViewById(R.id.btnLevel2);
+        Button btnNewProfile = findViewById(R.id.btnNewProfile);
+        profileSpinner = findViewById(R.id.profileSpinner);
+        profileSummary = findViewById(R.id.profileSummary);
+
+        profiles = AppProfiles.get(this);
+        profileAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item,
+                new ArrayList<>(profiles.list()));
+        profileAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        profileSpinner.setAdapter(profileAdapter);
+        profileSpinner.setSelection(profileAdapter.getPosition(profiles.current()), false);
+        profileSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                profiles.switchTo(profileAdapter.getItem(position).id());
+                showSummary();
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {}
+        });
+        btnNewProfile.setOnClickListener(v -> askProfileName());
+
+        LevelRegistry levels = LevelRegistry.get();
+        btnLevel1.setText(levels.level(1).title());
+        btnLevel1.setOnClickListener(v -> startActivity(levelIntent(levels.level(1))));
 
-        btnLevel1.setOnClickListener(v ->
-                startActivity(new Intent(this, MainActivity.class)));
+        // долгое нажатие — экран замеров (отладка)
+        btnLevel1.setOnLongClickListener(v -> {
+            startActivity(new Intent(this, DebugStatsActivity.class));
+            return true;
+        });
+
+        btnLevel1Feed.setOnClickListener(v ->
+                startActivity(levelIntent(levels.level(1)).putExtra(LevelActivity.EXTRA_FEED, true)));
+
+        btnLevel2.setText(levels.level(2).title());
+        btnLevel2.setOnClickListener(v -> startActivity(levelIntent(levels.level(2))));
+
+        // остальные уровни из levels.conf — кнопками под двумя основными
+        LinearLayout more = findViewById(R.id.moreLevels);
+        for (int n = 3; n <= levels.size(); n++) {
+            LevelRegistry.Level level = levels.level(n);
+            Button b = new Button(this);
+            b.setText(level.title());
+            b.setOnClickListener(v -> startActivity(levelIntent(level)));
+            more.addView(b, new LinearLayout.LayoutParams(
+                    LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT));
+        }
+    }
+
+    // целые уровни — MainActivity, десятичные — Level2Activity
+    private Intent levelIntent(LevelRegistry.Level level) {
+        Class<?> activity = level.scale() == 0 ? MainActivity.class : Level2Activity.class;
+        return new Intent(this, activity).putExtra(LevelActivity.EXTRA_LEVEL, level.number());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showSummary(); // после уровня в заголовке новое прохождение
+    }
+
+    // ---------- Профили ----------
+
+    private void askProfileName() {
+        EditText input = new EditText(this);
+        input.setHint("Имя ученика");
+        new AlertDialog.Builder(this)
+                .setTitle("Новый профиль")
+                .setView(input)
+                .setPositiveButton("Создать", (dialog, which) -> {
+                    String name = input.getText().toString();
+                    if (name.trim().isEmpty()) return;
+                    Profiles.Profile p = profiles.create(name);
+                    profileAdapter.add(p);
+                    profileSpinner.setSelection(profileAdapter.getPosition(p)); // переключит профиль
+                })
+                .setNegativeButton("Отмена", null)
+                .show();
+    }
+
+    // Сводка профиля: заголовок шарда — сразу, статистика из истории ответов — когда
+    // писатель её перестроит (главный поток не ждёт ни журнала, ни истории)
+    private void showSummary() {
+        Profiles.Profile profile = profiles.current();
+        profileSummary.setText(summary(profile.header(), null));
+        profile.history()
+                .thenApply(LevelSelectorActivity::statsLines)
+                .thenAccept(stats -> runOnUiThread(() -> {
+                    if (profile == profiles.current() && !isDestroyed()) {
+                        profileSummary.setText(summary(profile.header(), stats));
+                    }
+                }))
+                .exceptionally(e -> null); // истории нет или не читается — остаётся заголовок
+    }
+
+    private static CharSequence summary(Profiles.Header h, @Nullable String[] stats) {
+        StringBuilder sb = new StringBuilder();
+        for (int level = 1; level <= Profiles.LEVELS; level++) {
+            if (level > 1) sb.append('\n');
+            sb.append("Уровень ").append(level).append(": ");
+            if (h.runs(level) == 0) {
+                sb.append("не пройден");
+            } else {
+                long sec = h.bestMs(level) / 1000L;
+                sb.append("пройден ").append(h.runs(level)).append(" раз, лучшее ")
+                  .append(String.format(Locale.getDefault(), "%02d:%02d", sec / 60, sec % 60));
+            }
+            if (stats != null && stats[level - 1] != null) sb.append("; ").append(stats[level - 1]);
+        }
+        return sb;
+    }
+
+    // по уровням: среднее время ответа и самый медленный факт (на потоке писателя)
+    private static String[] statsLines(HistoryStore h) {
+        String[] lines = new String[Profiles.LEVELS];
+        for (int level = 1; level <= lines.length; level++) {
+            double mean = h.levelMeanLatencyMs(level);
+            if (Double.isNaN(mean)) continue;
+            String line = String.format(Locale.getDefault(), "ответ в среднем за %.1f с", mean / 1000);
+            int slowest = h.slowestFact(level, SLOW_FACT_MIN_ANSWERS);
+            if (slowest >= 0) {
+                line += String.format(Locale.getDefault(), ", дольше всего %s — %.1f с",
+                        factText(level, slowest), h.meanLatencyMs(h.factBlock(level, slowest)) / 1000);
+            }
+            lines[level - 1] = line;
+        }
+        return lines;
+    }
 
-        btnLevel2.setOnClickListener(v ->
-                startActivity(new Intent(this, Level2Activity.class)));
+    // «7 × 8» по id задачи уровня
+    private static String factText(int level, int taskId) {
+        String text;
+        if (LevelRegistry.get().level(level).scale() == 0) {
+            TaskCatalog c = TaskCatalog.forId(level, taskId);
+            text = c.task(taskId - c.idBase()).getText();
+        } else {
+            DecimalTaskCatalog c = DecimalTaskCatalog.forId(level, taskId);
+            text = c.task(taskId - c.idBase()).getText();
+        }
+        return text.replace(" = ?", "");
     }
 }
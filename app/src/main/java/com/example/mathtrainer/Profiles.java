@@ -0,0 +1,387 @@
+package com.example.mathtrainer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Профили учеников на общем планшете. У каждого профиля свой шард — каталог
+ * {@code <root>/<id>/} с рекордами, журналом ответов и расписаниями повторений.
+ *
+ * Реестр ({@code profiles.bin}: текущий профиль, id и имена) читается целиком при
+ * открытии. Из шарда сразу нужен только маленький заголовок ({@link Header}: имя,
+ * число прохождений и лучшее время по уровням) — он читается при первом переключении
+ * на профиль и остаётся в памяти. Остальное подгружается при первом обращении:
+ * журнал ({@link Profile#events()}), рекорды ({@link Profile#leaderboard}), история для
+ * статистики ({@link Profile#history()}), расписания (файлы {@link Profile#file}).
+ * Поэтому переключение — поиск в списке, чтение одного заголовка и асинхронная запись
+ * реестра.
+ *
+ * Все файлы пишет один писатель (через временный файл и переименование). Менять
+ * профили — только с одного потока (главного).
+ */
+public final class Profiles {
+
+    public static final int MAGIC   = 0x4D545052; // "MTPR"
+    public static final int VERSION = 1;
+    /** Уровней в рекордах и заголовке шарда — сколько объявлено в levels.conf. */
+    public static final int LEVELS = LevelRegistry.get().size();
+
+    static final String REGISTRY = "profiles.bin";
+    static final String DEFAULT_NAME = "Ученик 1";
+
+    private final File root;
+    private final Executor writer;
+    private final GameClock wallClock;
+    private final List<Profile> profiles = new ArrayList<>();
+    private Profile current;
+    private int nextId = 1;
+
+    private Profiles(File root, Executor writer, GameClock wallClock) {
+        this.root = root;
+        this.writer = writer;
+        this.wallClock = wallClock;
+    }
+
+    /**
+     * Открыть реестр. Нет реестра — первый запуск: создаётся профиль по умолчанию.
+     * Реестр повреждён — список восстанавливается по заголовкам шардов.
+     */
+    public static Profiles open(File root, Executor writer, GameClock wallClock) {
+        Profiles p = new Profiles(root, writer, wallClock);
+        File registry = new File(root, REGISTRY);
+        int currentId = -1;
+        if (registry.exists()) {
+            try {
+                currentId = p.restore(readAll(registry));
+            } catch (IOException e) {
+                p.profiles.clear();
+                currentId = p.recover();
+            }
+        }
+        if (p.profiles.isEmpty()) {
+            p.current = p.create(DEFAULT_NAME);
+        } else {
+            p.current = p.find(currentId);
+            if (p.current == null) p.current = p.profiles.get(0);
+            p.saveAsync();
+        }
+        p.current.header();
+        return p;
+    }
+
+    // ---------- Список и переключение ----------
+
+    public List<Profile> list()  { return Collections.unmodifiableList(profiles); }
+    public Profile current()     { return current; }
+
+    /** Профиль по id или null. */
+    public Profile find(int id) {
+        for (Profile p : profiles) if (p.id == id) return p;
+        return null;
+    }
+
+    /** Новый профиль с пустым шардом; текущим не становится. */
+    public Profile create(String name) {
+        String trimmed = name.trim();
+        if (trimmed.isEmpty()) throw new IllegalArgumentException("Пустое имя профиля");
+        Profile p = new Profile(nextId++, trimmed);
+        if (!p.dir.isDirectory() && !p.dir.mkdirs()) {
+            throw new IllegalStateException("Не удалось создать каталог профиля " + p.dir);
+        }
+        p.header = new Header(trimmed, wallClock.nowMs());
+        p.saveHeaderAsync();
+        profiles.add(p);
+        if (current == null) current = p;
+        saveAsync();
+        return p;
+    }
+
+    /**
+     * Сделать профиль текущим: прежний сбрасывает журнал и отпускает подгруженное,
+     * у нового читается только заголовок.
+     */
+    public Profile switchTo(int id) {
+        Profile p = find(id);
+        if (p == null) throw new IllegalArgumentException("Нет профиля " + id);
+        if (p == current) return p;
+        current.unload();
+        current = p;
+        p.header();
+        saveAsync();
+        return p;
+    }
+
+    // ---------- Шард профиля ----------
+
+    public final class Profile {
+        static final String HEADER      = "header.bin";
+        static final String EVENTS      = "events.bin";
+        static final String LEADERBOARD = "leaderboard.bin";
+        static final String HISTORY     = "history.bin";
+
+        final int id;
+        final File dir;
+        private final String name;
+        private Header header;                              // null — ещё не прочитан
+        private EventLog events;                            // null — не открыт
+        private CompletableFuture<Leaderboard> leaderboard; // null — не загружается
+
+        Profile(int id, String name) {
+            this.id = id;
+            this.name = name;
+            this.dir = new File(root, String.valueOf(id));
+        }
+
+        public int id()         { return id; }
+        public String name()    { return name; }
+
+        /** Файл в шарде профиля. */
+        public File file(String fileName) {
+            return new File(dir, fileName);
+        }
+
+        /** Заголовок шарда; читается при первом обращении. */
+        public Header header() {
+            if (header == null) {
+                try {
+                    header = Header.read(readAll(file(HEADER)));
+                } catch (IOException e) {
+                    header = new Header(name, 0L); // нет или повреждён — счётчики с нуля
+                }
+            }
+            return header;
+        }
+
+        /** Журнал ответов профиля (открывается при первом ответе). */
+        public EventLog events() {
+            if (events == null) events = new EventLog(file(EVENTS), writer, wallClock);
+            return events;
+        }
+
+        /** Рекорды профиля: загрузка на {@code loader} начинается при первом вызове. */
+        public CompletableFuture<Leaderboard> leaderboard(Executor loader) {
+            if (leaderboard == null) {
+                File f = file(LEADERBOARD);
+                leaderboard = CompletableFuture.supplyAsync(
+                        () -> Leaderboard.load(f, LEVELS, writer, wallClock), loader);
+            }
+            return leaderboard;
+        }
+
+        /**
+         * История ответов для статистики ({@link HistoryStore}): на писателе — после уже
+         * отданных ему записей журнала — открывается или перестраивается, если журнал вырос.
+         */
+        public CompletableFuture<HistoryStore> history() {
+            if (events != null) events.flush();
+            File log = file(EVENTS);
+            File store = file(HISTORY);
+            long zoneOffsetMs = TimeZone.getDefault().getOffset(wallClock.nowMs());
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return HistoryStore.openFresh(log, store, zoneOffsetMs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, writer);
+        }
+
+        /** Учесть пройденный уровень в заголовке (для списка профилей без чтения рекордов). */
+        public void noteRun(int level, long durationMs) {
+            header().record(level, durationMs, wallClock.nowMs());
+            saveHeaderAsync();
+        }
+
+        /** Перенести в шард файлы из {@code from}, которых в шарде ещё нет (данные до профилей). */
+        public void adopt(File from, String... fileNames) {
+            for (String n : fileNames) {
+                File src = new File(from, n);
+                File dst = file(n);
+                if (src.exists() && !dst.exists()) src.renameTo(dst);
+            }
+        }
+
+        // журнал дописывается, рекорды уже отданы писателю — держать в памяти незачем
+        void unload() {
+            if (events != null) events.flush();
+            events = null;
+            leaderboard = null;
+        }
+
+        private void saveHeaderAsync() {
+            byte[] bytes = header.snapshot();
+            File f = file(HEADER);
+            writer.execute(() -> AtomicFiles.write(f, bytes));
+        }
+
+        @Override public String toString() { return name; }
+    }
+
+    /** Заголовок шарда: имя, даты и по уровням — прохождения и лучшее время. */
+    public static final class Header {
+        static final int MAGIC   = 0x4D545048; // "MTPH"
+        static final int VERSION = 1;
+
+        private final String name;
+        private final long createdMs;
+        private long lastPlayedMs;
+        private final int[] runs = new int[LEVELS];
+        private final long[] bestMs = new long[LEVELS];
+
+        Header(String name, long createdMs) {
+            this.name = name;
+            this.createdMs = createdMs;
+            Arrays.fill(bestMs, -1L);
+        }
+
+        public String name()            { return name; }
+        public long createdMs()         { return createdMs; }
+        /** Последнее прохождение уровня, 0 — ещё не играл. */
+        public long lastPlayedMs()      { return lastPlayedMs; }
+        public int runs(int level)      { return runs[level - 1]; }
+        /** Лучшее время уровня, мс; -1 — уровень не пройден. */
+        public long bestMs(int level)   { return bestMs[level - 1]; }
+
+        void record(int level, long durationMs, long nowMs) {
+            int i = level - 1;
+            runs[i]++;
+            if (bestMs[i] < 0 || durationMs < bestMs[i]) bestMs[i] = durationMs;
+            lastPlayedMs = nowMs;
+        }
+
+        byte[] snapshot() {
+            byte[] utf = name.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer out = ByteBuffer.allocate(28 + LEVELS * 12 + utf.length);
+            out.putInt(MAGIC).putInt(VERSION).putLong(createdMs).putLong(lastPlayedMs).putInt(LEVELS);
+            for (int i = 0; i < LEVELS; i++) out.putInt(runs[i]).putLong(bestMs[i]);
+            out.put(utf);
+            return out.array();
+        }
+
+        static Header read(byte[] bytes) throws IOException {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (bytes.length < 28 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Не заголовок профиля или неизвестная версия");
+            }
+            long created = in.getLong();
+            long lastPlayed = in.getLong();
+            int levels = in.getInt();
+            if (levels < 0 || in.remaining() < levels * 12) throw new IOException("Заголовок профиля повреждён");
+            int[] runs = new int[levels];
+            long[] best = new long[levels];
+            for (int i = 0; i < levels; i++) {
+                runs[i] = in.getInt();
+                best[i] = in.getLong();
+            }
+            Header h = new Header(new String(bytes, in.position(), in.remaining(), StandardCharsets.UTF_8), created);
+            h.lastPlayedMs = lastPlayed;
+            for (int i = 0; i < Math.min(levels, LEVELS); i++) {
+                h.runs[i] = runs[i];
+                h.bestMs[i] = best[i];
+            }
+            return h;
+        }
+    }
+
+    // ---------- Реестр ----------
+
+    /** Снимок реестра берётся сразу (на вызывающем потоке), запись — на писателе. */
+    public void saveAsync() {
+        byte[] bytes = snapshot();
+        File f = new File(root, REGISTRY);
+        writer.execute(() -> AtomicFiles.write(f, bytes));
+    }
+
+    // MAGIC, VERSION, текущий id, следующий id, число профилей, затем (id, имя в modified UTF-8)
+    byte[] snapshot() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + profiles.size() * 24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(current == null ? -1 : current.id);
+            out.writeInt(nextId);
+            out.writeInt(profiles.size());
+            for (Profile p : profiles) {
+                out.writeInt(p.id);
+                out.writeUTF(p.name);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // в память не бросает
+        }
+        return bytes.toByteArray();
+    }
+
+    // возвращает id текущего профиля
+    private int restore(byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Не реестр профилей или неизвестная версия");
+            }
+            int currentId = in.readInt();
+            nextId = in.readInt();
+            int count = in.readInt();
+            if (count < 0) throw new IOException("Реестр профилей повреждён");
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                profiles.add(new Profile(id, in.readUTF()));
+                nextId = Math.max(nextId, id + 1);
+            }
+            if (in.read() >= 0) throw new IOException("Реестр профилей повреждён");
+            return currentId;
+        } catch (EOFException e) {
+            throw new IOException("Реестр профилей повреждён", e);
+        }
+    }
+
+    // реестр потерян: профили — каталоги-числа с читаемым заголовком
+    private int recover() {
+        File[] dirs = root.listFiles(File::isDirectory);
+        if (dirs == null) return -1;
+        for (File d : dirs) {
+            int id;
+            try {
+                id = Integer.parseInt(d.getName());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            try {
+                Header h = Header.read(readAll(new File(d, Profile.HEADER)));
+                Profile p = new Profile(id, h.name());
+                p.header = h;
+                profiles.add(p);
+                nextId = Math.max(nextId, id + 1);
+            } catch (IOException ignored) {
+                // шард без заголовка не восстановить
+            }
+        }
+        profiles.sort(Comparator.comparingInt(Profile::id));
+        return -1;
+    }
+
+    // ---------- Файлы ----------
+
+    private static byte[] readAll(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] bytes = new byte[(int) raf.length()];
+            raf.readFully(bytes);
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.mathtrainer;
+
+import java.util.Arrays;
+
+/**
+ * Последние N выданных задач: битсет по id (проверка за O(1)) и кольцо для вытеснения
+ * самой старой. Id — глобальные id каталога ({@link Task#getId()}, {@link DecimalTask#getId()}),
+ * никаких строк. Id вне [0, idSpace) не запоминаются.
+ */
+public final class RecentWindow {
+
+    private final long[] bits;
+    private final int idSpace;
+    private final int[] ring;
+    private int next;   // куда писать следующий id
+    private int size;
+
+    public RecentWindow(int idSpace, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Окно должно быть не меньше 1: " + capacity);
+        this.idSpace = idSpace;
+        this.bits = new long[(idSpace + 63) >>> 6];
+        this.ring = new int[capacity];
+    }
+
+    public int capacity() { return ring.length; }
+    public int size()     { return size; }
+
+    public boolean contains(int id) {
+        return id >= 0 && id < idSpace && (bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /** Запомнить id; если окно полно — забыть самый старый. Уже запомненный id не дублируется. */
+    public void add(int id) {
+        if (id < 0 || id >= idSpace || contains(id)) return;
+        if (size == ring.length) {
+            int old = ring[next];
+            bits[old >>> 6] &= ~(1L << old);
+        } else {
+            size++;
+        }
+        ring[next] = id;
+        bits[id >>> 6] |= 1L << id;
+        next = next + 1 == ring.length ? 0 : next + 1;
+    }
+
+    public void clear() {
+        Arrays.fill(bits, 0L);
+        next = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.mathtrainer;
+
+/** Рекорды уровня: таблица лучших прохождений (см. {@link Leaderboard}). */
+public interface RecordStore {
+
+    /** Учесть пройденный уровень; место в таблице (0 — лучшее) или -1, если не попал. */
+    int record(long durationMs, double score);
+}
@@ -0,0 +1,264 @@
+package com.example.mathtrainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+
+/**
+ * Интервальные повторения (в духе SM-2) по всем фактам уровня: каждый id каталога —
+ * отдельный факт со своей лёгкостью (ease), интервалом и сроком. Время меряется
+ * «шагами» — выданными задачами, а не днями: игра идёт короткими сессиями.
+ *
+ * Следующая задача — факт с самым ранним сроком (индексированная куча: выбор O(1),
+ * обновление после ответа O(log n)). Ещё не показанные факты получают срок
+ * {@link #NEW_SPACING} × Exp(1) / p, где p — вероятность факта у прежнего генератора:
+ * новые факты приходят в том же порядке «в среднем», что и раньше, но реже
+ * (остаётся место для повторений), а выученные отходят на всё более длинные интервалы.
+ *
+ * Выданный, но ещё не отвеченный факт откладывается на {@link #HOLD_INTERVAL} шагов,
+ * поэтому задачи можно выбирать на несколько шагов вперёд (см. {@link TaskPipeline}).
+ * Методы синхронизированы: выбор может идти из фонового потока, ответы — с главного.
+ *
+ * Хранится компактно: seed (сроки непоказанных фактов восстанавливаются из него)
+ * и 16 байт на каждый факт, на который уже отвечали.
+ */
+public final class RepetitionScheduler {
+
+    public static final int MAGIC   = 0x4D545352; // "MTSR"
+    public static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 16;
+
+    static final short EASE_DEFAULT = 250;   // лёгкость в сотых (SM-2: 2.5)
+    static final short EASE_MIN     = 130;
+    // интервалы в шагах
+    static final int RELEARN_INTERVAL = 5;
+    static final int FIRST_INTERVAL   = 10;
+    static final int SECOND_INTERVAL  = 30;
+    static final int HOLD_INTERVAL    = 10;
+    static final int MAX_INTERVAL     = 1_000_000;
+    /** Во сколько раз новые факты вводятся реже, чем выпадали у равномерного генератора. */
+    static final double NEW_SPACING   = 2.0;
+
+    private static final short NEVER = -1;   // reps: на факт ещё не отвечали
+
+    private final long seed;
+    private int step;
+
+    private final int[] due;
+    private final int[] interval;
+    private final short[] ease;
+    private final short[] reps;
+
+    // куча фактов по (due, salt); pos[f] — место факта f в куче
+    private final int[] heap;
+    private final int[] pos;
+    private final int[] salt;
+
+    /** Новое расписание: {@code probability[id]} — вероятность факта у прежнего генератора. */
+    public RepetitionScheduler(double[] probability, long seed) {
+        int n = probability.length;
+        this.seed = seed;
+        this.due = new int[n];
+        this.interval = new int[n];
+        this.ease = new short[n];
+        this.reps = new short[n];
+        this.heap = new int[n];
+        this.pos = new int[n];
+        this.salt = new int[n];
+
+        SplittableRandom rnd = new SplittableRandom(seed);
+        for (int f = 0; f < n; f++) {
+            double p = probability[f];
+            double firstSeen = p > 0 ? NEW_SPACING * -Math.log(1.0 - rnd.nextDouble()) / p : MAX_INTERVAL;
+            due[f] = (int) Math.min(MAX_INTERVAL, firstSeen);
+            salt[f] = rnd.nextInt();
+            ease[f] = EASE_DEFAULT;
+            reps[f] = NEVER;
+        }
+        for (int f = 0; f < n; f++) {
+            heap[f] = f;
+            pos[f] = f;
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(i);
+    }
+
+    public int size()                { return due.length; }
+    public int step()                { return step; }
+    public int due(int fact)         { return due[fact]; }
+    public int intervalSteps(int fact) { return interval[fact]; }
+    /** Лёгкость в сотых (2.5 → 250). */
+    public int ease(int fact)        { return ease[fact]; }
+    /** Подряд верных «уверенных» ответов; -1 — на факт ещё не отвечали. */
+    public int reps(int fact)        { return reps[fact]; }
+
+    // ---------- Выбор и ответы ----------
+
+    /** Факт с самым ранним сроком, не равный {@code previous} (-1 — без ограничения). */
+    public synchronized int next(int previous) {
+        step++;
+        int f = heap[0];
+        if (f == previous && heap.length > 1) {
+            f = heap.length == 2 || less(heap[1], heap[2]) ? heap[1] : heap[2];
+        }
+        // до ответа факт не выдаётся снова; record() назначит настоящий срок
+        setDue(f, Math.max(due[f], step + HOLD_INTERVAL));
+        return f;
+    }
+
+    /** Учесть верный ответ на факт: пересчитать лёгкость, интервал и срок. */
+    public void record(int fact, long latencyMs, int wrongAttempts) {
+        record(fact, latencyMs, wrongAttempts, GameSession.FREE_TIME_LIMIT);
+    }
+
+    /** То же при {@code freeTimeSec} секундах на вопрос без штрафа (free_time уровня). */
+    public synchronized void record(int fact, long latencyMs, int wrongAttempts, long freeTimeSec) {
+        int q = quality(latencyMs, wrongAttempts, freeTimeSec);
+        int e = ease[fact] + 10 - (5 - q) * (8 + 2 * (5 - q));
+        ease[fact] = (short) Math.max(EASE_MIN, e);
+
+        if (q < 3) {
+            reps[fact] = 0;
+            interval[fact] = RELEARN_INTERVAL;
+        } else {
+            int r = reps[fact] < 0 ? 0 : reps[fact];
+            if (r == 0)      interval[fact] = FIRST_INTERVAL;
+            else if (r == 1) interval[fact] = SECOND_INTERVAL;
+            else interval[fact] = (int) Math.min(MAX_INTERVAL, (long) interval[fact] * ease[fact] / 100);
+            reps[fact] = (short) Math.min(Short.MAX_VALUE, r + 1);
+        }
+        setDue(fact, step + interval[fact]);
+    }
+
+    /** Оценка ответа 0..5 как в SM-2: ошибки — провал, штрафная минута — «не помнит». */
+    static int quality(long latencyMs, int wrongAttempts, long freeTimeSec) {
+        if (wrongAttempts > 0) return 1;
+        long sec = latencyMs / 1000L;
+        if (sec <= 10) return 5;
+        if (sec <= 30) return 4;
+        if (sec <= freeTimeSec) return 3;
+        return 2;
+    }
+
+    // ---------- Куча ----------
+
+    private boolean less(int f, int g) {
+        if (due[f] != due[g]) return due[f] < due[g];
+        if (salt[f] != salt[g]) return salt[f] < salt[g];
+        return f < g;
+    }
+
+    private void setDue(int fact, int value) {
+        int old = due[fact];
+        due[fact] = value;
+        if (value < old) siftUp(pos[fact]);
+        else siftDown(pos[fact]);
+    }
+
+    private void siftUp(int i) {
+        int f = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int g = heap[parent];
+            if (!less(f, g)) break;
+            place(g, i);
+            i = parent;
+        }
+        place(f, i);
+    }
+
+    private void siftDown(int i) {
+        int n = heap.length;
+        int f = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && less(heap[child + 1], heap[child])) child++;
+            int g = heap[child];
+            if (!less(g, f)) break;
+            place(g, i);
+            i = child;
+        }
+        place(f, i);
+    }
+
+    private void place(int fact, int i) {
+        heap[i] = fact;
+        pos[fact] = i;
+    }
+
+    // ---------- Сохранение ----------
+
+    /**
+     * Снимок состояния: заголовок (MAGIC, VERSION, seed, step, число записей)
+     * и записи (id, due, interval, ease, reps) только для фактов, на которые отвечали.
+     */
+    public synchronized byte[] snapshot() {
+        int answered = 0;
+        for (short r : reps) if (r != NEVER) answered++;
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + answered * RECORD_SIZE);
+        out.putInt(MAGIC).putInt(VERSION).putLong(seed).putInt(step).putInt(answered);
+        for (int f = 0; f < reps.length; f++) {
+            if (reps[f] == NEVER) continue;
+            out.putInt(f).putInt(due[f]).putInt(interval[f]).putShort(ease[f]).putShort(reps[f]);
+        }
+        return out.array();
+    }
+
+    /** Восстановить из снимка; факты за пределами каталога (он уменьшился) пропускаются. */
+    public static RepetitionScheduler restore(byte[] snapshot, double[] probability) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(snapshot);
+        if (snapshot.length < HEADER_SIZE || in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IOException("Не расписание повторений или неизвестная версия");
+        }
+        long seed = in.getLong();
+        int step = in.getInt();
+        int answered = in.getInt();
+        if (answered < 0 || in.remaining() != (long) answered * RECORD_SIZE) {
+            throw new IOException("Расписание повторений повреждено");
+        }
+        RepetitionScheduler s = new RepetitionScheduler(probability, seed);
+        s.step = step;
+        for (int k = 0; k < answered; k++) {
+            int f = in.getInt();
+            int d = in.getInt();
+            int iv = in.getInt();
+            short e = in.getShort();
+            short r = in.getShort();
+            if (f < 0 || f >= s.size()) continue;
+            s.due[f] = d;
+            s.interval[f] = iv;
+            s.ease[f] = e;
+            s.reps[f] = r;
+        }
+        for (int i = s.heap.length / 2 - 1; i >= 0; i--) s.siftDown(i);
+        return s;
+    }
+
+    /**
+     * Загрузить из файла; нет файла или он испорчен — новое расписание со случайным seed.
+     * Вызывать на том же однопоточном писателе, что и {@link #saveAsync}: иначе можно
+     * прочитать файл до ещё не записанного сохранения.
+     */
+    public static RepetitionScheduler load(File file, double[] probability) {
+        if (file.exists()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                byte[] bytes = new byte[(int) raf.length()];
+                raf.readFully(bytes);
+                return restore(bytes, probability);
+            } catch (IOException ignored) {
+                // начнём заново
+            }
+        }
+        return new RepetitionScheduler(probability, System.nanoTime());
+    }
+
+    /** Снимок берётся сразу (на вызывающем потоке), запись файла — на {@code writer}. */
+    public void saveAsync(File file, Executor writer) {
+        byte[] bytes = snapshot();
+        writer.execute(() -> AtomicFiles.write(file, bytes));
+    }
+}
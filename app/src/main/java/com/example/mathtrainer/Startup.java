@@ -0,0 +1,39 @@
+package com.example.mathtrainer;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/** Отложенный старт: работа, не нужная для первого кадра, идёт сразу после него. */
+final class Startup {
+
+    private Startup() {}
+
+    /** Выполнить {@code work} на главном потоке после первой отрисовки окна активити. */
+    static void afterFirstDraw(Activity activity, Runnable work) {
+        View decor = activity.getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnDrawListener(new FirstDraw(decor, work));
+    }
+
+    private static final class FirstDraw implements ViewTreeObserver.OnDrawListener, Runnable {
+        private final View decor;
+        private final Runnable work;
+        private boolean drawn;
+
+        FirstDraw(View decor, Runnable work) {
+            this.decor = decor;
+            this.work = work;
+        }
+
+        @Override public void onDraw() {
+            if (drawn) return;
+            drawn = true;
+            decor.post(this); // снимать слушателя внутри onDraw нельзя
+        }
+
+        @Override public void run() {
+            decor.getViewTreeObserver().removeOnDrawListener(this);
+            work.run();
+        }
+    }
+}
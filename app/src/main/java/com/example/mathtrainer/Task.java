@@ -1,11 +1,14 @@
 
 package com.example.mathtrainer;
 
-import java.util.Random;
-
 public class Task {
+    /** Знак задачи-выражения (levels.conf expr): операнды — переменные a, b, c. */
+    public static final char EXPRESSION = '=';
+
+    private int id = -1; // индекс в TaskCatalog, -1 — задача вне каталога
     private int a, b;
-    private char op; // '+', '-', '*'
+    private int c;   // третья переменная выражения
+    private char op; // '+', '-', '*', '÷' (без остатка), EXPRESSION
 
     // Для обратной совместимости со старым форматом
     private String text;
@@ -22,45 +25,71 @@ public class Task {
         this.op = op;
     }
 
+    // Экземпляры каталога: текст и ответ вычисляются один раз при построении
+    Task(int id, int a, int b, char op, String text) {
+        this(a, b, op);
+        this.id = id;
+        this.answer = getAnswer();
+        this.text = text;
+    }
+
+    // Выражение из каталога (уровень с expr в levels.conf): текст и ответ готовы
+    Task(int id, int a, int b, int c, String text, int answer) {
+        this(text, answer);
+        this.id = id;
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.op = EXPRESSION;
+    }
+
+    /** Глобальный id задачи в {@link TaskCatalog} своего уровня или -1. */
+    public int getId() { return id; }
+
+    public int getA()   { return a; }
+    public int getB()   { return b; }
+    /** Третья переменная выражения; у a op b — 0. */
+    public int getC()   { return c; }
+    public char getOp() { return op; }
+
     public String getText() {
         if (text != null) return text;
         return a + " " + op + " " + b + " = ?";
     }
 
+    /** Ответ. Деление без остатка; иначе (и на 0) ArithmeticException, как у {@link DecimalTask}. */
     public int getAnswer() {
         if (text != null) return answer;
         switch (op) {
             case '+': return a + b;
             case '-': return a - b;
             case '*': return a * b;
+            case '÷':
+                if (b == 0 || a % b != 0) throw new ArithmeticException("Деление с остатком: " + a + " ÷ " + b);
+                return a / b;
             default:  return 0;
         }
     }
 
-    private static final Random RANDOM = new Random();
-
-    // 0 — умножение 1×1 (2..9); 1 — умножение 2×1; 2 — сложение/вычитание
-    public static Task generate(int type) {
-        switch (type) {
-            case 0: {
-                int a = 2 + RANDOM.nextInt(8); // 2..9
-                int b = 2 + RANDOM.nextInt(8); // 2..9
-                return new Task(a, b, '*');
-            }
-            case 1: {
-                int twoDigit = 10 + RANDOM.nextInt(90); // 10..99
-                int single   = 2 + RANDOM.nextInt(8);   // 2..9
-                return new Task(twoDigit, single, '*');
-            }
-            case 2: {
-                int big   = 10 + RANDOM.nextInt(90);    // 10..99
-                int small = 1 + RANDOM.nextInt(big);    // 1..big
-                return new Task(big, small, RANDOM.nextBoolean() ? '+' : '-');
-            }
-            default:
-                return generate(RANDOM.nextInt(3));
-        }
+    private static final TaskRandom DEFAULT = TaskRandom.shared();
+
+    // 0 — умножение 1×1 (2..9); 1 — умножение 2×1; 2 — сложение/вычитание.
+    // Задачи берутся из TaskCatalog: один и тот же экземпляр на каждую комбинацию.
+    public static Task generate(int type) { return generate(DEFAULT, type); }
+
+    public static Task generate(TaskRandom rnd, int type) {
+        if (type < 0 || type >= TaskCatalog.TYPES) type = rnd.nextInt(TaskCatalog.TYPES);
+        return TaskCatalog.forType(type).random(rnd);
     }
 
-    public static Task random() { return generate(RANDOM.nextInt(3)); }
+    public static Task random() { return random(DEFAULT); }
+
+    public static Task random(TaskRandom rnd) { return generate(rnd, rnd.nextInt(TaskCatalog.TYPES)); }
+
+    /** Случайная задача, отличная от {@code last} (без цикла перегенерации). */
+    public static Task randomExcept(Task last) { return randomExcept(DEFAULT, last); }
+
+    public static Task randomExcept(TaskRandom rnd, Task last) {
+        return TaskCatalog.forType(rnd.nextInt(TaskCatalog.TYPES)).randomExcept(rnd, last);
+    }
 }
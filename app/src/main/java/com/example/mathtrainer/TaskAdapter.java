@@ -1,181 +1,215 @@
 package com.example.mathtrainer;
 
-import android.graphics.Color;
 import android.text.Editable;
-import android.text.InputType;
 import android.text.TextWatcher;
 import android.view.KeyEvent;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.inputmethod.EditorInfo;
+import android.widget.Button;
 import android.widget.EditText;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.List;
+/**
+ * Лента истории: отвеченные задачи ({@link #TYPE_ANSWERED}) — снимки {@link TaskFeed},
+ * которые AsyncListDiffer сравнивает в фоне, — и одна строка-подвал с полем ввода
+ * ({@link #TYPE_ACTIVE}) после них.
+ *
+ * Подвал не входит в список: ответ на задачу — одна вставка строки истории над ним,
+ * а новый вопрос пишется прямо в привязанный подвал ({@link #showQuestion}) без notify.
+ * Строки истории состояние ввода не трогают вовсе. Ввод обслуживает один общий
+ * {@link InputHandler} (TextWatcher, Enter, кнопка) на весь адаптер.
+ */
+public class TaskAdapter extends ListAdapter<TaskFeed.Row, RecyclerView.ViewHolder> {
+
+    public static final int TYPE_ANSWERED = 0;
+    public static final int TYPE_ACTIVE   = 1;
+
+    /** Id подвала; у строк истории id — порядковые номера с нуля. */
+    private static final long ACTIVE_ID = Long.MAX_VALUE;
+
+    /** Ответ из активной строки; результат проверки решает, что показать в поле. */
+    public interface OnSubmitListener {
+        AnswerChecker.Result onSubmit(CharSequence input);
+    }
 
-public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskVH> {
+    private static final DiffUtil.ItemCallback<TaskFeed.Row> DIFF = new DiffUtil.ItemCallback<TaskFeed.Row>() {
+        @Override public boolean areItemsTheSame(@NonNull TaskFeed.Row a, @NonNull TaskFeed.Row b) {
+            return a.id == b.id;
+        }
+        @Override public boolean areContentsTheSame(@NonNull TaskFeed.Row a, @NonNull TaskFeed.Row b) {
+            return a.equals(b);
+        }
+    };
 
-    public interface OnAnswerListener {
-        void onCorrectAnswered(int position);
-        void onWrongAnswered(int position);
-    }
+    private final InputHandler input;
+    private String question = "";
+    private ActiveVH active; // привязанный сейчас подвал или null
 
-    private final List<Task> items;
-    private final OnAnswerListener listener;
+    public TaskAdapter(OnSubmitListener listener, int inputType) {
+        super(DIFF);
+        this.input = new InputHandler(listener, inputType);
+        setHasStableIds(true);
+    }
 
-    public TaskAdapter(@NonNull List<Task> items, OnAnswerListener listener) {
-        this.items = items;
-        this.listener = listener;
+    /** Новый вопрос в активной строке: текст и поле ввода меняются на месте. */
+    public void showQuestion(String text) {
+        question = text;
+        if (active != null) active.show(text);
     }
 
-    public Task getItem(int position) { return items.get(position); }
+    /** Позиция подвала — после всей истории. */
+    public int activePosition() {
+        return getCurrentList().size();
+    }
 
-    public void addItem(Task task) {
-        items.add(task);
-        notifyItemInserted(items.size() - 1);
+    @Override
+    public int getItemCount() {
+        return getCurrentList().size() + 1;
     }
 
-    public void moveItem(int fromPosition, int toPosition) {
-        if (fromPosition == toPosition) return;
-        if (fromPosition < 0 || fromPosition >= items.size()) return;
-        if (toPosition < 0 || toPosition > items.size()) return;
+    @Override
+    public long getItemId(int position) {
+        return position == activePosition() ? ACTIVE_ID : getItem(position).id;
+    }
 
-        Task t = items.remove(fromPosition);
-        items.add(toPosition, t);
-        notifyItemMoved(fromPosition, toPosition);
-        notifyItemChanged(toPosition);
+    @Override
+    public int getItemViewType(int position) {
+        return position == activePosition() ? TYPE_ACTIVE : TYPE_ANSWERED;
     }
 
     @NonNull
     @Override
-    public TaskVH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View v = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_task, parent, false);
-        return new TaskVH(v, listener, this);
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        if (viewType == TYPE_ACTIVE) {
+            return new ActiveVH(inflater.inflate(R.layout.item_task, parent, false), input);
+        }
+        return new AnsweredVH(inflater.inflate(R.layout.item_feed_answered, parent, false));
     }
 
     @Override
-    public void onBindViewHolder(@NonNull TaskVH holder, int position) {
-        boolean isActive = position == getItemCount() - 1; // активное поле ввода только у последней позиции
-        holder.bind(items.get(position), isActive);
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        long started = Instrumentation.start();
+        if (holder instanceof ActiveVH) {
+            active = (ActiveVH) holder;
+            input.attach(active.answerEt);
+            active.show(question);
+        } else {
+            ((AnsweredVH) holder).bind(getItem(position));
+        }
+        Instrumentation.stop(Instrumentation.BIND, started);
     }
 
     @Override
-    public int getItemCount() {
-        return items.size();
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        if (holder == active) {
+            input.detach(active.answerEt);
+            active = null;
+        }
     }
 
-    static class TaskVH extends RecyclerView.ViewHolder {
+    // ---------- Холдеры ----------
+
+    static final class AnsweredVH extends RecyclerView.ViewHolder {
+        private final TextView questionTv;
+        private final TextView pointsTv;
+
+        AnsweredVH(@NonNull View itemView) {
+            super(itemView);
+            questionTv = itemView.findViewById(R.id.feedQuestion);
+            pointsTv   = itemView.findViewById(R.id.feedPoints);
+        }
+
+        void bind(TaskFeed.Row row) {
+            questionTv.setText(row.solved);
+            pointsTv.setText(row.pointsText);
+        }
+    }
+
+    static final class ActiveVH extends RecyclerView.ViewHolder {
         private final TextView questionTv;
         private final EditText answerEt;
+        private String shown; // вопрос, для которого поле уже сброшено
 
-        TaskVH(@NonNull View itemView, OnAnswerListener listener, TaskAdapter adapter) {
+        ActiveVH(@NonNull View itemView, InputHandler input) {
             super(itemView);
-            questionTv = findFirstTextView(itemView);
-            answerEt   = findFirstEditText(itemView);
+            questionTv = itemView.findViewById(R.id.taskProblem);
+            answerEt   = itemView.findViewById(R.id.answerInput);
+            input.setUp(answerEt, itemView.findViewById(R.id.submitBtn));
+        }
 
-            if (questionTv != null) {
-                questionTv.setTextColor(Color.WHITE);
-                questionTv.setBackground(null);
-                questionTv.setTextSize(28f);
-            }
+        // повторная привязка того же вопроса (прокрутка) не стирает набранное
+        void show(String question) {
+            if (question.equals(shown)) return;
+            shown = question;
+            questionTv.setText(question);
+            answerEt.setText("");
+            answerEt.requestFocus();
+        }
+    }
 
-            if (answerEt != null) {
-                answerEt.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_SIGNED);
-                answerEt.setImeOptions(EditorInfo.IME_ACTION_DONE);
-                answerEt.addTextChangedListener(new TextWatcher() {
-                    @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-                    @Override public void onTextChanged(CharSequence s, int start, int before, int count) {}
-                    @Override public void afterTextChanged(Editable s) { answerEt.setError(null); }
-                });
-
-                answerEt.setOnEditorActionListener((v, actionId, event) -> {
-                    if (actionId == EditorInfo.IME_ACTION_DONE ||
-                            (event != null && event.getKeyCode() == KeyEvent.KEYCODE_ENTER &&
-                                    event.getAction() == KeyEvent.ACTION_UP)) {
-
-                        int pos = getAdapterPosition();
-                        if (pos == RecyclerView.NO_POSITION) return true;
-
-                        Task t = adapter.getItem(pos);
-                        String txt = answerEt.getText().toString().trim();
-                        if (txt.isEmpty()) { answerEt.setError("Введите ответ"); return true; }
-
-                        try {
-                            int user = Integer.parseInt(txt);
-                            if (user == t.getAnswer()) {
-                                if (listener != null) listener.onCorrectAnswered(pos);
-                                answerEt.setText("");
-                            } else {
-                                if (listener != null) listener.onWrongAnswered(pos);
-                                answerEt.setError("Неверно");
-                            }
-                        } catch (NumberFormatException e) {
-                            answerEt.setError("Только числа");
-                        }
-                        return true;
-                    }
-                    return false;
-                });
-            }
+    // ---------- Ввод ----------
+
+    /** Один на адаптер: слушатели ставятся на поле подвала, а не на каждый холдер. */
+    static final class InputHandler implements TextWatcher, TextView.OnEditorActionListener,
+            View.OnClickListener {
+        private final OnSubmitListener listener;
+        private final int inputType;
+        private EditText field;
+
+        InputHandler(OnSubmitListener listener, int inputType) {
+            this.listener = listener;
+            this.inputType = inputType;
         }
 
-        void bind(Task t, boolean isActive) {
-            if (questionTv != null) {
-                questionTv.setText(t.getText());
-            }
-            if (answerEt != null) {
-                if (isActive) {
-                    answerEt.setVisibility(View.VISIBLE);
-                    answerEt.setEnabled(true);
-                    answerEt.setFocusable(true);
-                    answerEt.setFocusableInTouchMode(true);
-                    if (answerEt.getText().length() == 0) answerEt.requestFocus();
-                } else {
-                    answerEt.setText("");
-                    answerEt.setError(null);
-                    answerEt.setEnabled(false);
-                    answerEt.setFocusable(false);
-                    answerEt.setVisibility(View.GONE);
-                }
-            }
+        void setUp(EditText et, Button submit) {
+            et.setInputType(inputType);
+            et.setImeOptions(EditorInfo.IME_ACTION_DONE);
+            et.addTextChangedListener(this);
+            et.setOnEditorActionListener(this);
+            submit.setOnClickListener(this);
         }
 
-        private static TextView findFirstTextView(View root) {
-            if (root instanceof TextView) return (TextView) root;
-            Deque<View> stack = new ArrayDeque<>();
-            stack.push(root);
-            while (!stack.isEmpty()) {
-                View v = stack.pop();
-                if (v instanceof TextView) return (TextView) v;
-                if (v instanceof ViewGroup) {
-                    ViewGroup group = (ViewGroup) v;
-                    for (int i = 0; i < group.getChildCount(); i++)
-                        stack.push(group.getChildAt(i));
-                }
+        void attach(EditText et) { field = et; }
+
+        void detach(EditText et) {
+            if (field == et) field = null;
+        }
+
+        @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+        @Override public void onTextChanged(CharSequence s, int start, int before, int count) {}
+        @Override public void afterTextChanged(Editable s) {
+            if (field != null && field.getError() != null) field.setError(null);
+        }
+
+        @Override public boolean onEditorAction(TextView v, int actionId, KeyEvent event) {
+            boolean enter = event != null
+                    && event.getKeyCode() == KeyEvent.KEYCODE_ENTER
+                    && event.getAction() == KeyEvent.ACTION_UP;
+            if (actionId == EditorInfo.IME_ACTION_DONE || enter) {
+                submit();
+                return true;
             }
-            return null;
+            return false;
         }
 
-        private static EditText findFirstEditText(View root) {
-            if (root instanceof EditText) return (EditText) root;
-            Deque<View> stack = new ArrayDeque<>();
-            stack.push(root);
-            while (!stack.isEmpty()) {
-                View v = stack.pop();
-                if (v instanceof EditText) return (EditText) v;
-                if (v instanceof ViewGroup) {
-                    ViewGroup group = (ViewGroup) v;
-                    for (int i = 0; i < group.getChildCount(); i++)
-                        stack.push(group.getChildAt(i));
-                }
+        @Override public void onClick(View v) { submit(); }
+
+        private void submit() {
+            if (field == null) return;
+            switch (listener.onSubmit(field.getText())) {
+                case EMPTY:        field.setError("Введите ответ"); break;
+                case NOT_A_NUMBER: field.setError("Только число"); break;
+                case WRONG:        field.setError("Неверно"); break;
+                default:           break; // верно — активити покажет следующий вопрос
             }
-            return null;
         }
     }
-}
\ No newline at end of file
+}
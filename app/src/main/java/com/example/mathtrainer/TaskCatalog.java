@@ -0,0 +1,188 @@
+package com.example.mathtrainer;
+
+/**
+ * Неизменяемый каталог задач одного типа целого уровня (scale 0 в levels.conf).
+ *
+ * Операнды — готовые столбцы из {@link LevelRegistry.Table}: задачи перечислены при
+ * сборке. Текст вопроса и сам {@link Task} создаются один раз при построении каталога,
+ * дальше выдаются по индексу — генерация следующей задачи ничего не аллоцирует.
+ *
+ * Глобальный id задачи = смещение типа в уровне + локальный индекс. Уровень 1:
+ *  0) a × b,        a,b in 2..9                 — 64 задачи
+ *  1) ab × c,       ab in 10..99, c in 2..9      — 720 задач
+ *  2) big ± small,  big in 10..99, small 1..big  — 9810 задач
+ * Методы без номера уровня — про уровень 1 ({@link Task#generate(int)}).
+ *
+ * Тип-выражение (expr в levels.conf) хранит столбцы a, b, c вместо a, op, b: текст и ответ
+ * — из {@link Expression}, скомпилированного один раз на каталог; все наборы в таблице
+ * уже дают целый ответ в границах уровня.
+ */
+public final class TaskCatalog {
+    /** Типов задач уровня 1. */
+    public static final int TYPES = LevelRegistry.get().level(1).types();
+
+    private final int level;
+    private final int type;
+    private final int idBase;
+    private final int[] a;
+    private final int[] b;
+    private final char[] op;     // null у выражения
+    private final int[] c;       // null у a op b
+    private final Expression expression;
+    private final String[] text;
+    private final Task[] tasks;
+    // начала «строк» внешнего операнда (pick rows); null — равномерный выбор
+    private final int[] rowOffset;
+
+    private TaskCatalog(LevelRegistry.Level level, int type) {
+        LevelRegistry.Table table = level.table();
+        this.level = level.number();
+        this.type = type;
+        this.idBase = level.idBase(type);
+        this.a = table.a(type);
+        this.b = table.b(type);
+        this.op = table.op(type);
+        this.c = table.c(type);
+        this.expression = c == null ? null : Expression.compile(level.expression(type));
+        this.rowOffset = table.rowOffset(type);
+        this.text = new String[a.length];
+        this.tasks = new Task[a.length];
+        if (expression == null) {
+            for (int i = 0; i < a.length; i++) {
+                text[i] = a[i] + " " + op[i] + " " + b[i] + " = ?";
+                tasks[i] = new Task(idBase + i, a[i], b[i], op[i], text[i]);
+            }
+            return;
+        }
+        int[] vars = new int[3];
+        int[] stack = new int[expression.stackSize()];
+        for (int i = 0; i < a.length; i++) {
+            vars[0] = a[i];
+            vars[1] = b[i];
+            vars[2] = c[i];
+            text[i] = expression.text(vars) + " = ?";
+            tasks[i] = new Task(idBase + i, a[i], b[i], c[i], text[i], expression.evaluate(vars, stack));
+        }
+    }
+
+    // ---------- Доступ ----------
+
+    public static TaskCatalog forType(int type) {
+        if (type < 0 || type >= TYPES) throw new IllegalArgumentException("Неизвестный тип задачи: " + type);
+        return Holder.LEVEL_1[type];
+    }
+
+    public static TaskCatalog forType(int level, int type) {
+        TaskCatalog[] c = catalogs(level);
+        if (type < 0 || type >= c.length) throw new IllegalArgumentException("Неизвестный тип задачи: " + type);
+        return c[type];
+    }
+
+    /** Каталог уровня 1, которому принадлежит глобальный id (или null). */
+    public static TaskCatalog forId(int id) { return find(Holder.LEVEL_1, id); }
+
+    public static TaskCatalog forId(int level, int id) { return find(catalogs(level), id); }
+
+    /** Общее число задач во всех каталогах уровня 1. */
+    public static int totalSize() { return LevelRegistry.get().level(1).totalSize(); }
+
+    public static int totalSize(int level) { return LevelRegistry.get().level(level).totalSize(); }
+
+    public int level()             { return level; }
+    public int type()              { return type; }
+    public int size()              { return tasks.length; }
+    public int idBase()            { return idBase; }
+    public int a(int index)        { return a[index]; }
+    public int b(int index)        { return b[index]; }
+    /** Знак задачи a op b; у выражения — 0. */
+    public char op(int index)      { return op == null ? 0 : op[index]; }
+    /** Третья переменная выражения; у a op b — 0. */
+    public int c(int index)        { return c == null ? 0 : c[index]; }
+    /** Выражение типа или null — задачи a op b. */
+    public Expression expression() { return expression; }
+    public String text(int index)  { return text[index]; }
+    public Task task(int index)    { return tasks[index]; }
+
+    // ---------- Случайный выбор ----------
+
+    /** Случайная задача: равномерно или (pick rows) строка равновероятно, затем задача в ней. */
+    public Task random(TaskRandom rnd) {
+        if (rowOffset == null) return tasks[rnd.nextInt(tasks.length)];
+        int row = rnd.nextInt(rowOffset.length);            // у типа 2 — big равновероятно
+        return tasks[rowOffset[row] + rnd.nextInt(rowEnd(row) - rowOffset[row])];
+    }
+
+    /**
+     * То же, что {@link #random(TaskRandom)}, но никогда не возвращает {@code except}.
+     * Без повторных попыток: исключённый индекс просто «перепрыгиваем».
+     */
+    public Task randomExcept(TaskRandom rnd, Task except) {
+        int skip = except == null ? -1 : except.getId() - idBase;
+        if (skip < 0 || skip >= tasks.length) return random(rnd);
+
+        if (rowOffset == null) {
+            int j = rnd.nextInt(tasks.length - 1);
+            return tasks[j >= skip ? j + 1 : j];
+        }
+        int row = rnd.nextInt(rowOffset.length);
+        int from = rowOffset[row];
+        int rowSize = rowEnd(row) - from;
+        if (skip < from || skip >= from + rowSize) return tasks[from + rnd.nextInt(rowSize)];
+        int j = from + rnd.nextInt(rowSize - 1);
+        return tasks[j >= skip ? j + 1 : j];
+    }
+
+    /** Вероятность задачи {@code index} у {@link #random(TaskRandom)}. */
+    public double probability(int index) {
+        if (rowOffset == null) return 1.0 / tasks.length;
+        int row = rowOffset.length - 1;
+        while (rowOffset[row] > index) row--;
+        return 1.0 / rowOffset.length / (rowEnd(row) - rowOffset[row]);
+    }
+
+    private int rowEnd(int row) {
+        return row + 1 < rowOffset.length ? rowOffset[row + 1] : tasks.length;
+    }
+
+    /** Вероятность каждого глобального id у {@link Task#random()} (тип равновероятен). */
+    public static double[] idProbabilities() { return idProbabilities(1); }
+
+    /** То же для уровня {@code level}: типы равновероятны. */
+    public static double[] idProbabilities(int level) {
+        TaskCatalog[] all = catalogs(level);
+        double[] p = new double[totalSize(level)];
+        for (TaskCatalog c : all) {
+            for (int i = 0; i < c.size(); i++) p[c.idBase + i] = c.probability(i) / all.length;
+        }
+        return p;
+    }
+
+    // ---------- Построение ----------
+
+    private static final TaskCatalog[][] BY_LEVEL = new TaskCatalog[LevelRegistry.get().size()][];
+
+    /** Каталоги уровня по типам; строятся из таблицы при первом обращении. Массив не менять. */
+    static synchronized TaskCatalog[] catalogs(int level) {
+        LevelRegistry.Level l = LevelRegistry.get().level(level);
+        if (l.scale() != 0) throw new IllegalArgumentException("Уровень " + level + " не целочисленный");
+        TaskCatalog[] c = BY_LEVEL[level - 1];
+        if (c == null) {
+            c = new TaskCatalog[l.types()];
+            for (int t = 0; t < c.length; t++) c[t] = new TaskCatalog(l, t);
+            BY_LEVEL[level - 1] = c;
+        }
+        return c;
+    }
+
+    private static TaskCatalog find(TaskCatalog[] all, int id) {
+        for (TaskCatalog c : all) {
+            if (id >= c.idBase && id < c.idBase + c.size()) return c;
+        }
+        return null;
+    }
+
+    // Ленивая инициализация: каталоги уровня 1 строятся при первом обращении к классу
+    private static final class Holder {
+        static final TaskCatalog[] LEVEL_1 = catalogs(1);
+    }
+}
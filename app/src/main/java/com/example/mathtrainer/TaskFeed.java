@@ -0,0 +1,95 @@
+package com.example.mathtrainer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Модель ленты истории: отвеченные задачи по порядку. Активная задача сюда не входит —
+ * это отдельная строка-подвал {@link TaskAdapter}, поэтому ответ на задачу — ровно
+ * одна вставка в конец.
+ *
+ * Каждое изменение возвращает новый неизменяемый снимок ({@link #snapshot()}) за O(1):
+ * строки лежат в общем массиве, в который только дописывают, и снимок помнит лишь
+ * массив и длину. Старые снимки остаются верными — их спокойно сравнивает в фоне
+ * AsyncListDiffer.
+ */
+public final class TaskFeed {
+
+    /**
+     * Отвеченная задача; id — порядковый номер в ленте, стабилен. Тексты для экрана
+     * собираются один раз при добавлении — привязка строки при прокрутке не аллоцирует.
+     */
+    public static final class Row {
+        public final long id;
+        public final String question;
+        public final String answer;
+        public final double points;
+        /** Вопрос с подставленным ответом: «2 * 3 = 6». */
+        public final String solved;
+        /** Очки со знаком плюс, три знака после запятой. */
+        public final String pointsText;
+
+        Row(long id, String question, String answer, double points) {
+            this.id = id;
+            this.question = question;
+            this.answer = answer;
+            this.points = points;
+            this.solved = question.replace("?", answer);
+            this.pointsText = String.format(Locale.getDefault(), "+%.3f", points);
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Row)) return false;
+            Row r = (Row) o;
+            return id == r.id && Double.compare(points, r.points) == 0
+                    && question.equals(r.question) && answer.equals(r.answer);
+        }
+
+        @Override public int hashCode() {
+            return Long.hashCode(id) * 31 + question.hashCode();
+        }
+    }
+
+    private Row[] rows = new Row[64];
+    private int count;
+    private long nextId;
+
+    /** Задача отвечена: дописать её в конец ленты. */
+    public List<Row> append(String question, String answer, double points) {
+        if (count == rows.length) rows = Arrays.copyOf(rows, count * 2);
+        rows[count++] = new Row(nextId++, question, answer, points);
+        return snapshot();
+    }
+
+    public List<Row> clear() {
+        rows = new Row[rows.length]; // старые снимки держат прежний массив
+        count = 0;
+        return snapshot();
+    }
+
+    public List<Row> snapshot() {
+        return new Snapshot(rows, count);
+    }
+
+    private static final class Snapshot extends AbstractList<Row> {
+        private final Row[] rows;
+        private final int count;
+
+        Snapshot(Row[] rows, int count) {
+            this.rows = rows;
+            this.count = count;
+        }
+
+        @Override public Row get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Индекс " + index + ", строк " + count);
+            }
+            return rows[index];
+        }
+
+        @Override public int size() { return count; }
+    }
+}
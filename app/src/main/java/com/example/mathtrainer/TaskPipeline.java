@@ -0,0 +1,132 @@
+package com.example.mathtrainer;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Готовые задачи заранее: фоновый поток держит заполненным небольшое кольцо
+ * (один писатель — поток подкачки, один читатель — главный поток, без блокировок),
+ * а {@link #next(Object)} просто забирает голову кольца за O(1).
+ *
+ * Повторы отсекает сам источник (см. {@link TaskSource#withoutRepeats}). Если кольцо
+ * пусто (промах), задача генерируется на месте, как раньше. Доля попаданий — {@link #hitRate()},
+ * у последнего конвейера уровня — ещё и на экране отладки ({@link #latestStats()}).
+ */
+public final class TaskPipeline<T> implements TaskSource<T> {
+
+    /** Сколько задач держать готовыми. */
+    public static final int DEFAULT_CAPACITY = 4;
+
+    private static ExecutorService prefetcher;
+
+    /** Общий фоновый поток подкачки для всех уровней. */
+    public static synchronized Executor prefetcher() {
+        if (prefetcher == null) {
+            prefetcher = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "task-prefetch");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return prefetcher;
+    }
+
+    // последний созданный конвейер (главный поток); слабая ссылка — уровень не удерживается
+    private static WeakReference<TaskPipeline<?>> latest;
+
+    private final TaskSource<T> inner;
+    private final Executor executor;
+
+    private final Object[] ring;
+    private final int mask;
+    private volatile long head; // следующая к выдаче (пишет только читатель)
+    private volatile long tail; // следующая свободная (пишет только подкачка)
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private T lastProduced; // только поток подкачки
+
+    private long hits;
+    private long misses;
+
+    /** {@code capacity} округляется вверх до степени двойки. */
+    public TaskPipeline(TaskSource<T> inner, Executor executor, int capacity) {
+        this.inner = inner;
+        this.executor = executor;
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new Object[size];
+        this.mask = size - 1;
+        latest = new WeakReference<>(this);
+        refill();
+    }
+
+    // ---------- TaskSource ----------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next(T previous) {
+        long h = head;
+        T task;
+        if (h < tail) {
+            int slot = (int) h & mask;
+            task = (T) ring[slot];
+            ring[slot] = null;
+            head = h + 1;
+            hits++;
+        } else {
+            task = inner.next(previous);
+            misses++;
+        }
+        refill();
+        return task;
+    }
+
+    @Override public String text(T task) { return inner.text(task); }
+
+    @Override public AnswerChecker.Result check(CharSequence input, T task) {
+        return inner.check(input, task);
+    }
+
+    // ---------- Подкачка ----------
+
+    private void refill() {
+        if (refilling.compareAndSet(false, true)) executor.execute(this::fill);
+    }
+
+    private void fill() {
+        do {
+            while (tail - head < ring.length) {
+                T task = inner.next(lastProduced);
+                lastProduced = task;
+                ring[(int) tail & mask] = task;
+                tail = tail + 1;
+            }
+            refilling.set(false);
+            // читатель мог забрать задачу между проверкой и сбросом флага
+        } while (tail - head < ring.length && refilling.compareAndSet(false, true));
+    }
+
+    // ---------- Метрики (главный поток) ----------
+
+    public long hits()          { return hits; }
+    public long misses()        { return misses; }
+    /** Сколько задач готово прямо сейчас. */
+    public int ready()          { return (int) (tail - head); }
+
+    /** Доля выдач из кольца (0..1); NaN, пока выдач не было. */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? Double.NaN : hits / (double) total;
+    }
+
+    /** Строка про последний конвейер уровня для экрана отладки; пусто, если уровень не открывали. */
+    public static String latestStats() {
+        TaskPipeline<?> p = latest == null ? null : latest.get();
+        if (p == null) return "";
+        return new StringBuilder(64).append("prefetch: hits ").append(p.hits)
+                .append(", misses ").append(p.misses)
+                .append(", hit rate ").append(p.hitRate()).toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.mathtrainer;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Источник случайности для генераторов задач. Всё, что выбирает задачи
+ * ({@link TaskCatalog}, {@link DecimalTaskCatalog}, {@link Task}, {@link DecimalTask},
+ * {@link TaskSource}), берёт его параметром.
+ *
+ * {@link #seeded(long)} — воспроизводимая последовательность (повтор сессии по отчёту
+ * об ошибке, одинаковые листы заданий на разных устройствах). {@link #split()} даёт
+ * независимый поток, тоже воспроизводимый, — по одному на поток массовой генерации,
+ * без общего состояния. {@link #shared()} — генератор по умолчанию, без seed
+ * и без разделяемой CAS-ячейки, как у статического {@link java.util.Random}.
+ */
+public interface TaskRandom {
+
+    /** Равномерно в [0, bound); bound > 0. */
+    int nextInt(int bound);
+
+    /** Равномерно в [0, bound) для больших доменов ({@link TaskSpec}); bound > 0. */
+    default long nextLong(long bound) {
+        if (bound <= Integer.MAX_VALUE) return nextInt((int) bound);
+        // 60 случайных бит из двух nextInt; хвост, не кратный bound, отбрасываем
+        long limit = (1L << 60) - (1L << 60) % bound;
+        long r;
+        do {
+            r = (long) nextInt(1 << 30) << 30 | nextInt(1 << 30);
+        } while (r >= limit);
+        return r % bound;
+    }
+
+    /** Новый независимый генератор; у seeded — детерминированно от текущего состояния. */
+    TaskRandom split();
+
+    /** Не потокобезопасен: один экземпляр — один поток (или {@link #split()} на каждый). */
+    static TaskRandom seeded(long seed) {
+        return new Seeded(new SplittableRandom(seed));
+    }
+
+    /** Свой генератор у каждого потока ({@link ThreadLocalRandom}); можно звать откуда угодно. */
+    static TaskRandom shared() {
+        return Shared.INSTANCE;
+    }
+
+    final class Seeded implements TaskRandom {
+        private final SplittableRandom rnd;
+
+        private Seeded(SplittableRandom rnd) { this.rnd = rnd; }
+
+        @Override public int nextInt(int bound)    { return rnd.nextInt(bound); }
+        @Override public long nextLong(long bound) { return rnd.nextLong(bound); }
+        @Override public TaskRandom split()        { return new Seeded(rnd.split()); }
+    }
+
+    final class Shared implements TaskRandom {
+        private static final Shared INSTANCE = new Shared();
+
+        private Shared() {}
+
+        @Override public int nextInt(int bound)    { return ThreadLocalRandom.current().nextInt(bound); }
+        @Override public long nextLong(long bound) { return ThreadLocalRandom.current().nextLong(bound); }
+        @Override public TaskRandom split()        { return seeded(ThreadLocalRandom.current().nextLong()); }
+    }
+}
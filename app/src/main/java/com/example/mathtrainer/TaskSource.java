@@ -0,0 +1,117 @@
+package com.example.mathtrainer;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Откуда {@link GameSession} берёт задачи и как проверяет ответы.
+ * Уровень 1 — {@link #integers()}, уровень 2 — {@link #decimals()}, любой уровень из
+ * {@link LevelRegistry} — по расписанию ({@link #scheduledIntegers(int, RepetitionScheduler)}); с явным
+ * {@link TaskRandom#seeded(long)} последовательность задач воспроизводима.
+ */
+public interface TaskSource<T> {
+
+    /** Следующая задача, не равная {@code previous} (null — первая задача уровня). */
+    T next(T previous);
+
+    String text(T task);
+
+    AnswerChecker.Result check(CharSequence input, T task);
+
+    /** Попыток найти задачу вне окна, прежде чем согласиться на повтор. */
+    int NO_REPEAT_TRIES = 16;
+
+    /**
+     * Без повторов среди последних {@code window} задач: кандидат из {@link RecentWindow}
+     * отбрасывается (сравнение по id, без строк). next() синхронизирован — его может
+     * вызывать и поток подкачки, и главный поток.
+     */
+    static <T> TaskSource<T> withoutRepeats(TaskSource<T> inner, ToIntFunction<T> idOf, int idSpace, int window) {
+        RecentWindow recent = new RecentWindow(idSpace, window);
+        return new TaskSource<T>() {
+            @Override public synchronized T next(T previous) {
+                T task = inner.next(previous);
+                for (int i = 1; i < NO_REPEAT_TRIES && recent.contains(idOf.applyAsInt(task)); i++) {
+                    task = inner.next(previous);
+                }
+                recent.add(idOf.applyAsInt(task));
+                return task;
+            }
+            @Override public String text(T task) { return inner.text(task); }
+            @Override public AnswerChecker.Result check(CharSequence input, T task) {
+                return inner.check(input, task);
+            }
+        };
+    }
+
+    static TaskSource<Task> integers() { return integers(TaskRandom.shared()); }
+
+    /** {@code rnd} не потокобезопасен: для подкачки в фоне — через {@link #withoutRepeats} (синхронизирован). */
+    static TaskSource<Task> integers(TaskRandom rnd) {
+        return new TaskSource<Task>() {
+            @Override public Task next(Task previous) { return Task.randomExcept(rnd, previous); }
+            @Override public String text(Task task) { return task.getText(); }
+            @Override public AnswerChecker.Result check(CharSequence input, Task task) {
+                return AnswerChecker.checkInt(input, task);
+            }
+        };
+    }
+
+    /** Уровень 1 по расписанию повторений (факт = глобальный id из {@link TaskCatalog}). */
+    static TaskSource<Task> scheduledIntegers(RepetitionScheduler scheduler) {
+        return scheduledIntegers(1, scheduler);
+    }
+
+    /** Целый уровень {@code level} по расписанию повторений. */
+    static TaskSource<Task> scheduledIntegers(int level, RepetitionScheduler scheduler) {
+        TaskCatalog[] catalogs = TaskCatalog.catalogs(level);
+        return new TaskSource<Task>() {
+            @Override public Task next(Task previous) {
+                int id = scheduler.next(previous == null ? -1 : previous.getId());
+                int t = catalogs.length - 1;
+                while (catalogs[t].idBase() > id) t--;
+                return catalogs[t].task(id - catalogs[t].idBase());
+            }
+            @Override public String text(Task task) { return task.getText(); }
+            @Override public AnswerChecker.Result check(CharSequence input, Task task) {
+                return AnswerChecker.checkInt(input, task);
+            }
+        };
+    }
+
+    static TaskSource<DecimalTask> decimals() { return decimals(TaskRandom.shared()); }
+
+    /** {@code rnd} не потокобезопасен: для подкачки в фоне — через {@link #withoutRepeats} (синхронизирован). */
+    static TaskSource<DecimalTask> decimals(TaskRandom rnd) {
+        return new TaskSource<DecimalTask>() {
+            @Override public DecimalTask next(DecimalTask previous) {
+                return DecimalTask.randomExcept(rnd, previous);
+            }
+            @Override public String text(DecimalTask task) { return task.getText(); }
+            @Override public AnswerChecker.Result check(CharSequence input, DecimalTask task) {
+                return AnswerChecker.checkDecimal(input, task);
+            }
+        };
+    }
+
+    /** Уровень 2 по расписанию повторений (факт = глобальный id из {@link DecimalTaskCatalog}). */
+    static TaskSource<DecimalTask> scheduledDecimals(RepetitionScheduler scheduler) {
+        return scheduledDecimals(DecimalTaskCatalog.LEVEL, scheduler);
+    }
+
+    /** Десятичный уровень {@code level} по расписанию повторений. */
+    static TaskSource<DecimalTask> scheduledDecimals(int level, RepetitionScheduler scheduler) {
+        DecimalTaskCatalog[] catalogs = DecimalTaskCatalog.catalogs(level);
+        return new TaskSource<DecimalTask>() {
+            @Override public DecimalTask next(DecimalTask previous) {
+                int id = scheduler.next(previous == null ? -1 : previous.getId());
+                int t = catalogs.length - 1;
+                while (catalogs[t].idBase() > id) t--;
+                return catalogs[t].task(id - catalogs[t].idBase());
+            }
+            @Override public String text(DecimalTask task) { return task.getText(); }
+            @Override public AnswerChecker.Result check(CharSequence input, DecimalTask task) {
+                return AnswerChecker.checkDecimal(input, task);
+            }
+        };
+    }
+}
@@ -0,0 +1,533 @@
+package com.example.mathtrainer;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Тип задачи декларативно: домены операндов, знаки и условия на ответ — диапазон,
+ * знак, кратность и точность в единицах scale. {@link #sampler()} превращает описание
+ * в генератор без циклов отбраковки:
+ *
+ *  - {@link Strategy#ENUMERATE} — все допустимые (a, b, op) перечисляются в примитивные
+ *    массивы, выбор — один индекс (как у каталогов уровней);
+ *  - {@link Strategy#PRUNE} — таблицы нет: для значения внешнего операнда условия на
+ *    ответ решаются относительно внутреннего как арифметическая прогрессия (интервал
+ *    ∩ шаг домена ∩ сравнение по модулю). Память — веса внешнего домена, O(|A|).
+ *
+ * Перечисление выбирается, пока кандидатов |A|·|B|·|ops| не больше {@link #ENUMERATE_LIMIT}.
+ * Распределение у стратегий одно: равномерно по допустимым задачам или ({@link #rows()})
+ * сначала равновероятно значение внешнего операнда, затем задача в его строке.
+ *
+ * Значения — целые в единицах scale (при scale 1 — десятые: 9.9 → 99). Ответ всегда
+ * точный: у a × b и a ÷ b нет лишних знаков. По этому же описанию LevelCompiler
+ * (buildSrc) перечисляет задачи уровней при сборке.
+ */
+public final class TaskSpec {
+
+    public enum Strategy { ENUMERATE, PRUNE }
+
+    /** Порог перечисления: столько кандидатов (a, b, op) — десятки-сотни КБ таблицы. */
+    public static final long ENUMERATE_LIMIT = 1 << 16;
+
+    /** Предел внешнего домена у {@link Strategy#PRUNE}: веса — long на значение. */
+    static final int MAX_OUTER = 1 << 22;
+
+    /** Ответы по модулю не больше — произведения и границы считаются в long без переполнения. */
+    static final long MAX_RESULT = 1L << 50;
+
+    /** {@link #result} для задачи без точного ответа. */
+    static final long NO_RESULT = Long.MIN_VALUE;
+
+    private final int scale;
+    private final int unit;
+    private Domain a = new Domain(0, 0, 1);
+    private Domain b = new Domain(0, 0, 1);
+    private boolean bAtMostA;
+    private char[] ops = {'+'};
+    private long resultMin = -MAX_RESULT;
+    private long resultMax = MAX_RESULT;
+    private long divisor = 1;   // ответ кратен (в единицах scale)
+    private boolean bOuter;
+    private boolean rows;
+
+    private TaskSpec(int scale) {
+        this.scale = scale;
+        this.unit = scale == 0 ? 1 : 10;
+    }
+
+    private TaskSpec copy() {
+        TaskSpec c = new TaskSpec(scale);
+        c.a = a;
+        c.b = b;
+        c.bAtMostA = bAtMostA;
+        c.ops = ops.clone();
+        c.resultMin = resultMin;
+        c.resultMax = resultMax;
+        c.divisor = divisor;
+        c.bOuter = bOuter;
+        c.rows = rows;
+        return c;
+    }
+
+    /** Описание с операндами и ответом в единицах scale: 0 — целые, 1 — десятые. */
+    public static TaskSpec of(int scale) {
+        if (scale != 0 && scale != 1) throw new IllegalArgumentException("scale — 0 или 1: " + scale);
+        return new TaskSpec(scale);
+    }
+
+    // ---------- Описание ----------
+
+    public TaskSpec a(int min, int max)           { return a(min, max, 1); }
+    public TaskSpec a(int min, int max, int step) { a = new Domain(min, max, step); return this; }
+    public TaskSpec b(int min, int max)           { return b(min, max, 1); }
+    public TaskSpec b(int min, int max, int step) { b = new Domain(min, max, step); return this; }
+
+    /** b ≤ a («big ± small»). */
+    public TaskSpec bAtMostA() { bAtMostA = true; return this; }
+
+    /** Знаки: при scale 0 — + - * ÷, при scale 1 — + - × ÷. */
+    public TaskSpec ops(char... ops) {
+        String allowed = scale == 0 ? "+-*÷" : "+-×÷";
+        if (ops.length == 0) throw new IllegalArgumentException("Нет знаков операций");
+        for (int i = 0; i < ops.length; i++) {
+            if (allowed.indexOf(ops[i]) < 0 || new String(ops, 0, i).indexOf(ops[i]) >= 0) {
+                throw new IllegalArgumentException("Знаки при scale " + scale + ": " + allowed + ", без повторов");
+            }
+        }
+        this.ops = ops.clone();
+        return this;
+    }
+
+    /** Ответ в [min, max] (включительно, в единицах scale). */
+    public TaskSpec result(long min, long max) {
+        if (min > max) throw new IllegalArgumentException("Пустой диапазон ответа " + min + ".." + max);
+        resultMin = Math.max(resultMin, min);
+        resultMax = Math.min(resultMax, max);
+        return this;
+    }
+
+    /** Ответ больше нуля. */
+    public TaskSpec positive()    { return result(1, MAX_RESULT); }
+
+    /** Ответ не меньше нуля. */
+    public TaskSpec nonNegative() { return result(0, MAX_RESULT); }
+
+    /** Ответ кратен {@code d} (в единицах scale). */
+    public TaskSpec resultDivisibleBy(int d) {
+        if (d <= 0) throw new IllegalArgumentException("Делитель должен быть больше 0: " + d);
+        divisor = lcm(divisor, d);
+        return this;
+    }
+
+    /** Ответ без дробной части (при scale 0 ничего не меняет). */
+    public TaskSpec wholeResult() { return resultDivisibleBy(unit); }
+
+    /** Внешний цикл — по b: порядок перечисления и строки {@link #rows()}. */
+    public TaskSpec outerB() { bOuter = true; return this; }
+
+    /** Выбор: строка (значение внешнего операнда) равновероятно, затем задача в ней. */
+    public TaskSpec rows() { rows = true; return this; }
+
+    public int scale()         { return scale; }
+    public boolean isOuterB()  { return bOuter; }
+    public boolean isRows()    { return rows; }
+
+    /** Кандидатов до условий на ответ: |A|·|B|·|ops|. */
+    public long candidates() {
+        return a.size() * b.size() * ops.length;
+    }
+
+    // ---------- Условия ----------
+
+    /** Точный ответ в единицах scale или {@link #NO_RESULT}. */
+    static long result(long a, long b, char op, int unit) {
+        switch (op) {
+            case '+': return a + b;
+            case '-': return a - b;
+            case '*':
+            case '×': {
+                long p = a * b;
+                return p % unit == 0 ? p / unit : NO_RESULT;
+            }
+            case '÷': {
+                if (b == 0) return NO_RESULT;
+                long n = a * unit;
+                return n % b == 0 ? n / b : NO_RESULT;
+            }
+            default: throw new IllegalArgumentException("Неизвестная операция: " + op);
+        }
+    }
+
+    /** Подходит ли задача под все условия (операнды — из доменов). */
+    public boolean accepts(int a, int b, char op) {
+        if (bAtMostA && b > a) return false;
+        long r = result(a, b, op, unit);
+        return r != NO_RESULT && r >= resultMin && r <= resultMax && r % divisor == 0;
+    }
+
+    /** Получатель перечисления. */
+    public interface Visitor {
+        void task(int a, int b, char op);
+    }
+
+    /** Все допустимые задачи: внешний операнд, внутренний, знаки — в порядке объявления. */
+    public void forEach(Visitor v) {
+        Domain outer = bOuter ? b : a;
+        Domain inner = bOuter ? a : b;
+        for (long i = 0, n = outer.size(); i < n; i++) {
+            int x = outer.at(i);
+            for (long j = 0, m = inner.size(); j < m; j++) {
+                int y = inner.at(j);
+                if (bAtMostA && !bOuter && y > x) break; // дальше b только больше
+                int ta = bOuter ? y : x;
+                int tb = bOuter ? x : y;
+                for (char op : ops) {
+                    if (accepts(ta, tb, op)) v.task(ta, tb, op);
+                }
+            }
+        }
+    }
+
+    // ---------- Генератор ----------
+
+    /** Выбранная задача; один экземпляр на поток, {@link Sampler#next} перезаписывает поля. */
+    public static final class Draw {
+        int a, b;
+        char op;
+        long result;
+
+        public int a()        { return a; }
+        public int b()        { return b; }
+        public char op()      { return op; }
+        public long result()  { return result; }
+    }
+
+    /** Генератор задач по описанию; не потокобезопасен (как {@link TaskRandom#seeded}). */
+    public interface Sampler {
+        Strategy strategy();
+
+        /** Допустимых задач. */
+        long size();
+
+        /** Следующая задача — в {@code out}, без аллокаций. */
+        void next(TaskRandom rnd, Draw out);
+    }
+
+    /** Генератор со стратегией по размеру домена (см. {@link #ENUMERATE_LIMIT}). */
+    public Sampler sampler() {
+        return sampler(candidates() <= ENUMERATE_LIMIT ? Strategy.ENUMERATE : Strategy.PRUNE);
+    }
+
+    /** Генератор с заданной стратегией; описание копируется — дальнейшие вызовы его не меняют. */
+    public Sampler sampler(Strategy strategy) {
+        TaskSpec spec = copy();
+        Sampler s = strategy == Strategy.ENUMERATE ? new Table(spec) : new Pruned(spec);
+        if (s.size() == 0) throw new IllegalArgumentException("Ни одной задачи под условия");
+        return s;
+    }
+
+    // Перечисление: столбцы a, b, op и начала строк
+    private static final class Table implements Sampler, Visitor {
+        private final int unit;
+        private final boolean bOuter;
+        private int[] a = new int[64], b = new int[64];
+        private char[] op = new char[64];
+        private int size;
+        private int[] rowOffset; // null — равномерно
+        private int rowCount;
+        private int lastOuter;
+
+        Table(TaskSpec spec) {
+            unit = spec.unit;
+            bOuter = spec.bOuter;
+            rowOffset = spec.rows ? new int[16] : null;
+            spec.forEach(this);
+            a = Arrays.copyOf(a, size);
+            b = Arrays.copyOf(b, size);
+            op = Arrays.copyOf(op, size);
+            if (rowOffset != null) rowOffset = Arrays.copyOf(rowOffset, rowCount);
+        }
+
+        @Override
+        public void task(int x, int y, char o) {
+            if (size == a.length) {
+                if (size >= Integer.MAX_VALUE / 2) throw new IllegalArgumentException("Слишком много задач для таблицы");
+                a = Arrays.copyOf(a, size * 2);
+                b = Arrays.copyOf(b, size * 2);
+                op = Arrays.copyOf(op, size * 2);
+            }
+            int outer = bOuter ? y : x;
+            if (rowOffset != null && (size == 0 || outer != lastOuter)) {
+                if (rowCount == rowOffset.length) rowOffset = Arrays.copyOf(rowOffset, rowCount * 2);
+                rowOffset[rowCount++] = size;
+            }
+            lastOuter = outer;
+            a[size] = x;
+            b[size] = y;
+            op[size] = o;
+            size++;
+        }
+
+        @Override public Strategy strategy() { return Strategy.ENUMERATE; }
+        @Override public long size()         { return size; }
+
+        @Override
+        public void next(TaskRandom rnd, Draw out) {
+            int i;
+            if (rowOffset == null) {
+                i = rnd.nextInt(size);
+            } else {
+                int row = rnd.nextInt(rowOffset.length);
+                int end = row + 1 < rowOffset.length ? rowOffset[row + 1] : size;
+                i = rowOffset[row] + rnd.nextInt(end - rowOffset[row]);
+            }
+            out.a = a[i];
+            out.b = b[i];
+            out.op = op[i];
+            out.result = result(out.a, out.b, out.op, unit);
+        }
+    }
+
+    // Отсечение: внутренний операнд решается как прогрессия first + k·step, k < count
+    private static final class Pruned implements Sampler {
+        private final TaskSpec spec;
+        private final boolean bOuter;       // внешний — b
+        private final boolean scanDivision; // ÷ при внешнем a: делители не прогрессия — перебор
+        private final Domain outer, inner;
+        private final long[] weight;        // равномерно: накопленные веса; строки — вес строки
+        private final int[] rows;           // строки: непустые значения внешнего (индексы) или null
+        private final long size;
+        private long first, step;           // результат solve()
+
+        Pruned(TaskSpec spec) {
+            this.spec = spec;
+            boolean division = new String(spec.ops).indexOf('÷') >= 0;
+            // при равномерном выборе порядок не важен: для ÷ внешним берём делитель
+            bOuter = spec.bOuter || (!spec.rows && division);
+            scanDivision = division && !bOuter;
+            outer = bOuter ? spec.b : spec.a;
+            inner = bOuter ? spec.a : spec.b;
+            if (outer.size() > MAX_OUTER) {
+                throw new IllegalArgumentException("Внешний домен больше " + MAX_OUTER + " значений");
+            }
+            int n = (int) outer.size();
+            long[] w = new long[n];
+            int nonEmpty = 0;
+            for (int i = 0; i < n; i++) {
+                int x = outer.at(i);
+                for (char op : spec.ops) w[i] += count(x, op);
+                if (w[i] > 0) nonEmpty++;
+            }
+            if (spec.rows) {
+                rows = new int[nonEmpty];
+                long total = 0;
+                for (int i = 0, r = 0; i < n; i++) {
+                    if (w[i] > 0) rows[r++] = i;
+                    total += w[i];
+                }
+                weight = w;
+                size = total;
+            } else {
+                rows = null;
+                for (int i = 1; i < n; i++) w[i] += w[i - 1];
+                weight = w;
+                size = n == 0 ? 0 : w[n - 1];
+            }
+        }
+
+        @Override public Strategy strategy() { return Strategy.PRUNE; }
+        @Override public long size()         { return size; }
+
+        @Override
+        public void next(TaskRandom rnd, Draw out) {
+            int i;
+            long u;
+            if (rows == null) {
+                u = rnd.nextLong(size);
+                int lo = 0, hi = weight.length - 1; // первый с накопленным весом > u
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (weight[mid] > u) hi = mid;
+                    else lo = mid + 1;
+                }
+                i = lo;
+                if (i > 0) u -= weight[i - 1];
+            } else {
+                i = rows[rnd.nextInt(rows.length)];
+                u = rnd.nextLong(weight[i]);
+            }
+            int x = outer.at(i);
+            for (char op : spec.ops) {
+                long c = count(x, op);
+                if (u < c) {
+                    int y = pick(x, op, u);
+                    out.a = bOuter ? y : x;
+                    out.b = bOuter ? x : y;
+                    out.op = op;
+                    out.result = result(out.a, out.b, op, spec.unit);
+                    return;
+                }
+                u -= c;
+            }
+            throw new IllegalStateException("Веса строки не сходятся");
+        }
+
+        private int pick(int x, char op, long k) {
+            if (op == '÷' && scanDivision) {
+                for (long j = 0, m = inner.size(); j < m; j++) {
+                    int y = inner.at(j);
+                    if (spec.accepts(x, y, op) && k-- == 0) return y;
+                }
+                throw new IllegalStateException("Перебор не нашёл задачу");
+            }
+            count(x, op); // first, step
+            return (int) (first + k * step);
+        }
+
+        // сколько внутренних значений подходит к x; для прогрессии заполняет first/step
+        private long count(int x, char op) {
+            if (op == '÷' && scanDivision) {
+                long c = 0;
+                for (long j = 0, m = inner.size(); j < m; j++) {
+                    if (spec.accepts(x, inner.at(j), op)) c++;
+                }
+                return c;
+            }
+            long lo = inner.min, hi = inner.max;
+            long rLo = spec.resultMin, rHi = spec.resultMax;
+            long unit = spec.unit, d = spec.divisor;
+            long mod = 1, rem = 0; // y ≡ rem (mod mod)
+            if (spec.bAtMostA) {
+                if (bOuter) lo = Math.max(lo, x); // a ≥ b
+                else hi = Math.min(hi, x);        // b ≤ a
+            }
+            switch (op) {
+                case '+': // r = x + y
+                    lo = Math.max(lo, rLo - x);
+                    hi = Math.min(hi, rHi - x);
+                    mod = d;
+                    rem = Math.floorMod(-(long) x, d);
+                    break;
+                case '-': // r = a − b; y ≡ x (mod d) в обоих порядках
+                    if (bOuter) {
+                        lo = Math.max(lo, rLo + x);
+                        hi = Math.min(hi, rHi + x);
+                    } else {
+                        lo = Math.max(lo, x - rHi);
+                        hi = Math.min(hi, x - rLo);
+                    }
+                    mod = d;
+                    rem = Math.floorMod((long) x, d);
+                    break;
+                case '*':
+                case '×': { // r = x·y / unit; x·y ≡ 0 (mod unit·d)
+                    long ud = unit * d;
+                    if (x == 0) {
+                        if (rLo > 0 || rHi < 0) return 0;
+                        break;
+                    }
+                    long ax = Math.abs((long) x);
+                    mod = ud / gcd(ax, ud);
+                    long pLo = rLo * unit, pHi = rHi * unit;
+                    if (x > 0) {
+                        lo = Math.max(lo, Math.floorDiv(pLo + x - 1, x));
+                        hi = Math.min(hi, Math.floorDiv(pHi, x));
+                    } else {
+                        lo = Math.max(lo, Math.floorDiv(pHi, x) + (Math.floorMod(pHi, x) == 0 ? 0 : 1));
+                        hi = Math.min(hi, Math.floorDiv(pLo, x));
+                    }
+                    break;
+                }
+                case '÷': { // внешний — делитель x: r = y·unit / x; y·unit ≡ 0 (mod |x|·d)
+                    if (x == 0) return 0;
+                    long xd = Math.abs((long) x) * d;
+                    mod = xd / gcd(xd, unit);
+                    long qLo = mulSat(rLo, x), qHi = mulSat(rHi, x);
+                    if (x < 0) { long t = qLo; qLo = qHi; qHi = t; }
+                    lo = Math.max(lo, Math.floorDiv(qLo + unit - 1, unit));
+                    hi = Math.min(hi, Math.floorDiv(qHi, unit));
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Неизвестная операция: " + op);
+            }
+            if (lo > hi) return 0;
+            // y ≡ inner.min (mod inner.step) и y ≡ rem (mod mod) → y ≡ c (mod m)
+            long m1 = inner.step, r1 = Math.floorMod((long) inner.min, m1);
+            long g = gcd(m1, mod);
+            if (Math.floorMod(rem - r1, g) != 0) return 0;
+            long m = m1 / g * mod;
+            long c;
+            if (m1 == 1) {
+                c = rem;
+            } else if (mod == 1) {
+                c = r1;
+            } else {
+                long n = mod / g;
+                long t = mulMod(Math.floorMod(rem - r1, mod) / g, inverse(m1 / g % n, n), n);
+                c = Math.floorMod(r1 + m1 * t, m);
+            }
+            first = lo + Math.floorMod(c - lo, m);
+            step = m;
+            return first > hi ? 0 : (hi - first) / m + 1;
+        }
+    }
+
+    // ---------- Домены и арифметика ----------
+
+    private static final class Domain {
+        final int min, max, step;
+
+        Domain(int min, int max, int step) {
+            if (step <= 0) throw new IllegalArgumentException("Шаг должен быть больше 0: " + step);
+            if (min > max) throw new IllegalArgumentException("Пустой домен " + min + ".." + max);
+            this.min = min;
+            this.max = (int) (min + ((long) max - min) / step * step); // последнее значение на шаге
+            this.step = step;
+        }
+
+        long size()     { return ((long) max - min) / step + 1; }
+        int at(long i)  { return (int) (min + i * step); }
+    }
+
+    static long gcd(long x, long y) {
+        while (y != 0) {
+            long t = x % y;
+            x = y;
+            y = t;
+        }
+        return Math.abs(x);
+    }
+
+    // x·y с насыщением: границы вне домена отсекаются и так
+    static long mulSat(long x, long y) {
+        long hi = Math.abs(x) | Math.abs(y);
+        if (hi >>> 31 == 0) return x * y;
+        try {
+            return Math.multiplyExact(x, y);
+        } catch (ArithmeticException e) {
+            return (x < 0) == (y < 0) ? Long.MAX_VALUE / 4 : -(Long.MAX_VALUE / 4);
+        }
+    }
+
+    private static long mulMod(long x, long y, long m) {
+        if ((x | y) >>> 31 == 0) return x * y % m;
+        return BigInteger.valueOf(x).multiply(BigInteger.valueOf(y)).mod(BigInteger.valueOf(m)).longValue();
+    }
+
+    private static long lcm(long x, long y) {
+        return x / gcd(x, y) * y;
+    }
+
+    // обратный к x по модулю m (x и m взаимно просты); при m = 1 — 0
+    private static long inverse(long x, long m) {
+        if (m == 1) return 0;
+        long a = Math.floorMod(x, m), b = m, u = 1, v = 0;
+        while (b != 0) {
+            long q = a / b;
+            long t = a - q * b; a = b; b = t;
+            t = u - q * v; u = v; v = t;
+        }
+        return Math.floorMod(u, m);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.mathtrainer;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Один общий планировщик тиков для всех таймеров на главном потоке.
+ *
+ * Клиент сам говорит, через сколько мс ему нужен следующий тик (обычно — до ближайшей
+ * границы секунды по монотонным часам), поэтому интервал не «плывёт» на задержку Handler'а.
+ * На главный поток всегда поставлен не больше одного Runnable — на самый ранний срок.
+ */
+final class Ticker {
+
+    interface Client {
+        /** Обновить показания; вернуть мс до следующего нужного тика или отрицательное — больше не нужен. */
+        long onTick();
+    }
+
+    private static Ticker main;
+
+    /** Общий тикер главного потока. */
+    static Ticker main() {
+        if (main == null) main = new Ticker(new Handler(Looper.getMainLooper()));
+        return main;
+    }
+
+    private final Handler handler;
+    private final ArrayList<Client> clients = new ArrayList<>();
+    private long[] dueAt = new long[4]; // SystemClock.uptimeMillis() следующего тика клиента
+    private long scheduledAt = Long.MAX_VALUE;
+
+    private final Runnable dispatch = this::dispatch;
+
+    private Ticker(Handler handler) {
+        this.handler = handler;
+    }
+
+    /** Подключить клиента (или перепланировать уже подключённого) с тиком через {@code delayMs}. */
+    void start(Client client, long delayMs) {
+        long due = SystemClock.uptimeMillis() + Math.max(0L, delayMs);
+        int i = clients.indexOf(client);
+        if (i < 0) {
+            i = clients.size();
+            clients.add(client);
+            if (i == dueAt.length) dueAt = Arrays.copyOf(dueAt, i * 2);
+        }
+        dueAt[i] = due;
+        reschedule();
+    }
+
+    void stop(Client client) {
+        int i = clients.indexOf(client);
+        if (i < 0) return;
+        remove(i);
+        reschedule();
+    }
+
+    private void dispatch() {
+        long started = Instrumentation.start();
+        scheduledAt = Long.MAX_VALUE;
+        long now = SystemClock.uptimeMillis();
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            if (i >= clients.size() || dueAt[i] > now) continue;
+            Client client = clients.get(i);
+            long next = client.onTick();
+            // клиент мог отключить себя или других прямо из onTick
+            int j = clients.indexOf(client);
+            if (j < 0) continue;
+            if (next < 0) remove(j);
+            else dueAt[j] = now + next;
+        }
+        reschedule();
+        Instrumentation.stop(Instrumentation.TICK, started);
+    }
+
+    private void remove(int i) {
+        int last = clients.size() - 1;
+        System.arraycopy(dueAt, i + 1, dueAt, i, last - i);
+        clients.remove(i);
+    }
+
+    private void reschedule() {
+        long earliest = Long.MAX_VALUE;
+        for (int i = 0; i < clients.size(); i++) earliest = Math.min(earliest, dueAt[i]);
+        if (earliest == scheduledAt) return;
+        handler.removeCallbacks(dispatch);
+        scheduledAt = earliest;
+        if (earliest != Long.MAX_VALUE) handler.postAtTime(dispatch, earliest);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.mathtrainer;
+
+import android.content.Context;
+import android.graphics.Matrix;
+import android.graphics.SurfaceTexture;
+import android.media.MediaPlayer;
+import android.net.Uri;
+import android.util.Log;
+import android.view.Surface;
+import android.view.TextureView;
+import android.view.View;
+import android.view.ViewStub;
+import android.widget.Button;
+import android.widget.TextView;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Экран победы поверх уровня (разметка view_win в ViewStub).
+ *
+ * Когда до цели остаётся {@link #PRELOAD_MARGIN} баллов, {@link #prepare} надувает
+ * скрытую разметку и начинает готовить видео: MediaPlayer.prepareAsync читает и
+ * разбирает файл в своём потоке, без поверхности. К победе остаётся показать готовые
+ * view и дать плееру поверхность TextureView. Повтор уровня ({@link #hide}) прячет
+ * экран и перематывает видео — разметка и плеер живут до onDestroy ({@link #release}).
+ */
+final class WinScreen implements TextureView.SurfaceTextureListener {
+
+    /** За сколько баллов до цели готовить экран и видео (несколько ответов). */
+    static final double PRELOAD_MARGIN = 5.0;
+
+    private final ViewStub stub;
+    private final View game;        // контент уровня — скрыт, пока виден экран победы
+    private final String nextLabel;
+    private final Runnable onNext;
+
+    private View root;              // null — ещё не надут
+    private TextureView video;
+    private TextView titleTv, timeTv, scoreTv, recordsTv;
+
+    private MediaPlayer player;     // null — видео недоступно или уже освобождено
+    private Surface surface;
+    private boolean prepared;
+    private boolean completed;      // досмотрено — на onResume заново не запускать
+    private boolean showing;
+    private int videoWidth, videoHeight;
+
+    WinScreen(ViewStub stub, View game, String nextLabel, Runnable onNext) {
+        this.stub = stub;
+        this.game = game;
+        this.nextLabel = nextLabel;
+        this.onNext = onNext;
+    }
+
+    /** Надуть разметку и начать готовить видео; повторные вызовы ничего не делают. */
+    void prepare(Context context, Uri videoUri) {
+        if (root != null) return;
+        root = stub.inflate();
+        video     = root.findViewById(R.id.winVideo);
+        titleTv   = root.findViewById(R.id.winTitle);
+        timeTv    = root.findViewById(R.id.winTime);
+        scoreTv   = root.findViewById(R.id.winScore);
+        recordsTv = root.findViewById(R.id.winRecords);
+        Button next = root.findViewById(R.id.winNext);
+        next.setText(nextLabel);
+        next.setOnClickListener(v -> onNext.run());
+        video.setSurfaceTextureListener(this);
+
+        player = new MediaPlayer();
+        player.setOnPreparedListener(mp -> {
+            prepared = true;
+            play();
+        });
+        player.setOnVideoSizeChangedListener((mp, w, h) -> {
+            videoWidth = w;
+            videoHeight = h;
+            fit();
+        });
+        player.setOnCompletionListener(mp -> completed = true); // остаёмся на экране
+        try {
+            player.setDataSource(context, videoUri);
+            player.prepareAsync();
+        } catch (IOException e) {
+            Log.w("WinScreen", "Видео победы недоступно", e);
+            player.release();
+            player = null;
+        }
+    }
+
+    /** Показать экран с итогами уровня; если он ещё не готов — подготовить сейчас. */
+    void show(Context context, Uri videoUri, String title, String time, String score, String records) {
+        prepare(context, videoUri);
+        titleTv.setText(title);
+        timeTv.setText(time);
+        scoreTv.setText(score);
+        recordsTv.setText(records);
+        game.setVisibility(View.GONE);
+        root.setVisibility(View.VISIBLE);
+        showing = true;
+        play();
+    }
+
+    /** Вернуть уровень: экран скрыт, видео на начале — к следующей победе готово. */
+    void hide() {
+        showing = false;
+        completed = false;
+        if (root == null) return;
+        root.setVisibility(View.GONE);
+        game.setVisibility(View.VISIBLE);
+        if (player != null && prepared) {
+            player.pause();
+            player.seekTo(0);
+        }
+    }
+
+    boolean isShowing() { return showing; }
+
+    void pause() {
+        if (player != null && prepared && player.isPlaying()) player.pause();
+    }
+
+    void resume() {
+        play();
+    }
+
+    void release() {
+        if (player != null) {
+            player.release();
+            player = null;
+        }
+        if (surface != null) {
+            surface.release();
+            surface = null;
+        }
+    }
+
+    /** Таблица рекордов для экрана: место, время, баллы, дата; {@code rank} — новое прохождение. */
+    static String recordsText(Leaderboard.Table table, int rank) {
+        Locale locale = Locale.getDefault();
+        DateFormat date = DateFormat.getDateInstance(DateFormat.SHORT, locale);
+        StringBuilder sb = new StringBuilder("Рекорды:");
+        for (int i = 0; i < table.size(); i++) {
+            long sec = table.durationMs(i) / 1000L;
+            sb.append(String.format(locale, "\n%2d. %02d:%02d  %.3f  ", i + 1, sec / 60, sec % 60, table.score(i)))
+              .append(date.format(new Date(table.dateMs(i))));
+            if (i == rank) sb.append("  ← сейчас");
+        }
+        if (rank < 0) sb.append("\nЭто прохождение в таблицу не попало");
+        return sb.toString();
+    }
+
+    // играть, когда сошлось всё: экран виден, плеер готов, поверхность есть
+    private void play() {
+        if (showing && !completed && prepared && surface != null && player != null && !player.isPlaying()) {
+            player.start();
+        }
+    }
+
+    // вписать видео в TextureView с сохранением пропорций (по центру)
+    private void fit() {
+        int w = video.getWidth();
+        int h = video.getHeight();
+        if (videoWidth == 0 || videoHeight == 0 || w == 0 || h == 0) return;
+        float scale = Math.min((float) w / videoWidth, (float) h / videoHeight);
+        Matrix m = new Matrix();
+        m.setScale(videoWidth * scale / w, videoHeight * scale / h, w / 2f, h / 2f);
+        video.setTransform(m);
+    }
+
+    // ---------- Поверхность TextureView: есть, только пока экран виден ----------
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture texture, int width, int height) {
+        surface = new Surface(texture);
+        if (player != null) player.setSurface(surface);
+        fit();
+        play();
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture texture, int width, int height) {
+        fit();
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture texture) {
+        if (player != null) player.setSurface(null);
+        if (surface != null) {
+            surface.release();
+            surface = null;
+        }
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture texture) {}
+}
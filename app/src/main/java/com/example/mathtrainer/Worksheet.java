@@ -0,0 +1,172 @@
+package com.example.mathtrainer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Лист заданий на N задач выбранных типов любых уровней {@link LevelRegistry}: CSV,
+ * текст (вопросы и отдельно ключ ответов) или JSON.
+ *
+ * Задачи режутся на блоки по {@link #CHUNK}; каждый блок генерирует и кодирует в байты
+ * пул fork/join со своим {@link TaskRandom#split()}, а вызывающий поток пишет готовые
+ * блоки в канал строго по порядку. В памяти не больше 2 × parallelism блоков.
+ * Результат зависит только от seed, а не от числа потоков. Поэтому ключ ответов
+ * ({@link Format#TEXT_KEY}) с тем же seed совпадает с листом {@link Format#TEXT}.
+ */
+public final class Worksheet {
+
+    public enum Format { CSV, TEXT, TEXT_KEY, JSON }
+
+    /** Задач в одном блоке (единица параллельной работы и записи). */
+    public static final int CHUNK = 4096;
+
+    private final TaskCatalog[] ints;
+    private final DecimalTaskCatalog[] decimals;
+
+    /**
+     * {@code typesByLevel[l - 1]} — выбранные типы уровня l из {@link LevelRegistry}
+     * (пустой массив — уровень не нужен); выбранные типы равновероятны.
+     */
+    public Worksheet(int[]... typesByLevel) {
+        LevelRegistry registry = LevelRegistry.get();
+        if (typesByLevel.length > registry.size()) {
+            throw new IllegalArgumentException("Уровней " + registry.size() + ", выбрано " + typesByLevel.length);
+        }
+        List<TaskCatalog> ints = new ArrayList<>();
+        List<DecimalTaskCatalog> decimals = new ArrayList<>();
+        for (int l = 1; l <= typesByLevel.length; l++) {
+            boolean decimal = registry.level(l).scale() == 1;
+            for (int type : typesByLevel[l - 1]) {
+                if (decimal) decimals.add(DecimalTaskCatalog.forType(l, type));
+                else ints.add(TaskCatalog.forType(l, type));
+            }
+        }
+        if (ints.isEmpty() && decimals.isEmpty()) throw new IllegalArgumentException("Не выбран ни один тип задач");
+        this.ints = ints.toArray(new TaskCatalog[0]);
+        this.decimals = decimals.toArray(new DecimalTaskCatalog[0]);
+    }
+
+    /** Все типы всех уровней. */
+    public static Worksheet allTypes() {
+        LevelRegistry registry = LevelRegistry.get();
+        int[][] types = new int[registry.size()][];
+        for (int l = 1; l <= types.length; l++) {
+            types[l - 1] = new int[registry.level(l).types()];
+            for (int t = 0; t < types[l - 1].length; t++) types[l - 1][t] = t;
+        }
+        return new Worksheet(types);
+    }
+
+    // ---------- Запись ----------
+
+    /** Записать лист в {@code file} (создаётся или перезаписывается). */
+    public long write(File file, Format format, long count, long seed) throws IOException {
+        try (FileChannel out = new FileOutputStream(file).getChannel()) {
+            return write(out, format, count, seed, ForkJoinPool.commonPool());
+        }
+    }
+
+    /** Записать {@code count} задач в {@code out}; возвращает число записанных байт. Канал не закрывается. */
+    public long write(WritableByteChannel out, Format format, long count, long seed, ForkJoinPool pool)
+            throws IOException {
+        if (count < 0) throw new IllegalArgumentException("Отрицательное число задач: " + count);
+        TaskRandom root = TaskRandom.seeded(seed);
+        int window = 2 * pool.getParallelism();
+        ArrayDeque<ForkJoinTask<ByteBuffer>> inFlight = new ArrayDeque<>(window);
+        long bytes = writeFully(out, header(format));
+        try {
+            for (long first = 0; first < count; first += CHUNK) {
+                if (inFlight.size() == window) bytes += writeFully(out, inFlight.poll().join());
+                TaskRandom rnd = root.split(); // по порядку блоков — детерминированно
+                long from = first;
+                int n = (int) Math.min(CHUNK, count - first);
+                inFlight.add(pool.submit(() -> encode(rnd, from, n, format)));
+            }
+            while (!inFlight.isEmpty()) bytes += writeFully(out, inFlight.poll().join());
+        } finally {
+            for (ForkJoinTask<ByteBuffer> t : inFlight) t.cancel(false);
+        }
+        return bytes + writeFully(out, footer(format));
+    }
+
+    private static long writeFully(WritableByteChannel out, ByteBuffer buf) throws IOException {
+        int n = buf.remaining();
+        while (buf.hasRemaining()) out.write(buf);
+        return n;
+    }
+
+    // ---------- Кодирование блока ----------
+
+    private ByteBuffer encode(TaskRandom rnd, long first, int n, Format format) {
+        StringBuilder sb = new StringBuilder(n * 32);
+        int slots = ints.length + decimals.length;
+        for (int i = 0; i < n; i++) {
+            long number = first + i + 1;
+            int slot = slots == 1 ? 0 : rnd.nextInt(slots);
+            String text;
+            int answer;        // целое или десятые
+            boolean tenths;
+            if (slot < ints.length) {
+                Task t = ints[slot].random(rnd);
+                text = t.getText();
+                answer = t.getAnswer();
+                tenths = false;
+            } else {
+                DecimalTask t = decimals[slot - ints.length].random(rnd);
+                text = t.getText();
+                answer = t.getAnswerTenths();
+                tenths = true;
+            }
+            switch (format) {
+                case CSV:
+                    sb.append(number).append(',').append(text).append(',');
+                    appendAnswer(sb, answer, tenths).append('\n');
+                    break;
+                case TEXT:
+                    sb.append(number).append(". ").append(text).append('\n');
+                    break;
+                case TEXT_KEY:
+                    sb.append(number).append(". ");
+                    appendAnswer(sb, answer, tenths).append('\n');
+                    break;
+                case JSON:
+                    sb.append(number == 1 ? "\n" : ",\n");
+                    sb.append("{\"n\":").append(number).append(",\"q\":\"").append(text).append("\",\"a\":");
+                    appendAnswer(sb, answer, tenths).append('}');
+                    break;
+            }
+        }
+        return StandardCharsets.UTF_8.encode(CharBuffer.wrap(sb));
+    }
+
+    private static StringBuilder appendAnswer(StringBuilder sb, int answer, boolean tenths) {
+        return tenths ? DecimalTask.appendTenths(sb, answer) : sb.append(answer);
+    }
+
+    private static ByteBuffer header(Format format) {
+        switch (format) {
+            case CSV:  return ascii("n,question,answer\n");
+            case JSON: return ascii("[");
+            default:   return ByteBuffer.allocate(0);
+        }
+    }
+
+    private static ByteBuffer footer(Format format) {
+        return format == Format.JSON ? ascii("\n]\n") : ByteBuffer.allocate(0);
+    }
+
+    private static ByteBuffer ascii(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+public class AnswerCheckerTest {
+
+    @Test
+    public void parseInt_matchesIntegerParseInt() {
+        String[] inputs = {"0", "42", " 42 ", "-7", "+7", "007", "2147483647", "-2147483648"};
+        for (String raw : inputs) {
+            assertEquals(raw, Integer.parseInt(raw.trim()), AnswerChecker.parseInt(raw));
+        }
+    }
+
+    @Test
+    public void parseInt_rejectsWhatIntegerParseIntRejects() {
+        String[] inputs = {"", "-", "+", "1.5", "4 2", "abc", "2147483648", "-2147483649", "99999999999999999999"};
+        for (String raw : inputs) {
+            assertEquals(raw, AnswerChecker.NOT_AN_INT, AnswerChecker.parseInt(raw));
+        }
+    }
+
+    @Test
+    public void checkInt_results() {
+        Task task = new Task(7, 8, '*');
+        assertEquals(AnswerChecker.Result.EMPTY, AnswerChecker.checkInt("  ", task));
+        assertEquals(AnswerChecker.Result.NOT_A_NUMBER, AnswerChecker.checkInt("5б", task));
+        assertEquals(AnswerChecker.Result.WRONG, AnswerChecker.checkInt("54", task));
+        assertEquals(AnswerChecker.Result.CORRECT, AnswerChecker.checkInt(" 56", task));
+        assertEquals(AnswerChecker.Result.WRONG, AnswerChecker.checkInt("56", null));
+    }
+
+    @Test
+    public void checkDecimal_results() {
+        DecimalTask task = new DecimalTask(new BigDecimal("2.5"), new BigDecimal("1.2"), '+');
+        assertEquals(AnswerChecker.Result.EMPTY, AnswerChecker.checkDecimal("", task));
+        assertEquals(AnswerChecker.Result.NOT_A_NUMBER, AnswerChecker.checkDecimal("3,7,", task));
+        assertEquals(AnswerChecker.Result.NOT_POSITIVE, AnswerChecker.checkDecimal("-3.7", task));
+        assertEquals(AnswerChecker.Result.NOT_POSITIVE, AnswerChecker.checkDecimal("0,04", task));
+        assertEquals(AnswerChecker.Result.WRONG, AnswerChecker.checkDecimal("3.6", task));
+        assertEquals(AnswerChecker.Result.CORRECT, AnswerChecker.checkDecimal("3,7", task));
+        assertEquals(AnswerChecker.Result.CORRECT, AnswerChecker.checkDecimal("3.66", task));
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Полный перебор ключа ответов: каждая задача, которую могут выдать генераторы
+ * (= каждая запись каталогов, см. TaskCatalogTest/DecimalTaskCatalogTest),
+ * сверяется с независимым оракулом. Оракул разбирает текст вопроса, а не поля
+ * каталога, и считает в целых десятых. Отдельно перебирается всё пространство
+ * операндов из описания уровней: каталог типа должен совпадать с допустимыми
+ * задачами ровно. Перебор идёт параллельно по глобальным id.
+ */
+public class AnswerKeyTest {
+
+    private static final int NOT_EXACT = Integer.MIN_VALUE;
+    /** Граница ответа уровня 2 (result 0.1..9.9 в levels.conf) в десятых. */
+    private static final int MAX_TENTHS = 99;
+
+    // ---------- Уровень 1 ----------
+
+    @Test
+    public void integers_matchOracleAndRanges() {
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        IntStream.range(0, TaskCatalog.totalSize()).parallel().forEach(id -> {
+            TaskCatalog c = TaskCatalog.forId(id);
+            Task t = c.task(id - c.idBase());
+            String text = t.getText();
+            int oracle = oracleTenths(text);
+            if (oracle == NOT_EXACT || oracle % 10 != 0 || oracle / 10 != t.getAnswer()) {
+                failures.add(text + " → " + t.getAnswer() + ", оракул " + oracle);
+                return;
+            }
+            int answer = t.getAnswer();
+            boolean inRange;
+            switch (c.type()) {
+                case 0:  inRange = answer >= 4 && answer <= 81; break;
+                case 1:  inRange = answer >= 20 && answer <= 891; break;
+                default: inRange = answer >= 0 && answer <= 198;
+            }
+            if (!inRange) failures.add(text + " → " + answer + " вне диапазона типа " + c.type());
+            if (AnswerChecker.checkInt(String.valueOf(answer), t) != AnswerChecker.Result.CORRECT
+                    || AnswerChecker.checkInt(String.valueOf(answer + 1), t) != AnswerChecker.Result.WRONG) {
+                failures.add(text + ": проверка ответа " + answer);
+            }
+        });
+        assertNoFailures(failures);
+    }
+
+    @Test
+    public void integers_catalogEqualsSpecSpace() {
+        Set<String> table = new HashSet<>(), twoDigit = new HashSet<>(), addSub = new HashSet<>();
+        for (int x = 2; x <= 99; x++) {
+            for (int y = 1; y <= 99; y++) {
+                if (x <= 9 && y >= 2 && y <= 9) table.add(x + " * " + y + " = ?");
+                if (x >= 10 && y >= 2 && y <= 9) twoDigit.add(x + " * " + y + " = ?");
+                if (x >= 10 && y <= x) {
+                    addSub.add(x + " + " + y + " = ?");
+                    addSub.add(x + " - " + y + " = ?");
+                }
+            }
+        }
+        assertEquals(table, texts(TaskCatalog.forType(0)));
+        assertEquals(twoDigit, texts(TaskCatalog.forType(1)));
+        assertEquals(addSub, texts(TaskCatalog.forType(2)));
+    }
+
+    // ---------- Уровень 2 ----------
+
+    @Test
+    public void decimals_matchOracleScaleAndRange() {
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        IntStream.range(0, DecimalTaskCatalog.totalSize()).parallel().forEach(id -> {
+            DecimalTaskCatalog c = DecimalTaskCatalog.forId(id);
+            DecimalTask t = c.task(id - c.idBase());
+            String text = t.getText();
+            int oracle = oracleTenths(text);
+            BigDecimal answer = t.getAnswer();
+            if (oracle == NOT_EXACT) {
+                failures.add(text + ": ответ не укладывается в десятые");
+            } else if (oracle != t.getAnswerTenths()
+                    || answer.scale() != 1 || answer.unscaledValue().intValueExact() != oracle) {
+                failures.add(text + " → " + answer + ", оракул " + oracle);
+            } else if (oracle <= 0 || oracle > MAX_TENTHS) {
+                failures.add(text + " → " + answer + " вне (0, 9.9]");
+            }
+            String key = answer.toPlainString();
+            if (AnswerChecker.checkDecimal(key, t) != AnswerChecker.Result.CORRECT
+                    || AnswerChecker.checkDecimal(key.replace('.', ','), t) != AnswerChecker.Result.CORRECT
+                    || AnswerChecker.checkDecimal(answer.add(BigDecimal.ONE.movePointLeft(1)).toPlainString(), t)
+                            != AnswerChecker.Result.WRONG) {
+                failures.add(text + ": проверка ответа " + key);
+            }
+        });
+        assertNoFailures(failures);
+    }
+
+    @Test
+    public void decimals_catalogEqualsSpecSpace() {
+        // пространство операндов из описания DecimalTask, отбор — по оракулу
+        Set<String> decDec = ConcurrentHashMap.newKeySet(), intDec = ConcurrentHashMap.newKeySet();
+        Set<String> mul = ConcurrentHashMap.newKeySet(), div = ConcurrentHashMap.newKeySet();
+        IntStream.rangeClosed(1, 99).parallel().forEach(x -> {
+            for (int y = 1; y <= 99; y++) {
+                addIfValid(decDec, tenths(x) + " + " + tenths(y) + " = ?");
+                addIfValid(decDec, tenths(x) + " - " + tenths(y) + " = ?");
+                if (x <= 9) {
+                    addIfValid(intDec, x + " + " + tenths(y) + " = ?");
+                    addIfValid(intDec, x + " - " + tenths(y) + " = ?");
+                }
+            }
+            for (int k = 1; k <= 9; k++) {
+                addIfValid(mul, tenths(x) + " × " + k + " = ?");
+                addIfValid(div, tenths(x) + " ÷ " + k + " = ?");
+            }
+        });
+        for (int y = 1; y <= 99; y++) addIfValid(intDec, "0 + " + tenths(y) + " = ?");
+        assertEquals(decDec, texts(DecimalTaskCatalog.forType(0)));
+        assertEquals(intDec, texts(DecimalTaskCatalog.forType(1)));
+        assertEquals(mul, texts(DecimalTaskCatalog.forType(2)));
+        assertEquals(div, texts(DecimalTaskCatalog.forType(3)));
+    }
+
+    private static void addIfValid(Set<String> set, String text) {
+        int r = oracleTenths(text);
+        if (r != NOT_EXACT && r > 0 && r <= MAX_TENTHS) set.add(text);
+    }
+
+    // ---------- Оракул ----------
+
+    /** Ответ на «X op Y = ?» в десятых по разбору текста; {@link #NOT_EXACT}, если не точен. */
+    static int oracleTenths(String text) {
+        String[] p = text.split(" ");
+        if (p.length != 5 || !p[3].equals("=") || !p[4].equals("?")) throw new AssertionError("Текст: " + text);
+        long x = parseTenths(p[0]);
+        long y = parseTenths(p[2]);
+        long r; // десятые
+        switch (p[1]) {
+            case "+": r = x + y; break;
+            case "-": r = x - y; break;
+            case "*":
+            case "×": {
+                long hundredths = x * y;
+                if (hundredths % 10 != 0) return NOT_EXACT;
+                r = hundredths / 10;
+                break;
+            }
+            case "÷": {
+                if (y == 0 || (x * 10) % y != 0) return NOT_EXACT;
+                r = x * 10 / y;
+                break;
+            }
+            default: throw new AssertionError("Операция: " + text);
+        }
+        return Math.toIntExact(r);
+    }
+
+    private static long parseTenths(String s) {
+        int dot = s.indexOf('.');
+        if (dot < 0) return Long.parseLong(s) * 10;
+        if (dot != s.length() - 2 || s.charAt(dot + 1) == '0') throw new AssertionError("Число: " + s);
+        return Long.parseLong(s.substring(0, dot)) * 10 + (s.charAt(dot + 1) - '0');
+    }
+
+    /** Запись числа из десятых так, как её показывает приложение: «5», «5.4», «0.6». */
+    private static String tenths(int t) {
+        return t % 10 == 0 ? String.valueOf(t / 10) : (t / 10) + "." + (t % 10);
+    }
+
+    // ---------- Вспомогательное ----------
+
+    private static Set<String> texts(TaskCatalog c) {
+        Set<String> res = new HashSet<>();
+        for (int i = 0; i < c.size(); i++) assertTrue("повтор " + c.text(i), res.add(c.text(i)));
+        return res;
+    }
+
+    private static Set<String> texts(DecimalTaskCatalog c) {
+        Set<String> res = new HashSet<>();
+        for (int i = 0; i < c.size(); i++) {
+            assertTrue("повтор " + c.task(i).getText(), res.add(c.task(i).getText()));
+        }
+        return res;
+    }
+
+    private static void assertNoFailures(Collection<String> failures) {
+        if (failures.isEmpty()) return;
+        StringBuilder sb = new StringBuilder(failures.size() + " нарушений:");
+        failures.stream().limit(20).forEach(f -> sb.append("\n  ").append(f));
+        fail(sb.toString());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.mathtrainer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class AtomicFilesTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void write_createsDirsAndReplacesWholeFile() throws IOException {
+        File f = new File(tmp.getRoot(), "profile/state.bin");
+        AtomicFiles.write(f, new byte[] {1, 2, 3, 4});
+        AtomicFiles.write(f, new byte[] {5});
+        assertArrayEquals(new byte[] {5}, Files.readAllBytes(f.toPath()));
+        assertFalse(new File(f.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void write_failureKeepsOldFile() throws IOException {
+        File f = tmp.newFile("state.bin");
+        Files.write(f.toPath(), new byte[] {7});
+        assertTrue(new File(f.getPath() + ".tmp").mkdir()); // временный файл не создать
+        AtomicFiles.write(f, new byte[] {8});
+        assertArrayEquals(new byte[] {7}, Files.readAllBytes(f.toPath()));
+    }
+}
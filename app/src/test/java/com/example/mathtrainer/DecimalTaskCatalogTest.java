@@ -0,0 +1,210 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Точное сравнение распределений: перебираем все исходы вызовов генератора
+ * (каждый nextInt(bound) — ветвление с вероятностью 1/bound) для прежних
+ * генераторов с отбраковкой и для таблиц {@link DecimalTaskCatalog}.
+ */
+public class DecimalTaskCatalogTest {
+
+    private static final double EPS = 1e-12;
+
+    @Test
+    public void decDec_matchesLegacyDistribution() {
+        assertSameDistribution(legacy(DecimalTaskCatalogTest::legacyDecDec), catalog(0));
+    }
+
+    @Test
+    public void intDec_matchesLegacyDistribution() {
+        assertSameDistribution(legacy(DecimalTaskCatalogTest::legacyIntDec), catalog(1));
+    }
+
+    @Test
+    public void mul_matchesLegacyDistribution() {
+        assertSameDistribution(legacy(DecimalTaskCatalogTest::legacyMul), catalog(2));
+    }
+
+    @Test
+    public void div_matchesLegacyDistribution() {
+        assertSameDistribution(legacy(DecimalTaskCatalogTest::legacyDiv), catalog(3));
+    }
+
+    @Test
+    public void tasks_matchTableOperands() {
+        for (int t = 0; t < DecimalTaskCatalog.TYPES; t++) {
+            DecimalTaskCatalog c = DecimalTaskCatalog.forType(t);
+            for (int i = 0; i < c.size(); i++) {
+                DecimalTask task = c.task(i);
+                String expected = legacyText(c.a(i), c.b(i), c.op(i));
+                assertEquals(expected, task.getText());
+                assertTrue(task.getAnswer().signum() > 0);
+            }
+        }
+    }
+
+    @Test
+    public void randomExcept_neverRepeats() {
+        TaskRandom rnd = TaskRandom.seeded(7);
+        for (int t = 0; t < DecimalTaskCatalog.TYPES; t++) {
+            DecimalTaskCatalog c = DecimalTaskCatalog.forType(t);
+            DecimalTask last = c.random(rnd);
+            for (int i = 0; i < 20_000; i++) {
+                DecimalTask next = c.randomExcept(rnd, last);
+                assertNotSame(last, next);
+                last = next;
+            }
+        }
+    }
+
+    // ---------- Распределения ----------
+
+    private static Map<String, Double> catalog(int type) {
+        DecimalTaskCatalog c = DecimalTaskCatalog.forType(type);
+        return enumerate(rnd -> {
+            int i = c.randomIndex(rnd);
+            return key(c.a(i), c.b(i), c.op(i));
+        });
+    }
+
+    /** Одна попытка цикла отбраковки, условная на успех (fallback после 10 000 попыток недостижим). */
+    private static Map<String, Double> legacy(Function<PathRandom, String> attempt) {
+        Map<String, Double> raw = enumerate(attempt);
+        double accepted = 0;
+        for (double p : raw.values()) accepted += p;
+        Map<String, Double> res = new HashMap<>();
+        for (Map.Entry<String, Double> e : raw.entrySet()) res.put(e.getKey(), e.getValue() / accepted);
+        return res;
+    }
+
+    private static void assertSameDistribution(Map<String, Double> expected, Map<String, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, Double> e : expected.entrySet()) {
+            assertEquals(e.getKey(), e.getValue(), actual.get(e.getKey()), EPS);
+        }
+    }
+
+    /** Перебор всех путей исполнения sampler'а; null — отбракованная попытка. */
+    private static Map<String, Double> enumerate(Function<PathRandom, String> sampler) {
+        Map<String, Double> dist = new HashMap<>();
+        PathRandom rnd = new PathRandom();
+        do {
+            rnd.rewind();
+            String key = sampler.apply(rnd);
+            if (key != null) dist.merge(key, rnd.probability(), Double::sum);
+        } while (rnd.advance());
+        return dist;
+    }
+
+    // прежние генераторы звали Random.nextBoolean — здесь это та же развилка nextInt(2)
+    private static final class PathRandom implements TaskRandom {
+        private final List<int[]> path = new ArrayList<>(); // {выбор, bound}
+        private int pos;
+
+        void rewind() { pos = 0; }
+
+        @Override public int nextInt(int bound) {
+            if (pos == path.size()) path.add(new int[]{0, bound});
+            return path.get(pos++)[0];
+        }
+
+        boolean nextBoolean() { return nextInt(2) == 1; }
+
+        @Override public TaskRandom split() { throw new UnsupportedOperationException(); }
+
+        double probability() {
+            double p = 1.0;
+            for (int i = 0; i < pos; i++) p /= path.get(i)[1];
+            return p;
+        }
+
+        boolean advance() {
+            while (path.size() > pos) path.remove(path.size() - 1);
+            while (!path.isEmpty()) {
+                int[] last = path.get(path.size() - 1);
+                if (++last[0] < last[1]) return true;
+                path.remove(path.size() - 1);
+            }
+            return false;
+        }
+    }
+
+    // ---------- Прежние генераторы (одна итерация цикла) ----------
+
+    private static final BigDecimal MAX = BigDecimal.valueOf(9.9);
+
+    private static String legacyDecDec(PathRandom rnd) {
+        BigDecimal a = randTenth(rnd, 1, 99);
+        BigDecimal b = randTenth(rnd, 1, 99);
+        char op = rnd.nextBoolean() ? '+' : '-';
+        BigDecimal res = (op == '+') ? a.add(b) : a.subtract(b);
+        return inRange(res) ? key(a, b, op) : null;
+    }
+
+    private static String legacyIntDec(PathRandom rnd) {
+        BigDecimal i = BigDecimal.valueOf(rnd.nextInt(10));
+        BigDecimal d = randTenth(rnd, 1, 99);
+        char op = rnd.nextBoolean() ? '+' : '-';
+        BigDecimal res = (op == '+') ? i.add(d) : i.subtract(d);
+        return inRange(res) ? key(i, d, op) : null;
+    }
+
+    private static String legacyMul(PathRandom rnd) {
+        int k = 1 + rnd.nextInt(9);
+        int maxN = 99 / k;
+        if (maxN < 1) return null;
+        int n = 1 + rnd.nextInt(maxN);
+        BigDecimal a = BigDecimal.valueOf(n).divide(BigDecimal.TEN);
+        BigDecimal res = a.multiply(BigDecimal.valueOf(k));
+        return inRange(res) ? key(a, BigDecimal.valueOf(k), '×') : null;
+    }
+
+    private static String legacyDiv(PathRandom rnd) {
+        int k = 1 + rnd.nextInt(9);
+        BigDecimal r = randTenth(rnd, 1, 99);
+        BigDecimal a = r.multiply(BigDecimal.valueOf(k));
+        return a.compareTo(MAX) <= 0 ? key(a, BigDecimal.valueOf(k), '÷') : null;
+    }
+
+    private static BigDecimal randTenth(PathRandom rnd, int nMin, int nMaxInclusive) {
+        int n = nMin + rnd.nextInt(nMaxInclusive - nMin + 1);
+        return BigDecimal.valueOf(n).divide(BigDecimal.TEN);
+    }
+
+    private static boolean inRange(BigDecimal res) {
+        return res.compareTo(BigDecimal.ZERO) > 0 && res.compareTo(MAX) <= 0;
+    }
+
+    private static String key(BigDecimal a, BigDecimal b, char op) {
+        return key(tenths(a), tenths(b), op);
+    }
+
+    private static String key(int a, int b, char op) {
+        return a + " " + op + " " + b;
+    }
+
+    private static int tenths(BigDecimal x) {
+        return x.setScale(1, RoundingMode.UNNECESSARY).unscaledValue().intValueExact();
+    }
+
+    private static String legacyText(int a, int b, char op) {
+        return legacyFmt(BigDecimal.valueOf(a, 1)) + " " + op + " " + legacyFmt(BigDecimal.valueOf(b, 1)) + " = ?";
+    }
+
+    private static String legacyFmt(BigDecimal x) {
+        BigDecimal z = x.stripTrailingZeros();
+        if (z.scale() <= 0) return z.toPlainString();
+        return x.setScale(1, RoundingMode.UNNECESSARY).toPlainString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.Assert.*;
+
+public class DecimalTaskTest {
+
+    @Test
+    public void answerTenths_matchesBigDecimalArithmetic() {
+        for (int t = 0; t < DecimalTaskCatalog.TYPES; t++) {
+            DecimalTaskCatalog c = DecimalTaskCatalog.forType(t);
+            for (int i = 0; i < c.size(); i++) {
+                BigDecimal a = BigDecimal.valueOf(c.a(i), 1);
+                BigDecimal b = BigDecimal.valueOf(c.b(i), 1);
+                BigDecimal expected;
+                switch (c.op(i)) {
+                    case '+': expected = a.add(b); break;
+                    case '-': expected = a.subtract(b); break;
+                    case '×': expected = a.multiply(BigDecimal.valueOf(b.intValue())); break;
+                    default:  expected = a.divide(BigDecimal.valueOf(b.intValue()), 1, RoundingMode.UNNECESSARY);
+                }
+                assertEquals(0, expected.compareTo(c.task(i).getAnswer()));
+                assertEquals(1, c.task(i).getAnswer().scale());
+            }
+        }
+    }
+
+    @Test
+    public void bigDecimalConstructor_keepsPublicApi() {
+        DecimalTask t = new DecimalTask(new BigDecimal("4.5"), BigDecimal.valueOf(3), '÷');
+        assertEquals("4.5 ÷ 3 = ?", t.getText());
+        assertEquals(new BigDecimal("1.5"), t.getAnswer());
+        assertEquals(-1, t.getId());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void inexactDivision_throwsLikeUnnecessaryRounding() {
+        new DecimalTask(new BigDecimal("1.0"), BigDecimal.valueOf(3), '÷').getAnswerTenths();
+    }
+
+    @Test
+    public void parseTenths_matchesHalfUpScale() {
+        String[] inputs = {"5", "5.4", "5,4", "0.6", ".6", "6.", "  7.25 ", "7.249", "7.2500",
+                "-1.25", "+3", "0", "0.04", "0.05", "9.95", "12,999", "007.1"};
+        for (String raw : inputs) {
+            BigDecimal expected = new BigDecimal(raw.trim().replace(',', '.')).setScale(1, RoundingMode.HALF_UP);
+            assertEquals(raw, expected.unscaledValue().intValueExact(), DecimalTask.parseTenths(raw));
+        }
+    }
+
+    @Test
+    public void parseTenths_rejectsNonNumbers() {
+        String[] inputs = {"", " ", ".", "-", "1.2.3", "1,2.3", "abc", "1a", "--1"};
+        for (String raw : inputs) {
+            assertEquals(raw, DecimalTask.NOT_A_NUMBER, DecimalTask.parseTenths(raw));
+        }
+    }
+
+    @Test
+    public void parseTenths_saturatesHugeInput() {
+        assertTrue(DecimalTask.parseTenths("123456789012345678901234567890") > 99);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.mathtrainer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EventLogTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private File file;
+    private EventLog log;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(tmp.getRoot(), "events.bin");
+        // писатель, которого тест «прокручивает» вручную
+        log = new EventLog(file, queued::add, () -> 42L);
+    }
+
+    private void runWriter() {
+        for (Runnable r : queued) r.run();
+        queued.clear();
+    }
+
+    @Test
+    public void expressionTask_keysByIdAndKeepsOperands() throws IOException {
+        TaskCatalog catalog = TaskCatalog.forType(4, 3); // (a - b) × c
+        Task t = catalog.task(11);
+        assertEquals(Task.EXPRESSION, t.getOp());
+        assertEquals(catalog.a(11), t.getA());
+        assertEquals(catalog.b(11), t.getB());
+        assertEquals(catalog.c(11), t.getC());
+        log.append(4, t, 3_000, 0, 1.0);
+        log.flush();
+        runWriter();
+
+        try (EventLog.Cursor c = EventLog.Cursor.open(file)) {
+            assertTrue(c.next());
+            assertEquals(4, c.level());
+            assertEquals(3, c.type());
+            assertEquals(Task.EXPRESSION, c.op());
+            assertEquals(t.getA(), c.a());
+            assertEquals(t.getB(), c.b());
+            TaskCatalog found = TaskCatalog.forId(c.level(), c.taskId());
+            Task back = found.task(c.taskId() - found.idBase());
+            assertSame(t, back);
+            assertEquals(t.getC(), back.getC());
+        }
+    }
+
+    @Test
+    public void appendAndReplay_roundTripsEveryField() throws IOException {
+        Task t = TaskCatalog.forType(2).task(5);
+        DecimalTask d = DecimalTaskCatalog.forType(3).task(7);
+        log.append(t, 75_500, 2, GameSession.pointsFor(75));
+        log.append(d, 1_200, 0, 1.0);
+        log.flush();
+        runWriter();
+
+        try (EventLog.Cursor c = EventLog.Cursor.open(file)) {
+            assertTrue(c.next());
+            assertEquals(42L, c.timeMs());
+            assertEquals(1, c.level());
+            assertEquals(2, c.type());
+            assertEquals(t.getId(), c.taskId());
+            assertEquals(t.getA(), c.a());
+            assertEquals(t.getB(), c.b());
+            assertEquals(t.getOp(), c.op());
+            assertEquals(75_500, c.latencyMs());
+            assertEquals(2, c.wrongAttempts());
+            assertEquals(15, c.penaltySec());
+            assertEquals(750, c.pointsMilli());
+
+            assertTrue(c.next());
+            assertEquals(2, c.level());
+            assertEquals(3, c.type());
+            assertEquals(d.getATenths(), c.a());
+            assertEquals(d.getBTenths(), c.b());
+            assertEquals('÷', c.op());
+            assertEquals(1000, c.pointsMilli());
+            assertFalse(c.next());
+        }
+    }
+
+    @Test
+    public void writesOnlyWholeBatchesUntilFlush() throws IOException {
+        Task t = Task.random();
+        for (int i = 0; i < EventLog.BATCH - 1; i++) log.append(t, i, 0, 1.0);
+        assertTrue(queued.isEmpty());
+        log.append(t, 0, 0, 1.0);
+        assertEquals(1, queued.size());
+        runWriter();
+
+        for (int i = 0; i < 10; i++) log.append(t, i, 0, 1.0);
+        log.flush();
+        log.flush(); // пустой буфер — ничего не делает
+        assertEquals(1, queued.size());
+        runWriter();
+
+        assertNull(log.lastError());
+        assertEquals(EventLog.BATCH + 10, count(file));
+        assertEquals(EventLog.HEADER_SIZE + (EventLog.BATCH + 10) * EventLog.RECORD_SIZE, file.length());
+    }
+
+    @Test
+    public void brokenTail_isSkippedAndOverwritten() throws IOException {
+        Task t = Task.random();
+        log.append(t, 1, 0, 1.0);
+        log.flush();
+        runWriter();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.write(new byte[EventLog.RECORD_SIZE / 2]); // «упали» посреди записи
+        }
+        assertEquals(1, count(file));
+
+        log.append(t, 2, 0, 1.0);
+        log.flush();
+        runWriter();
+        try (EventLog.Cursor c = EventLog.Cursor.open(file)) {
+            assertTrue(c.next());
+            assertTrue(c.next());
+            assertEquals(2, c.latencyMs());
+            assertFalse(c.next());
+        }
+    }
+
+    @Test
+    public void missingFile_isEmptyLog() throws IOException {
+        assertEquals(0, count(new File(tmp.getRoot(), "none.bin")));
+    }
+
+    @Test(expected = IOException.class)
+    public void foreignFile_isRejected() throws IOException {
+        File other = tmp.newFile("other.bin");
+        try (RandomAccessFile raf = new RandomAccessFile(other, "rw")) {
+            raf.writeLong(0x1234_5678_9ABC_DEF0L);
+        }
+        EventLog.Cursor.open(other).close();
+    }
+
+    private static int count(File f) throws IOException {
+        int n = 0;
+        try (EventLog.Cursor c = EventLog.Cursor.open(f)) {
+            while (c.next()) n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ExpressionTest {
+
+    @Test
+    public void precedenceAndParentheses() {
+        assertEquals(19, Expression.compile("7 + 3 × 4").evaluate());
+        assertEquals(21, Expression.compile("(12 − 5) × 3").evaluate());
+        assertEquals(2, Expression.compile("10 - 5 - 3").evaluate());     // слева направо
+        assertEquals(2, Expression.compile("24 ÷ 6 ÷ 2").evaluate());
+        assertEquals(22, Expression.compile("24/(6/2) - 16:4:2 + 2*8").evaluate()); // ASCII-знаки и «:»
+        assertEquals(42, Expression.compile("((6))*(3+4)").evaluate());
+    }
+
+    @Test
+    public void compiledOnce_evaluatesManyBindings() {
+        Expression e = Expression.compile("(a - b) × c");
+        assertEquals(3, e.variables());
+        int[] stack = new int[e.stackSize()];
+        assertEquals(21, e.evaluate(new int[] {12, 5, 3}, stack));
+        assertEquals(-4, e.evaluate(new int[] {1, 3, 2}, stack));
+        assertEquals("(12 - 5) × 3", e.text(new int[] {12, 5, 3}));
+    }
+
+    @Test
+    public void inexactOrOverflow_isNotAnInteger() {
+        assertEquals(Expression.NOT_AN_INTEGER, Expression.compile("7 ÷ 2").evaluate());
+        assertEquals(Expression.NOT_AN_INTEGER, Expression.compile("7 ÷ (3 - 3)").evaluate());
+        assertEquals(Expression.NOT_AN_INTEGER, Expression.compile("65536 × 65536").evaluate());
+        assertEquals(Expression.NOT_AN_INTEGER, Expression.compile("7 ÷ 2 × 2 - 4").evaluate()); // не «округляется»
+    }
+
+    @Test
+    public void text_keepsOnlyNeededParentheses() {
+        String[] cases = {
+                "a + b × c",   "1 + 2 × 3",
+                "(a + b) × c", "(1 + 2) × 3",
+                "(a × b) + c", "1 × 2 + 3",
+                "a - (b - c)", "1 - (2 - 3)",
+                "(a - b) - c", "1 - 2 - 3",
+                "a ÷ (b × c)", "1 ÷ (2 × 3)",
+        };
+        int[] vars = {1, 2, 3};
+        for (int i = 0; i < cases.length; i += 2) {
+            assertEquals(cases[i + 1], Expression.compile(cases[i]).text(vars));
+        }
+        assertEquals("5 - (-3)", Expression.compile("a - b").text(new int[] {5, -3}));
+    }
+
+    @Test
+    public void syntaxErrors_rejected() {
+        for (String bad : new String[] {"", "1 +", "(1 + 2", "1 + 2)", "1 ^ 2", "-1", "ab", "99999999999"}) {
+            try {
+                Expression.compile(bad);
+                fail(bad);
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.mathtrainer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GameSessionTest {
+
+    private static final double EPS = 1e-9;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private long now;
+    private MemoryRecords records;
+    private GameSession<Task> session;
+
+    @Before
+    public void setUp() {
+        now = 1_000_000L;
+        records = new MemoryRecords();
+        session = new GameSession<>(TaskSource.integers(), () -> now, records);
+        session.start();
+    }
+
+    private AnswerChecker.Result answerCorrectly() {
+        return session.submit(String.valueOf(session.currentTask().getAnswer()));
+    }
+
+    @Test
+    public void pointsFor_followsPenaltyMinute() {
+        assertEquals(1.0, GameSession.pointsFor(0), EPS);
+        assertEquals(1.0, GameSession.pointsFor(60), EPS);
+        assertEquals(0.5, GameSession.pointsFor(90), EPS);
+        assertEquals(0.0, GameSession.pointsFor(120), EPS);
+        assertEquals(0.0, GameSession.pointsFor(1_000), EPS);
+    }
+
+    @Test
+    public void wrongAnswer_keepsTaskAndScore() {
+        Task before = session.currentTask();
+        String wrong = String.valueOf(before.getAnswer() + 1);
+        assertEquals(AnswerChecker.Result.WRONG, session.submit(wrong));
+        assertEquals(AnswerChecker.Result.EMPTY, session.submit(" "));
+        assertSame(before, session.currentTask());
+        assertEquals(0.0, session.totalScore(), EPS);
+    }
+
+    @Test
+    public void correctAnswer_scoresAndMovesOn() {
+        Task before = session.currentTask();
+        now += 90_000;
+        assertEquals(AnswerChecker.Result.CORRECT, answerCorrectly());
+        assertEquals(0.5, session.totalScore(), EPS);
+        assertNotSame(before, session.currentTask());
+        assertEquals(0, session.penaltySeconds());
+    }
+
+    @Test
+    public void timers_trackLevelAndPenalty() {
+        now += 59_999;
+        assertEquals(59, session.levelSeconds());
+        assertEquals(0, session.penaltySeconds());
+        assertEquals(1.0, session.penaltyBall(), EPS);
+        now += 31_000;
+        assertEquals(30, session.penaltySeconds());
+        assertEquals(0.5, session.penaltyBall(), EPS);
+        now += 600_000;
+        assertEquals(GameSession.PENALTY_WINDOW, session.penaltySeconds());
+        assertEquals(0.0, session.penaltyBall(), EPS);
+    }
+
+    @Test
+    public void pause_freezesLevelAndQuestionTime() {
+        now += 30_000;
+        session.pause();
+        assertTrue(session.isPaused());
+        now += 10 * 60_000;
+        assertEquals(30, session.levelSeconds());
+        assertEquals(0, session.penaltySeconds());
+        assertEquals(-1, session.msUntilNextChange());
+
+        session.resume();
+        assertFalse(session.isPaused());
+        now += 40_000;
+        assertEquals(70, session.levelSeconds());
+        assertEquals(10, session.penaltySeconds());
+        assertEquals(AnswerChecker.Result.CORRECT, answerCorrectly());
+        assertEquals(1.0 - 10 / 60.0, session.totalScore(), EPS);
+    }
+
+    @Test
+    public void msUntilNextChange_alignsToSecondBoundaries() {
+        now += 250;
+        assertEquals(750, session.msUntilNextChange());
+        now += 750;
+        assertEquals(1000, session.msUntilNextChange());
+
+        // новый вопрос со сдвигом фазы: штрафной таймер тикает на своих границах
+        now += 400;
+        answerCorrectly();
+        assertEquals(600, session.msUntilNextChange());
+        now += 60_700;
+        assertEquals(62, session.levelSeconds());
+        assertEquals(0, session.penaltySeconds());
+        assertEquals(300, session.msUntilNextChange());
+        now += 300;
+        assertEquals(1, session.penaltySeconds());
+        assertEquals(600, session.msUntilNextChange());
+        now += 600;
+        assertEquals(400, session.msUntilNextChange());
+
+        now += 120_000;
+        session.pause();
+        assertEquals(-1, session.msUntilNextChange());
+    }
+
+    @Test
+    public void answerListener_getsLatencyAndRejectedAttempts() {
+        long[] got = new long[3];
+        session.setAnswerListener((task, latencyMs, wrongAttempts, points, freeTimeSec) -> {
+            assertEquals(GameSession.FREE_TIME_LIMIT, freeTimeSec);
+            assertSame(session.currentTask(), task);
+            got[0] = latencyMs;
+            got[1] = wrongAttempts;
+            got[2] = Math.round(points * 1000);
+        });
+        now += 90_000;
+        session.submit("");
+        session.submit("abc");
+        session.submit(String.valueOf(session.currentTask().getAnswer() + 1));
+        answerCorrectly();
+        assertArrayEquals(new long[] {90_000, 2, 500}, got);
+
+        answerCorrectly();
+        assertEquals(0, got[1]);
+    }
+
+    @Test
+    public void levelFreeTime_reachesListenerLogAndScheduler() throws IOException {
+        File file = tmp.newFile("events.bin");
+        List<Runnable> writer = new ArrayList<>();
+        EventLog log = new EventLog(file, writer::add, () -> 0L);
+        RepetitionScheduler scheduler = new RepetitionScheduler(TaskCatalog.idProbabilities(), 1);
+        GameSession<Task> level = new GameSession<>(TaskSource.integers(), () -> now, null, 30.0, 90);
+        level.setAnswerListener((task, latencyMs, wrongAttempts, points, freeTimeSec) -> {
+            assertEquals(90, freeTimeSec);
+            assertEquals(1.0, points, EPS);
+            log.append(1, task, latencyMs, wrongAttempts, points, freeTimeSec);
+            assertEquals(3, RepetitionScheduler.quality(latencyMs, wrongAttempts, freeTimeSec)); // не провал
+            scheduler.record(task.getId(), latencyMs, wrongAttempts, freeTimeSec);
+        });
+        level.start();
+        now += 75_000; // сверх 60 сек, но в пределах free_time 90
+        assertEquals(0, level.penaltySeconds());
+        level.submit(String.valueOf(level.currentTask().getAnswer()));
+        log.flush();
+        for (Runnable r : writer) r.run();
+        try (EventLog.Cursor c = EventLog.Cursor.open(file)) {
+            assertTrue(c.next());
+            assertEquals(0, c.penaltySec());
+            assertEquals(1000, c.pointsMilli());
+        }
+        assertEquals(2, RepetitionScheduler.quality(75_000, 0, GameSession.FREE_TIME_LIMIT));
+    }
+
+    @Test
+    public void reachingTarget_finishesAndRecords() {
+        for (int i = 0; i < 30; i++) {
+            assertFalse(session.isFinished());
+            now += 2_000;
+            answerCorrectly();
+        }
+        assertTrue(session.isFinished());
+        assertEquals(0.0, session.scoreToTarget(), EPS);
+        assertEquals(60_000, session.levelDurationMs());
+        assertEquals(60_000, records.durationMs);
+        assertEquals(session.totalScore(), records.score, EPS);
+        assertEquals(0, session.recordRank());
+        assertEquals(AnswerChecker.Result.WRONG, answerCorrectly());
+
+        session.start();
+        assertFalse(session.isFinished());
+        assertEquals(-1, session.recordRank());
+        assertEquals(0.0, session.totalScore(), EPS);
+        assertEquals(GameSession.TARGET_SCORE, session.scoreToTarget(), EPS);
+    }
+
+    @Test
+    public void decimalSource_checksTenths() {
+        GameSession<DecimalTask> dec = new GameSession<>(TaskSource.decimals(), () -> now, null, 3.0);
+        dec.start();
+        for (int i = 0; i < 3; i++) {
+            String answer = dec.currentTask().getAnswer().toPlainString().replace('.', ',');
+            assertEquals(AnswerChecker.Result.CORRECT, dec.submit(answer));
+        }
+        assertTrue(dec.isFinished());
+    }
+
+    /** Стресс-прогон: миллион вопросов с разным временем ответа, счёт сходится с суммой pointsFor. */
+    @Test
+    public void simulation_scoreMatchesPointsFor() {
+        GameSession<Task> big = new GameSession<>(TaskSource.integers(), () -> now, null, Double.MAX_VALUE);
+        big.start();
+        double expected = 0.0;
+        for (int i = 0; i < 1_000_000; i++) {
+            long sec = i % 150;
+            now += sec * 1000L;
+            expected += GameSession.pointsFor(sec);
+            answerCorrectly(big);
+        }
+        assertEquals(1_000_000, big.answeredCount());
+        assertEquals(expected, big.totalScore(), 1e-6);
+    }
+
+    private static void answerCorrectly(GameSession<Task> s) {
+        assertEquals(AnswerChecker.Result.CORRECT, s.submit(String.valueOf(s.currentTask().getAnswer())));
+    }
+
+    private static final class MemoryRecords implements RecordStore {
+        long durationMs = -1;
+        double score;
+
+        @Override public int record(long durationMs, double score) {
+            this.durationMs = durationMs;
+            this.score = score;
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.mathtrainer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @After
+    public void tearDown() {
+        Instrumentation.setEnabled(true);
+        Instrumentation.reset();
+    }
+
+    @Test
+    public void buckets_coverValueWithin1of16() {
+        Random rnd = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long v = (rnd.nextLong() >>> 1) >>> rnd.nextInt(63);
+            int idx = Histogram.index(v);
+            long upper = Histogram.upperBound(idx);
+            assertTrue(v + " ≤ " + upper, v <= upper);
+            assertTrue(v + " vs " + upper, upper - v <= v / Histogram.SUB_BUCKETS);
+            if (idx > 0) assertTrue(v > Histogram.upperBound(idx - 1));
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.upperBound(Histogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void percentiles_boundedByBucketPrecision() {
+        Histogram h = new Histogram("t");
+        for (int i = 1; i <= 1000; i++) h.record(i * 1_000L);
+        assertEquals(1000, h.count());
+        assertEquals(1_000_000, h.maxNanos());
+        assertEquals(500_500.0, h.meanNanos(), 1e-9);
+        long p50 = h.percentileNanosAtMost(0.5);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 17 / 16);
+        assertEquals(1_000_000, h.percentileNanosAtMost(1.0));
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.percentileNanosAtMost(0.5));
+    }
+
+    @Test
+    public void concurrentRecords_areAllCounted() throws Exception {
+        Histogram h = new Histogram("t");
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 100_000; i++) h.record(i & 1023);
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(400_000, h.count());
+        assertEquals(1023, h.maxNanos());
+        assertEquals(1023, h.percentileNanosAtMost(1.0));
+    }
+
+    @Test
+    public void instrumentation_disabledRecordsNothing() {
+        Instrumentation.reset();
+        Instrumentation.setEnabled(false);
+        long t = Instrumentation.start();
+        assertEquals(0, t);
+        Instrumentation.stop(Instrumentation.TICK, t);
+        assertEquals(0, Instrumentation.TICK.count());
+
+        Instrumentation.setEnabled(true);
+        Instrumentation.stop(Instrumentation.TICK, Instrumentation.start());
+        assertEquals(1, Instrumentation.TICK.count());
+        String dump = Instrumentation.dump();
+        assertTrue(dump, dump.contains("tick: n=1 mean="));
+        assertTrue(dump, dump.contains("answer→frame: n=0\n"));
+    }
+}
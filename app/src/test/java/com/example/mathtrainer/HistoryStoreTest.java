@@ -0,0 +1,192 @@
+package com.example.mathtrainer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HistoryStoreTest {
+
+    private static final long ZONE = 3 * 3_600_000L; // UTC+3
+    private static final long DAY = 86_400_000L;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private File logFile;
+    private File storeFile;
+    private long wallNow;
+    private EventLog log;
+
+    // то, что записали, — для подсчёта «в лоб»
+    private final List<long[]> written = new ArrayList<>(); // level, taskId, op, latency, points, wrong, time
+
+    @Before
+    public void setUp() {
+        logFile = new File(tmp.getRoot(), "events.bin");
+        storeFile = new File(tmp.getRoot(), "history.bin");
+        wallNow = 1_700_000_000_000L;
+        log = new EventLog(logFile, Runnable::run, () -> wallNow);
+    }
+
+    private void fill(int n, long seed) {
+        Random rnd = new Random(seed);
+        Task[] few = {TaskCatalog.forType(0).task(3), TaskCatalog.forType(1).task(100), TaskCatalog.forType(2).task(9)};
+        for (int i = 0; i < n; i++) {
+            wallNow += rnd.nextInt(600_000);
+            long latency = rnd.nextInt(130_000);
+            int wrong = rnd.nextInt(3);
+            double points = GameSession.pointsFor(latency / 1000);
+            if (rnd.nextBoolean()) {
+                Task t = rnd.nextInt(4) == 0 ? few[rnd.nextInt(few.length)] : Task.random();
+                log.append(t, latency, wrong, points);
+                written.add(new long[] {1, t.getId(), t.getOp(), latency, Math.round(points * 1000), wrong, wallNow});
+            } else {
+                DecimalTask t = DecimalTask.random();
+                log.append(t, latency, wrong, points);
+                written.add(new long[] {2, t.getId(), t.getOp(), latency, Math.round(points * 1000), wrong, wallNow});
+            }
+        }
+        log.flush();
+    }
+
+    @Test
+    public void aggregates_matchBruteForce() throws IOException {
+        fill(5_000, 1);
+        HistoryStore h = HistoryStore.openFresh(logFile, storeFile, ZONE);
+        assertEquals(written.size(), h.records());
+
+        // факт, опер., день — сверяем сумму, среднее и процентили
+        long[] sample = written.get(17);
+        checkBlock(h, h.factBlock((int) sample[0], (int) sample[1]), r -> r[0] == sample[0] && r[1] == sample[1]);
+        for (int level = 1; level <= 2; level++) {
+            for (char op : (level == 1 ? "+-*" : "+-×÷").toCharArray()) {
+                int lv = level;
+                checkBlock(h, h.opBlock(level, op), r -> r[0] == lv && r[2] == op);
+            }
+        }
+        for (int i = 0; i < h.dayCount(); i++) {
+            int day = h.day(i);
+            assertEquals(h.dayBlockAt(i), h.dayBlock(day));
+            checkBlock(h, h.dayBlockAt(i), r -> HistoryStore.epochDay(r[6], ZONE) == day);
+        }
+        long daysSpan = (wallNow + ZONE) / DAY - (1_700_000_000_000L + ZONE) / DAY;
+        assertTrue(h.dayCount() > 1 && h.dayCount() <= daysSpan + 1);
+        assertEquals(-1, h.dayBlock(0));
+    }
+
+    @Test
+    public void factRecords_areContiguousColumns() throws IOException {
+        fill(2_000, 2);
+        HistoryStore h = HistoryStore.openFresh(logFile, storeFile, ZONE);
+        int block = h.factBlock(1, TaskCatalog.forType(2).task(9).getId());
+        int from = h.offset(block);
+        long points = 0;
+        for (int i = from; i < from + h.count(block); i++) {
+            if (i > from) assertTrue(h.latencyMs(i - 1) <= h.latencyMs(i));
+            points += h.pointsMilli(i);
+        }
+        assertTrue(h.count(block) > 0);
+        assertEquals(h.sumPointsMilli(block), points);
+    }
+
+    @Test
+    public void openFresh_rebuildsOnlyWhenLogChanged() throws IOException {
+        fill(100, 3);
+        HistoryStore first = HistoryStore.openFresh(logFile, storeFile, ZONE);
+        long built = storeFile.lastModified();
+        assertTrue(storeFile.setLastModified(built - 10_000));
+        HistoryStore.openFresh(logFile, storeFile, ZONE);
+        assertEquals(built - 10_000, storeFile.lastModified());
+
+        fill(10, 4);
+        HistoryStore second = HistoryStore.openFresh(logFile, storeFile, ZONE);
+        assertEquals(first.records() + 10, second.records());
+        assertEquals(110, HistoryStore.open(storeFile).records());
+    }
+
+    @Test
+    public void emptyLog_givesEmptyStore() throws IOException {
+        HistoryStore h = HistoryStore.openFresh(logFile, storeFile, 0);
+        assertEquals(0, h.records());
+        assertEquals(0, h.dayCount());
+        assertEquals(h.opBlock(1, '*'), h.opBlock(1, '×'));
+        int block = h.opBlock(1, '+');
+        assertEquals(0, h.count(block));
+        assertEquals(-1, h.percentileLatencyMs(block, 0.5));
+        assertTrue(Double.isNaN(h.meanLatencyMs(block)));
+    }
+
+    @Test
+    public void registryLevels_areCounted() throws IOException {
+        Task division = TaskCatalog.forType(3, 1).task(5);
+        Task expression = TaskCatalog.forType(4, 0).task(7);
+        log.append(3, division, 4_000, 1, 1.0);
+        log.append(4, expression, 70_000, 0, 1.0);
+        log.flush();
+        HistoryStore h = HistoryStore.openFresh(logFile, storeFile, ZONE);
+        assertEquals(2, h.records());
+
+        int fact = h.factBlock(3, division.getId());
+        assertEquals(1, h.count(fact));
+        assertEquals(4_000, h.sumLatencyMs(fact));
+        assertEquals(1, h.sumWrong(fact));
+        assertEquals(1, h.count(h.opBlock(3, '÷')));
+        assertEquals(0, h.count(h.opBlock(1, '/')));
+
+        assertEquals(1, h.count(h.factBlock(4, expression.getId())));
+        assertEquals(70_000, h.sumLatencyMs(h.opBlock(4, expression.getOp())));
+        assertNotEquals(h.factBlock(3, division.getId()), h.factBlock(1, division.getId()));
+        assertEquals(-1, h.factBlock(5, 0));
+    }
+
+    @Test
+    public void levelMean_andSlowestFact() throws IOException {
+        fill(3_000, 5);
+        HistoryStore h = HistoryStore.openFresh(logFile, storeFile, ZONE);
+        for (int level = 1; level <= 2; level++) {
+            int lv = level;
+            double mean = written.stream().filter(r -> r[0] == lv).mapToLong(r -> r[3]).average().orElse(Double.NaN);
+            assertEquals(mean, h.levelMeanLatencyMs(level), 1e-9);
+
+            int slowest = h.slowestFact(level, 3);
+            assertTrue(slowest >= 0);
+            double worst = h.meanLatencyMs(h.factBlock(level, slowest));
+            assertTrue(h.count(h.factBlock(level, slowest)) >= 3);
+            for (int id = 0; id < LevelRegistry.get().level(level).totalSize(); id++) {
+                int block = h.factBlock(level, id);
+                if (h.count(block) >= 3) assertTrue(h.meanLatencyMs(block) <= worst);
+            }
+        }
+        assertTrue(Double.isNaN(h.levelMeanLatencyMs(3)));
+        assertEquals(-1, h.slowestFact(3, 1));
+        assertEquals(-1, h.slowestFact(5, 1));
+    }
+
+    private interface Filter { boolean test(long[] r); }
+
+    private void checkBlock(HistoryStore h, int block, Filter f) {
+        long[] lat = written.stream().filter(f::test).mapToLong(r -> r[3]).sorted().toArray();
+        long points = written.stream().filter(f::test).mapToLong(r -> r[4]).sum();
+        long wrong = written.stream().filter(f::test).mapToLong(r -> r[5]).sum();
+        assertEquals(lat.length, h.count(block));
+        assertEquals(Arrays.stream(lat).sum(), h.sumLatencyMs(block));
+        assertEquals(points, h.sumPointsMilli(block));
+        assertEquals(wrong, h.sumWrong(block));
+        if (lat.length == 0) return;
+        assertEquals(Arrays.stream(lat).sum() / (double) lat.length, h.meanLatencyMs(block), 1e-9);
+        for (double p : new double[] {0.0, 0.5, 0.9, 0.99, 1.0}) {
+            int rank = Math.max(1, (int) Math.ceil(p * lat.length));
+            assertEquals(lat[rank - 1], h.percentileLatencyMs(block, p));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HudTextTest {
+
+    private static final Locale[] LOCALES = {
+            new Locale("ru", "RU"), Locale.US, Locale.GERMANY, Locale.FRANCE,
+            Locale.forLanguageTag("ar-EG"), Locale.forLanguageTag("hi-IN-u-nu-deva")
+    };
+
+    @Test
+    public void time_matchesStringFormat() {
+        for (Locale locale : LOCALES) {
+            HudText hud = new HudText(locale);
+            for (long sec = 0; sec <= 200 * 60; sec++) {
+                String expected = String.format(locale, "%02d:%02d", sec / 60, sec % 60);
+                int len = hud.time(sec);
+                assertEquals(expected, new String(hud.chars(), 0, len));
+            }
+        }
+    }
+
+    @Test
+    public void points_matchesStringFormatForGameScores() {
+        for (Locale locale : LOCALES) {
+            HudText hud = new HudText(locale);
+            // все суммы, которые реально набираются в игре
+            double total = 0.0;
+            for (int k = 0; k < 10_000; k++) {
+                double p = GameSession.pointsFor(k % 130);
+                assertEquals(String.format(locale, "%.3f", p), pointsText(hud, p));
+                total += p;
+                assertEquals(String.format(locale, "%.3f", total), pointsText(hud, total));
+            }
+        }
+    }
+
+    @Test
+    public void points_matchesStringFormatForRandomValues() {
+        HudText hud = new HudText(new Locale("ru", "RU"));
+        Random rnd = new Random(7);
+        for (int k = 0; k < 100_000; k++) {
+            double p = rnd.nextDouble() * 1000.0;
+            assertEquals(String.format(new Locale("ru", "RU"), "%.3f", p), pointsText(hud, p));
+        }
+        assertEquals("0,000", pointsText(hud, 0.0));
+        assertEquals("-1,500", pointsText(hud, -1.5));
+    }
+
+    private static String pointsText(HudText hud, double p) {
+        hud.points(p);
+        return hud.toString();
+    }
+}
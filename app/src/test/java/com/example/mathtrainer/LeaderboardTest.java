@@ -0,0 +1,94 @@
+package com.example.mathtrainer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LeaderboardTest {
+
+    private static final double EPS = 1e-9;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private long now = 1_000L;
+
+    private Leaderboard board(File file) {
+        return Leaderboard.load(file, 2, Runnable::run, () -> now++);
+    }
+
+    @Test
+    public void record_keepsTopKSortedByTimeThenScore() throws Exception {
+        Leaderboard.Table t = board(tmp.newFile()).level(1);
+        assertEquals(0, t.record(60_000, 30.0));
+        assertEquals(0, t.record(50_000, 30.0));
+        assertEquals(1, t.record(50_000, 30.0));   // равное — ниже прежнего
+        assertEquals(0, t.record(50_000, 30.5));   // то же время, больше баллов — выше
+        assertEquals(4, t.record(70_000, 31.0));
+        assertEquals(5, t.size());
+        long[] durations = new long[t.size()];
+        for (int i = 0; i < durations.length; i++) durations[i] = t.durationMs(i);
+        assertArrayEquals(new long[] {50_000, 50_000, 50_000, 60_000, 70_000}, durations);
+        assertEquals(30.5, t.score(0), EPS);
+        assertEquals(1_003, t.dateMs(0));
+        assertEquals(1_001, t.dateMs(1));
+    }
+
+    @Test
+    public void record_fullTableDropsWorst() throws Exception {
+        Leaderboard.Table t = board(tmp.newFile()).level(2);
+        Random rnd = new Random(7);
+        List<Long> all = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            long d = 10_000 + rnd.nextInt(100_000);
+            all.add(d);
+            int rank = t.record(d, 30.0);
+            all.sort(null);
+            int expected = all.indexOf(d);
+            // место среди равных — после них
+            while (expected + 1 < all.size() && all.get(expected + 1) == d) expected++;
+            assertEquals(expected < Leaderboard.K ? expected : -1, rank);
+        }
+        assertEquals(Leaderboard.K, t.size());
+        for (int i = 0; i < Leaderboard.K; i++) assertEquals((long) all.get(i), t.durationMs(i));
+    }
+
+    @Test
+    public void saveAndLoad_roundTripsPerLevel() throws Exception {
+        File file = tmp.newFile();
+        Leaderboard a = board(file);
+        a.level(1).record(45_000, 30.25);
+        a.level(2).record(90_000, 30.0);
+        a.level(2).record(80_000, 31.5);
+
+        Leaderboard b = board(file);
+        assertEquals(1, b.level(1).size());
+        assertEquals(45_000, b.level(1).durationMs(0));
+        assertEquals(30.25, b.level(1).score(0), EPS);
+        assertEquals(2, b.level(2).size());
+        assertEquals(80_000, b.level(2).durationMs(0));
+        assertEquals(a.level(2).dateMs(1), b.level(2).dateMs(1));
+        assertEquals(Leaderboard.HEADER_SIZE + 2 * (4 + Leaderboard.K * Leaderboard.ENTRY_SIZE), file.length());
+
+        // больше уровней, чем в файле, — новые пустые
+        Leaderboard c = Leaderboard.load(file, 3, Runnable::run, () -> now);
+        assertEquals(0, c.level(3).size());
+        assertEquals(2, c.level(2).size());
+    }
+
+    @Test
+    public void load_damagedOrMissingFileGivesEmptyTables() throws Exception {
+        assertEquals(0, board(new File(tmp.getRoot(), "нет.bin")).level(1).size());
+        File bad = tmp.newFile();
+        Files.write(bad.toPath(), new byte[] {1, 2, 3});
+        assertEquals(0, board(bad).level(1).size());
+    }
+}
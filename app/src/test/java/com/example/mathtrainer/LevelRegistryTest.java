@@ -0,0 +1,100 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LevelRegistryTest {
+
+    private static final double EPS = 1e-9;
+
+    @Test
+    public void index_matchesDeclarations() {
+        LevelRegistry r = LevelRegistry.get();
+        assertEquals(4, r.size());
+        assertEquals(Profiles.LEVELS, r.size());
+        LevelRegistry.Level one = r.level(1);
+        assertEquals(0, one.scale());
+        assertEquals(GameSession.TARGET_SCORE, one.targetScore(), EPS);
+        assertEquals(GameSession.FREE_TIME_LIMIT, one.freeTimeSec());
+        assertEquals(TaskCatalog.TYPES, one.types());
+        assertEquals(TaskCatalog.totalSize(), one.totalSize());
+        assertEquals(1, r.level(2).scale());
+        assertEquals(DecimalTaskCatalog.totalSize(), r.level(2).totalSize());
+        for (int t = 0; t < one.types(); t++) assertEquals(TaskCatalog.forType(t).size(), one.typeSize(t));
+    }
+
+    @Test
+    public void divisionLevel_exactAnswersInRange() {
+        LevelRegistry.Level three = LevelRegistry.get().level(3);
+        assertEquals(64, three.typeSize(0)); // b·r для b, r в 2..9
+        for (int t = 0; t < three.types(); t++) {
+            TaskCatalog c = TaskCatalog.forType(3, t);
+            for (int i = 0; i < c.size(); i++) {
+                Task task = c.task(i);
+                assertEquals('÷', task.getOp());
+                assertEquals(task.getA(), task.getAnswer() * task.getB());
+                assertTrue(task.getAnswer() >= 2 && task.getAnswer() <= (t == 0 ? 9 : 49));
+                assertSame(c, TaskCatalog.forId(3, task.getId()));
+            }
+        }
+    }
+
+    @Test
+    public void expressionLevel_textEvaluatesToAnswer() {
+        LevelRegistry.Level four = LevelRegistry.get().level(4);
+        for (int t = 0; t < four.types(); t++) {
+            TaskCatalog c = TaskCatalog.forType(4, t);
+            assertNotNull(c.expression());
+            for (int i = 0; i < c.size(); i++) {
+                Task task = c.task(i);
+                String text = task.getText();
+                int answer = Expression.compile(text.substring(0, text.length() - " = ?".length())).evaluate();
+                assertEquals(text, answer, task.getAnswer());
+                assertTrue(text, answer >= 0 && answer <= 100);
+                assertSame(c, TaskCatalog.forId(4, task.getId()));
+            }
+        }
+        assertEquals("(12 - 5) × 3 = ?", find(TaskCatalog.forType(4, 3), 12, 5, 3).getText());
+        assertEquals("7 + 3 × 4 = ?", find(TaskCatalog.forType(4, 0), 7, 3, 4).getText());
+    }
+
+    private static Task find(TaskCatalog c, int a, int b, int cc) {
+        for (int i = 0; i < c.size(); i++) {
+            if (c.a(i) == a && c.b(i) == b && c.c(i) == cc) return c.task(i);
+        }
+        throw new AssertionError("нет набора " + a + ", " + b + ", " + cc);
+    }
+
+    @Test
+    public void idProbabilities_sumToOnePerLevel() {
+        for (int level = 1; level <= LevelRegistry.get().size(); level++) {
+            double[] p = LevelRegistry.get().level(level).scale() == 0
+                    ? TaskCatalog.idProbabilities(level)
+                    : DecimalTaskCatalog.idProbabilities(level);
+            double sum = 0;
+            for (double x : p) {
+                assertTrue(x > 0);
+                sum += x;
+            }
+            assertEquals(1.0, sum, 1e-9);
+        }
+    }
+
+    @Test
+    public void scheduledSource_coversLevelIds() {
+        RepetitionScheduler s = new RepetitionScheduler(TaskCatalog.idProbabilities(3), 3);
+        TaskSource<Task> source = TaskSource.scheduledIntegers(3, s);
+        Task prev = null;
+        for (int i = 0; i < 1_000; i++) {
+            Task t = source.next(prev);
+            assertNotNull(TaskCatalog.forId(3, t.getId()));
+            prev = t;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongScale_rejected() {
+        TaskCatalog.forType(2, 0);
+    }
+}
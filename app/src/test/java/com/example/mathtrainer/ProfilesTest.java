@@ -0,0 +1,124 @@
+package com.example.mathtrainer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class ProfilesTest {
+
+    private static final double EPS = 1e-9;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private long now = 1_000L;
+
+    private Profiles open(File root) {
+        return Profiles.open(root, Runnable::run, () -> now);
+    }
+
+    @Test
+    public void firstOpen_createsDefaultProfile() throws Exception {
+        File root = tmp.newFolder();
+        Profiles p = open(root);
+        assertEquals(1, p.list().size());
+        assertEquals(Profiles.DEFAULT_NAME, p.current().name());
+        assertTrue(new File(root, Profiles.REGISTRY).exists());
+        assertTrue(p.current().file(Profiles.Profile.HEADER).exists());
+    }
+
+    @Test
+    public void shards_keepStateApart() throws Exception {
+        File root = tmp.newFolder();
+        Profiles p = open(root);
+        Profiles.Profile anna = p.current();
+        Profiles.Profile boris = p.create("Борис");
+        assertSame(anna, p.current()); // создание не переключает
+
+        anna.leaderboard(Runnable::run).join().level(1).record(50_000, 30.0);
+        anna.noteRun(1, 50_000);
+        p.switchTo(boris.id());
+        boris.leaderboard(Runnable::run).join().level(1).record(70_000, 30.0);
+        boris.noteRun(1, 70_000);
+        boris.noteRun(1, 65_000);
+
+        Profiles again = open(root);
+        assertEquals(boris.id(), again.current().id());
+        assertEquals(2, again.list().size());
+        Profiles.Profile b = again.current();
+        assertEquals(2, b.header().runs(1));
+        assertEquals(65_000, b.header().bestMs(1));
+        assertEquals(0, b.header().runs(2));
+        assertEquals(-1, b.header().bestMs(2));
+        assertEquals(70_000, b.leaderboard(Runnable::run).join().level(1).durationMs(0));
+        Profiles.Profile a = again.find(anna.id());
+        assertEquals(1, a.header().runs(1));
+        assertEquals(50_000, a.leaderboard(Runnable::run).join().level(1).durationMs(0));
+    }
+
+    @Test
+    public void switchTo_flushesEventLogAndReadsOnlyHeader() throws Exception {
+        File root = tmp.newFolder();
+        Profiles p = open(root);
+        Profiles.Profile first = p.current();
+        Profiles.Profile second = p.create("Вика");
+        first.events().append(Task.random(), 1_500, 0, 1.0);
+        assertEquals(0, first.file(Profiles.Profile.EVENTS).length()); // ещё в буфере
+        p.switchTo(second.id());
+        assertEquals(EventLog.HEADER_SIZE + EventLog.RECORD_SIZE, first.file(Profiles.Profile.EVENTS).length());
+        assertFalse(second.file(Profiles.Profile.LEADERBOARD).exists()); // рекорды не тронуты
+        assertEquals("Вика", second.header().name());
+    }
+
+    @Test
+    public void damagedRegistry_recoveredFromShardHeaders() throws Exception {
+        File root = tmp.newFolder();
+        Profiles p = open(root);
+        for (int i = 2; i <= 11; i++) p.create("Ученик " + i);
+        Files.write(new File(root, Profiles.REGISTRY).toPath(), new byte[] {0, 1, 2});
+
+        Profiles again = open(root);
+        assertEquals(11, again.list().size());
+        for (int i = 0; i < 11; i++) {
+            assertEquals(i + 1, again.list().get(i).id());
+            assertEquals("Ученик " + (i + 1), again.list().get(i).name());
+        }
+        assertEquals(12, again.create("Новый").id());
+    }
+
+    @Test
+    public void adopt_movesLegacyFilesOnce() throws Exception {
+        File files = tmp.newFolder();
+        File legacy = new File(files, Profiles.Profile.LEADERBOARD);
+        Leaderboard.load(legacy, Profiles.LEVELS, Runnable::run, () -> now).level(2).record(40_000, 30.5);
+
+        Profiles p = open(new File(files, "profiles"));
+        p.current().adopt(files, Profiles.Profile.LEADERBOARD, "schedule_level1.bin");
+        assertFalse(legacy.exists());
+        Leaderboard.Table t = p.current().leaderboard(Runnable::run).join().level(2);
+        assertEquals(30.5, t.score(0), EPS);
+    }
+
+    @Test
+    public void history_isBuiltFromTheProfileLog() throws Exception {
+        Profiles p = open(tmp.newFolder());
+        Profiles.Profile profile = p.current();
+        Task fact = TaskCatalog.forType(0).task(3);
+        profile.events().append(1, fact, 4_000, 0, 1.0);
+        profile.events().append(1, fact, 6_000, 1, 0.5);
+
+        HistoryStore h = profile.history().join(); // сбрасывает журнал сам
+        assertEquals(2, h.records());
+        assertEquals(5_000, h.meanLatencyMs(h.factBlock(1, fact.getId())), EPS);
+        assertEquals(fact.getId(), h.slowestFact(1, 1));
+        assertTrue(profile.file(Profiles.Profile.HISTORY).exists());
+
+        profile.events().append(1, fact, 8_000, 0, 1.0);
+        assertEquals(3, profile.history().join().records());
+    }
+}
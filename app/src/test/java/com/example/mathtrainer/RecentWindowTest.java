@@ -0,0 +1,65 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import static org.junit.Assert.*;
+
+public class RecentWindowTest {
+
+    @Test
+    public void evictsOldest_matchesQueueModel() {
+        RecentWindow w = new RecentWindow(TaskCatalog.totalSize(), 8);
+        ArrayDeque<Integer> model = new ArrayDeque<>();
+        Random rnd = new Random(5);
+        for (int i = 0; i < 100_000; i++) {
+            int id = rnd.nextInt(40);
+            assertEquals(model.contains(id), w.contains(id));
+            if (!model.contains(id)) {
+                if (model.size() == 8) model.removeFirst();
+                model.addLast(id);
+            }
+            w.add(id);
+            assertEquals(model.size(), w.size());
+        }
+    }
+
+    @Test
+    public void noAbaWithinWindow_forBothLevels() {
+        checkNoRepeats(TaskSource.withoutRepeats(TaskSource.integers(), Task::getId, TaskCatalog.totalSize(), 6),
+                Task::getId);
+        checkNoRepeats(TaskSource.withoutRepeats(TaskSource.decimals(), DecimalTask::getId,
+                DecimalTaskCatalog.totalSize(), 6), DecimalTask::getId);
+    }
+
+    private static <T> void checkNoRepeats(TaskSource<T> src, ToIntFunction<T> id) {
+        ArrayDeque<Integer> last = new ArrayDeque<>();
+        T prev = null;
+        for (int i = 0; i < 50_000; i++) {
+            prev = src.next(prev);
+            int k = id.applyAsInt(prev);
+            assertFalse(last.contains(k));
+            if (last.size() == 6) last.removeFirst();
+            last.addLast(k);
+        }
+    }
+
+    @Test
+    public void ignoresIdsOutsideSpace_andClears() {
+        RecentWindow w = new RecentWindow(100, 2);
+        w.add(-1);
+        w.add(100);
+        assertEquals(0, w.size());
+        w.add(99);
+        w.add(63);
+        w.add(64);
+        assertFalse(w.contains(99));
+        assertTrue(w.contains(63) && w.contains(64));
+        w.clear();
+        assertFalse(w.contains(63));
+        assertEquals(0, w.size());
+    }
+}
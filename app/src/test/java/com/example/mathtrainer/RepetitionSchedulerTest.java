@@ -0,0 +1,138 @@
+package com.example.mathtrainer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class RepetitionSchedulerTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static final double[] LEVEL1 = TaskCatalog.idProbabilities();
+
+    @Test
+    public void idProbabilities_sumToOne() {
+        assertEquals(1.0, sum(TaskCatalog.idProbabilities()), 1e-9);
+        assertEquals(1.0, sum(DecimalTaskCatalog.idProbabilities()), 1e-9);
+    }
+
+    @Test
+    public void next_isEarliestDueAndNeverPrevious() {
+        RepetitionScheduler s = new RepetitionScheduler(LEVEL1, 1);
+        int[] dueBefore = new int[s.size()];
+        int prev = -1;
+        for (int i = 0; i < 2_000; i++) {
+            for (int g = 0; g < s.size(); g++) dueBefore[g] = s.due(g);
+            int f = s.next(prev);
+            assertNotEquals(prev, f);
+            for (int g = 0; g < s.size(); g++) {
+                if (g != prev) assertTrue(dueBefore[f] <= dueBefore[g]);
+            }
+            // выданный факт отложен до ответа
+            assertTrue(s.due(f) >= s.step() + RepetitionScheduler.HOLD_INTERVAL);
+            if (i % 3 != 0) s.record(f, 3_000, 0);
+            prev = f;
+        }
+    }
+
+    @Test
+    public void failedFact_comesBackSoon_knownFactDrifts() {
+        RepetitionScheduler s = new RepetitionScheduler(LEVEL1, 2);
+        int weak = s.next(-1);
+        s.record(weak, 5_000, 2);
+        assertEquals(0, s.reps(weak));
+        assertTrue(s.ease(weak) < 250);
+
+        int strong = s.next(weak);
+        int[] intervals = new int[5];
+        for (int k = 0; k < intervals.length; k++) {
+            s.record(strong, 2_000, 0);
+            intervals[k] = s.intervalSteps(strong);
+        }
+        assertArrayEquals(new int[] {10, 30, 84, 243, 729}, intervals);
+
+        // слабый факт вернётся не позже чем через RELEARN_INTERVAL шагов
+        int prev = strong;
+        boolean seen = false;
+        for (int i = 0; i < RepetitionScheduler.RELEARN_INTERVAL + 1 && !seen; i++) {
+            int f = s.next(prev);
+            seen = f == weak;
+            s.record(f, 2_000, 0);
+            prev = f;
+        }
+        assertTrue(seen);
+    }
+
+    @Test
+    public void newFacts_followLegacyTypeMix() {
+        RepetitionScheduler s = new RepetitionScheduler(LEVEL1, 3);
+        int[] newByType = new int[TaskCatalog.TYPES];
+        int prev = -1;
+        int introduced = 0;
+        while (introduced < 90) {
+            int f = s.next(prev);
+            if (s.reps(f) < 0) {
+                newByType[TaskCatalog.forId(f).type()]++;
+                introduced++;
+            }
+            s.record(f, 2_000, 0);
+            prev = f;
+        }
+        for (int n : newByType) assertTrue(n > 15 && n < 45);
+    }
+
+    @Test
+    public void snapshot_restoresSameSchedule() throws IOException {
+        RepetitionScheduler a = new RepetitionScheduler(LEVEL1, 4);
+        int prev = -1;
+        for (int i = 0; i < 500; i++) {
+            prev = a.next(prev);
+            a.record(prev, (i % 7) * 11_000L, i % 5 == 0 ? 1 : 0);
+        }
+        File file = tmp.newFile("schedule.bin");
+        a.saveAsync(file, Runnable::run);
+        RepetitionScheduler b = RepetitionScheduler.load(file, LEVEL1);
+
+        assertEquals(a.step(), b.step());
+        int pa = prev, pb = prev;
+        for (int i = 0; i < 2_000; i++) {
+            pa = a.next(pa);
+            pb = b.next(pb);
+            assertEquals(pa, pb);
+            a.record(pa, 4_000, 0);
+            b.record(pb, 4_000, 0);
+        }
+        // записано только то, на что отвечали
+        assertTrue(file.length() < RepetitionScheduler.HEADER_SIZE + 500 * RepetitionScheduler.RECORD_SIZE);
+    }
+
+    @Test(expected = IOException.class)
+    public void restore_rejectsCountThatOverflowsInt() throws IOException {
+        byte[] header = new RepetitionScheduler(LEVEL1, 4).snapshot(); // ни одной записи
+        ByteBuffer.wrap(header).putInt(RepetitionScheduler.HEADER_SIZE - 4, 1 << 28); // × RECORD_SIZE = 2^32
+        RepetitionScheduler.restore(header, LEVEL1);
+    }
+
+    @Test
+    public void brokenFile_startsFresh() throws IOException {
+        File file = tmp.newFile("schedule.bin");
+        Files.write(file.toPath(), new byte[] {1, 2, 3});
+        RepetitionScheduler s = RepetitionScheduler.load(file, LEVEL1);
+        assertEquals(0, s.step());
+        assertEquals(LEVEL1.length, s.size());
+    }
+
+    private static double sum(double[] p) {
+        double s = 0;
+        for (double v : p) s += v;
+        return s;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TaskCatalogTest {
+
+    @Test
+    public void sizes_matchTaskSpace() {
+        assertEquals(64, TaskCatalog.forType(0).size());
+        assertEquals(720, TaskCatalog.forType(1).size());
+        assertEquals(9810, TaskCatalog.forType(2).size());
+        assertEquals(64 + 720 + 9810, TaskCatalog.totalSize());
+    }
+
+    @Test
+    public void entries_areConsistent() {
+        for (int t = 0; t < TaskCatalog.TYPES; t++) {
+            TaskCatalog c = TaskCatalog.forType(t);
+            for (int i = 0; i < c.size(); i++) {
+                Task task = c.task(i);
+                Task fresh = new Task(c.a(i), c.b(i), c.op(i));
+                assertEquals(c.idBase() + i, task.getId());
+                assertSame(c, TaskCatalog.forId(task.getId()));
+                assertSame(c.text(i), task.getText());
+                assertEquals(fresh.getText(), task.getText());
+                assertEquals(fresh.getAnswer(), task.getAnswer());
+            }
+        }
+    }
+
+    @Test
+    public void handBuiltDivision_isExactOrThrows() {
+        assertEquals(4, new Task(8, 2, '÷').getAnswer());
+        for (Task bad : new Task[] {new Task(7, 2, '÷'), new Task(7, 0, '÷')}) {
+            try {
+                bad.getAnswer();
+                fail(bad.getText());
+            } catch (ArithmeticException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void random_returnsPooledInstances() {
+        TaskRandom rnd = TaskRandom.seeded(1);
+        for (int i = 0; i < 10_000; i++) {
+            Task t = Task.random();
+            TaskCatalog owner = TaskCatalog.forId(t.getId());
+            assertSame(owner.task(t.getId() - owner.idBase()), t);
+            TaskCatalog c = TaskCatalog.forType(i % TaskCatalog.TYPES);
+            assertSame(c, TaskCatalog.forId(c.random(rnd).getId()));
+        }
+    }
+
+    @Test
+    public void randomExcept_neverRepeats() {
+        TaskRandom rnd = TaskRandom.seeded(7);
+        for (int t = 0; t < TaskCatalog.TYPES; t++) {
+            TaskCatalog c = TaskCatalog.forType(t);
+            Task last = c.random(rnd);
+            for (int i = 0; i < 20_000; i++) {
+                Task next = c.randomExcept(rnd, last);
+                assertNotSame(last, next);
+                last = next;
+            }
+        }
+    }
+
+    @Test
+    public void seeded_isReproducible() {
+        TaskRandom a = TaskRandom.seeded(42);
+        TaskRandom b = TaskRandom.seeded(42);
+        Task prev = null;
+        for (int i = 0; i < 1_000; i++) {
+            Task t = Task.randomExcept(a, prev);
+            assertSame(t, Task.randomExcept(b, prev));
+            assertSame(DecimalTask.random(a), DecimalTask.random(b));
+            prev = t;
+        }
+    }
+
+    @Test
+    public void split_isReproducibleAndIndependent() {
+        TaskRandom first = TaskRandom.seeded(5).split();
+        TaskRandom again = TaskRandom.seeded(5).split();
+        TaskRandom root = TaskRandom.seeded(5);
+        root.split();
+        TaskRandom second = root.split();
+        int same = 0;
+        for (int i = 0; i < 1_000; i++) {
+            int x = first.nextInt(1 << 20);
+            assertEquals(x, again.nextInt(1 << 20));
+            if (x == second.nextInt(1 << 20)) same++;
+        }
+        assertTrue(same < 5);
+    }
+
+    @Test
+    public void shared_staysInBounds() {
+        TaskRandom rnd = TaskRandom.shared();
+        for (int i = 0; i < 10_000; i++) {
+            int v = rnd.nextInt(7);
+            assertTrue(v >= 0 && v < 7);
+        }
+        assertNotNull(Task.random(rnd.split()));
+    }
+}
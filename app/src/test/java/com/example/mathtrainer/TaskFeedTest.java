@@ -0,0 +1,57 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class TaskFeedTest {
+
+    @Test
+    public void append_addsOneRowWithFreshId() {
+        TaskFeed feed = new TaskFeed();
+        assertEquals(0, feed.snapshot().size());
+        List<TaskFeed.Row> first = feed.append("2 * 3 = ?", "6", 0.75);
+        List<TaskFeed.Row> second = feed.append("4 * 5 = ?", "20", 1.0);
+        assertEquals(1, first.size());
+        assertEquals(2, second.size());
+        assertSame(first.get(0), second.get(0));
+        assertNotEquals(second.get(0).id, second.get(1).id);
+        assertEquals("20", second.get(1).answer);
+    }
+
+    @Test
+    public void append_preparesDisplayTextsOnce() {
+        TaskFeed.Row row = new TaskFeed().append("2 * 3 = ?", "6", 0.75).get(0);
+        assertEquals("2 * 3 = 6", row.solved);
+        assertEquals(String.format(Locale.getDefault(), "+%.3f", 0.75), row.pointsText);
+    }
+
+    @Test
+    public void snapshots_areImmutableAcrossGrowth() {
+        TaskFeed feed = new TaskFeed();
+        List<List<TaskFeed.Row>> snapshots = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) snapshots.add(feed.append("q" + i, String.valueOf(i), 1.0));
+        for (int i = 0; i < 1_000; i++) {
+            List<TaskFeed.Row> s = snapshots.get(i);
+            assertEquals(i + 1, s.size());
+            assertEquals("q" + i, s.get(i).question);
+            assertEquals(String.valueOf(i), s.get(i).answer);
+        }
+        List<TaskFeed.Row> last = snapshots.get(snapshots.size() - 1);
+        assertEquals(0, feed.clear().size());
+        feed.append("new", "1", 1.0);
+        assertEquals(1_000, last.size());
+        assertEquals("q0", last.get(0).question);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_pastEnd_throws() {
+        TaskFeed feed = new TaskFeed();
+        feed.append("q", "1", 1.0);
+        feed.snapshot().get(1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.*;
+
+public class TaskPipelineTest {
+
+    // источник 0, 1, 2, ... (каждое число — своя «задача»), можно подсунуть повтор
+    private static final class Counter implements TaskSource<Integer> {
+        int nextValue;
+        int repeatOnce = -1;
+
+        @Override public synchronized Integer next(Integer previous) {
+            if (repeatOnce >= 0) {
+                int v = repeatOnce;
+                repeatOnce = -1;
+                return v;
+            }
+            return nextValue++;
+        }
+        @Override public String text(Integer task) { return String.valueOf(task); }
+        @Override public AnswerChecker.Result check(CharSequence input, Integer task) {
+            return String.valueOf(task).contentEquals(input) ? AnswerChecker.Result.CORRECT : AnswerChecker.Result.WRONG;
+        }
+    }
+
+    @Test
+    public void servesPrefetchedInOrder_andCountsMisses() {
+        List<Runnable> queued = new ArrayList<>();
+        Counter src = new Counter();
+        TaskPipeline<Integer> p = new TaskPipeline<>(src, queued::add, 4);
+        assertEquals(0, p.ready());
+
+        assertEquals(Integer.valueOf(0), p.next(null)); // подкачка ещё не прошла — промах
+        assertEquals(1, p.misses());
+        runAll(queued);
+        assertEquals(4, p.ready());
+
+        for (int i = 1; i <= 4; i++) assertEquals(Integer.valueOf(i), p.next(null));
+        assertEquals(4, p.hits());
+        assertEquals(0.8, p.hitRate(), 1e-9);
+        runAll(queued);
+        assertEquals(4, p.ready());
+    }
+
+    @Test
+    public void withoutRepeats_skipsIdsInWindow() {
+        Counter src = new Counter();
+        TaskSource<Integer> noRepeat = TaskSource.withoutRepeats(src, Integer::intValue, 100, 4);
+        TaskPipeline<Integer> p = new TaskPipeline<>(noRepeat, Runnable::run, 4);
+        assertEquals(Integer.valueOf(0), p.next(null));
+        src.repeatOnce = 2; // 2 уже в кольце — подкачка должна взять другое
+        int[] got = new int[6];
+        for (int i = 0; i < got.length; i++) got[i] = p.next(null);
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6}, got);
+    }
+
+    @Test
+    public void backgroundThread_deliversEveryTaskOnce() throws Exception {
+        ExecutorService bg = Executors.newSingleThreadExecutor();
+        try {
+            Counter src = new Counter();
+            TaskPipeline<Integer> p = new TaskPipeline<>(src, bg, 8);
+            boolean[] seen = new boolean[2_000_000];
+            for (int i = 0; i < 200_000; i++) {
+                int v = p.next(null);
+                assertFalse(seen[v]);
+                seen[v] = true;
+            }
+            assertEquals(200_000, p.hits() + p.misses());
+        } finally {
+            bg.shutdownNow();
+        }
+    }
+
+    private static void runAll(List<Runnable> queued) {
+        while (!queued.isEmpty()) queued.remove(0).run();
+    }
+}
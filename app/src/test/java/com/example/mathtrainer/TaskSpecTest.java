@@ -0,0 +1,140 @@
+package com.example.mathtrainer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Распределения стратегий сравниваются точно: перебираем все исходы вызовов
+ * TaskRandom (каждый nextInt/nextLong(bound) — ветвление с вероятностью 1/bound).
+ */
+public class TaskSpecTest {
+
+    private static final double EPS = 1e-12;
+
+    // level 2 из levels.conf
+    private static TaskSpec[] level2() {
+        return new TaskSpec[] {
+                TaskSpec.of(1).a(1, 99).b(1, 99).ops('+', '-').result(1, 99),
+                TaskSpec.of(1).a(0, 90, 10).b(1, 99).ops('+', '-').result(1, 99),
+                TaskSpec.of(1).a(1, 99).b(10, 90, 10).ops('×').result(1, 99).outerB().rows(),
+                TaskSpec.of(1).a(1, 99).b(10, 90, 10).ops('÷').result(1, 99).outerB(),
+        };
+    }
+
+    @Test
+    public void level2Specs_enumerateLikeCatalog() {
+        TaskSpec[] specs = level2();
+        for (int t = 0; t < specs.length; t++) {
+            DecimalTaskCatalog c = DecimalTaskCatalog.forType(t);
+            List<int[]> tasks = new ArrayList<>();
+            specs[t].forEach((a, b, op) -> tasks.add(new int[] {a, b, op}));
+            assertEquals(c.size(), tasks.size());
+            for (int i = 0; i < c.size(); i++) {
+                assertArrayEquals(new int[] {c.a(i), c.b(i), c.op(i)}, tasks.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void prune_matchesEnumerateExactly() {
+        List<TaskSpec> specs = new ArrayList<>(Arrays.asList(level2()));
+        specs.add(TaskSpec.of(0).a(10, 99).b(1, 99).bAtMostA().ops('+', '-').rows());  // big ± small
+        specs.add(TaskSpec.of(0).a(10, 99).b(2, 9).ops('÷').result(2, 49).rows());     // ÷, строки по a
+        specs.add(TaskSpec.of(0).a(4, 81).b(2, 9).ops('÷').result(2, 9).outerB());
+        specs.add(TaskSpec.of(0).a(-20, 20).b(1, 15, 2).ops('+', '-', '*')
+                .result(-30, 30).resultDivisibleBy(3));
+        specs.add(TaskSpec.of(1).a(1, 50).b(1, 50).ops('×', '÷').wholeResult().positive());
+        for (TaskSpec spec : specs) {
+            TaskSpec.Sampler e = spec.sampler(TaskSpec.Strategy.ENUMERATE);
+            TaskSpec.Sampler p = spec.sampler(TaskSpec.Strategy.PRUNE);
+            assertEquals(e.size(), p.size());
+            Map<List<Integer>, Double> pe = distribution(e), pp = distribution(p);
+            assertEquals(pe.keySet(), pp.keySet());
+            for (Map.Entry<List<Integer>, Double> x : pe.entrySet()) {
+                assertEquals(x.getKey().toString(), x.getValue(), pp.get(x.getKey()), EPS);
+            }
+        }
+    }
+
+    @Test
+    public void strategy_bySize() {
+        assertEquals(TaskSpec.Strategy.ENUMERATE, level2()[0].sampler().strategy());
+
+        int n = 100_000;
+        TaskSpec big = TaskSpec.of(0).a(1, n).b(1, n).ops('+').result(0, n);
+        TaskSpec.Sampler s = big.sampler();
+        assertEquals(TaskSpec.Strategy.PRUNE, s.strategy());
+        assertEquals((long) n * (n - 1) / 2, s.size());
+
+        TaskRandom rnd = TaskRandom.seeded(7);
+        TaskSpec.Draw d = new TaskSpec.Draw();
+        for (int i = 0; i < 10_000; i++) {
+            s.next(rnd, d);
+            assertTrue(big.accepts(d.a(), d.b(), d.op()));
+            assertEquals(d.a() + d.b(), d.result());
+        }
+    }
+
+    @Test
+    public void sampler_snapshotsSpec() {
+        TaskSpec spec = TaskSpec.of(0).a(2, 9).b(2, 9).ops('*');
+        TaskSpec.Sampler s = spec.sampler();
+        spec.result(100, 200); // ни одна задача уже не подходит
+        assertEquals(64, s.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noTasks_rejected() {
+        TaskSpec.of(0).a(1, 9).b(1, 9).ops('+').result(50, 60).sampler();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongOpForScale_rejected() {
+        TaskSpec.of(1).ops('*');
+    }
+
+    // ---------- точное распределение ----------
+
+    // Вызовы генератора по заранее заданным исходам; дальше заданного — 0 с запоминанием bound
+    private static final class Script implements TaskRandom {
+        final List<long[]> calls = new ArrayList<>(); // {исход, bound}
+        int pos;
+
+        long take(long bound) {
+            if (pos == calls.size()) calls.add(new long[] {0, bound});
+            long[] c = calls.get(pos++);
+            assertEquals(c[1], bound);
+            return c[0];
+        }
+
+        @Override public int nextInt(int bound)    { return (int) take(bound); }
+        @Override public long nextLong(long bound) { return take(bound); }
+        @Override public TaskRandom split()        { throw new UnsupportedOperationException(); }
+    }
+
+    private static Map<List<Integer>, Double> distribution(TaskSpec.Sampler s) {
+        Map<List<Integer>, Double> p = new HashMap<>();
+        Script script = new Script();
+        TaskSpec.Draw d = new TaskSpec.Draw();
+        while (true) {
+            script.pos = 0;
+            s.next(script, d);
+            while (script.calls.size() > script.pos) script.calls.remove(script.calls.size() - 1);
+            double prob = 1;
+            for (long[] c : script.calls) prob /= c[1];
+            p.merge(Arrays.asList(d.a(), d.b(), (int) d.op()), prob, Double::sum);
+            // следующий набор исходов — как счётчик с основаниями bound
+            int i = script.calls.size() - 1;
+            while (i >= 0 && script.calls.get(i)[0] + 1 == script.calls.get(i)[1]) script.calls.remove(i--);
+            if (i < 0) return p;
+            script.calls.get(i)[0]++;
+        }
+    }
+}
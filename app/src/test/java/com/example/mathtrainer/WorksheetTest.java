@@ -0,0 +1,102 @@
+package com.example.mathtrainer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class WorksheetTest {
+
+    private static final int COUNT = 2 * Worksheet.CHUNK + 5;
+
+    @Rule public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void output_dependsOnSeedNotOnParallelism() throws IOException {
+        Worksheet w = Worksheet.allTypes();
+        String single = render(w, Worksheet.Format.CSV, COUNT, 11, new ForkJoinPool(1));
+        String many = render(w, Worksheet.Format.CSV, COUNT, 11, new ForkJoinPool(4));
+        assertEquals(single, many);
+        assertNotEquals(single, render(w, Worksheet.Format.CSV, COUNT, 12, new ForkJoinPool(4)));
+    }
+
+    @Test
+    public void csv_rowsAreNumberedAndAnswersMatchKey() throws IOException {
+        Worksheet w = Worksheet.allTypes();
+        String[] csv = render(w, Worksheet.Format.CSV, COUNT, 3, ForkJoinPool.commonPool()).split("\n");
+        String[] text = render(w, Worksheet.Format.TEXT, COUNT, 3, ForkJoinPool.commonPool()).split("\n");
+        String[] key = render(w, Worksheet.Format.TEXT_KEY, COUNT, 3, ForkJoinPool.commonPool()).split("\n");
+        assertEquals("n,question,answer", csv[0]);
+        assertEquals(COUNT + 1, csv.length);
+        assertEquals(COUNT, text.length);
+        assertEquals(COUNT, key.length);
+        for (int i = 1; i <= COUNT; i++) {
+            String[] cols = csv[i].split(",");
+            assertEquals(String.valueOf(i), cols[0]);
+            assertEquals(i + ". " + cols[1], text[i - 1]);
+            assertEquals(i + ". " + cols[2], key[i - 1]);
+        }
+    }
+
+    @Test
+    public void selectedTypes_only() throws IOException {
+        Worksheet w = new Worksheet(new int[] {0}, new int[] {3});
+        String[] csv = render(w, Worksheet.Format.CSV, 1000, 5, ForkJoinPool.commonPool()).split("\n");
+        for (int i = 1; i < csv.length; i++) {
+            String q = csv[i].split(",")[1];
+            assertTrue(q, q.contains("÷") || q.matches("\\d \\D \\d = \\?"));
+        }
+    }
+
+    @Test
+    public void laterLevels_areSelectable() throws IOException {
+        Worksheet w = new Worksheet(new int[0], new int[0], new int[] {0}, new int[] {2});
+        String[] csv = render(w, Worksheet.Format.CSV, 1000, 5, ForkJoinPool.commonPool()).split("\n");
+        boolean division = false, expression = false;
+        for (int i = 1; i < csv.length; i++) {
+            String[] cols = csv[i].split(",");
+            division |= cols[1].matches("\\d+ ÷ \\d = \\?");
+            expression |= cols[1].matches("\\(\\d+ \\+ \\d+\\) × \\d = \\?");
+            assertTrue(cols[1], cols[1].matches("\\d+ ÷ \\d = \\?|\\(\\d+ \\+ \\d+\\) × \\d = \\?"));
+            assertEquals(cols[1], Expression.compile(cols[1].replace(" = ?", "")).evaluate(),
+                    Integer.parseInt(cols[2]));
+        }
+        assertTrue(division && expression);
+    }
+
+    @Test
+    public void writeFile_matchesChannel() throws IOException {
+        File file = tmp.newFile("sheet.csv");
+        Worksheet w = Worksheet.allTypes();
+        long bytes = w.write(file, Worksheet.Format.CSV, 100, 9);
+        assertEquals(file.length(), bytes);
+        assertEquals(render(w, Worksheet.Format.CSV, 100, 9, ForkJoinPool.commonPool()),
+                new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void json_isWellFormedList() throws IOException {
+        Worksheet w = Worksheet.allTypes();
+        assertEquals("[\n]\n", render(w, Worksheet.Format.JSON, 0, 1, ForkJoinPool.commonPool()));
+        String json = render(w, Worksheet.Format.JSON, 3, 1, ForkJoinPool.commonPool());
+        assertTrue(json, json.matches("\\[\\n\\{\"n\":1,\"q\":\"[^\"]+\",\"a\":[0-9.]+},\\n"
+                + "\\{\"n\":2,[^}]+},\\n\\{\"n\":3,[^}]+}\\n]\\n"));
+    }
+
+    private static String render(Worksheet w, Worksheet.Format f, long count, long seed, ForkJoinPool pool)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long bytes = w.write(Channels.newChannel(out), f, count, seed, pool);
+        assertEquals(out.size(), bytes);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
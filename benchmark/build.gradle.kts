@@ -0,0 +1,54 @@
+// JVM-бенчмарки (JMH) для платформо-независимой логики app. Запуск без устройства:
+//   ./gradlew :benchmark:jmh
+import com.example.mathtrainer.build.CompileLevelsTask
+
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+// те же таблицы уровней, что и в APK (см. app/build.gradle.kts)
+val compileLevels by tasks.registering(CompileLevelsTask::class) {
+    levels.set(layout.projectDirectory.file("../app/src/main/levels/levels.conf"))
+    outputDir.set(layout.buildDirectory.dir("generated/levels"))
+}
+
+// Android-модуль нельзя подключить зависимостью к обычному JVM-модулю,
+// поэтому классы без android.* компилируются прямо из исходников app.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            exclude(
+                "**/*Activity.java",
+                "**/TaskAdapter.java",
+                "**/AppProfiles.java",
+                "**/Ticker.java",
+                "**/Startup.java",
+                "**/WinScreen.java",
+            )
+        }
+        resources.srcDir(compileLevels)
+    }
+}
+
+// Пропускная способность и среднее время; профилировщик gc добавляет
+// gc.alloc.rate.norm — байты аллокаций на операцию.
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    benchmarkMode.set(listOf("thrpt", "avgt"))
+    timeUnit.set("ns")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+}
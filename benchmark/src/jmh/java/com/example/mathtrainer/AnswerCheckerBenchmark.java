@@ -0,0 +1,71 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Разбор и проверка ответа (то, что делают checkAnswer в MainActivity и Level2Activity).
+ * Ввод — смесь верных, неверных и «мусорных» строк.
+ */
+@State(Scope.Thread)
+public class AnswerCheckerBenchmark {
+
+    private static final int N = 1024; // степень двойки для маски
+
+    private final Task[] tasks = new Task[N];
+    private final String[] intInputs = new String[N];
+    private final DecimalTask[] decimalTasks = new DecimalTask[N];
+    private final String[] decimalInputs = new String[N];
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        for (int k = 0; k < N; k++) {
+            tasks[k] = Task.random();
+            decimalTasks[k] = DecimalTask.random();
+            switch (rnd.nextInt(4)) {
+                case 0:
+                    intInputs[k] = String.valueOf(tasks[k].getAnswer() + 1);
+                    decimalInputs[k] = "0,1";
+                    break;
+                case 1:
+                    intInputs[k] = "12a";
+                    decimalInputs[k] = "1..2";
+                    break;
+                default:
+                    intInputs[k] = String.valueOf(tasks[k].getAnswer());
+                    decimalInputs[k] = decimalTasks[k].getAnswer().toPlainString().replace('.', ',');
+            }
+        }
+    }
+
+    @Benchmark
+    public AnswerChecker.Result checkInt() {
+        int k = i = (i + 1) & (N - 1);
+        return AnswerChecker.checkInt(intInputs[k], tasks[k]);
+    }
+
+    @Benchmark
+    public AnswerChecker.Result checkDecimal() {
+        int k = i = (i + 1) & (N - 1);
+        return AnswerChecker.checkDecimal(decimalInputs[k], decimalTasks[k]);
+    }
+
+    /** Прежний путь MainActivity: trim + Integer.parseInt с исключением на мусоре. */
+    @Benchmark
+    public boolean checkIntLegacy() {
+        int k = i = (i + 1) & (N - 1);
+        String txt = intInputs[k].trim();
+        if (txt.isEmpty()) return false;
+        try {
+            return Integer.parseInt(txt) == tasks[k].getAnswer();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
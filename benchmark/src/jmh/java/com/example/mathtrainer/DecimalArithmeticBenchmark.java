@@ -0,0 +1,116 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Фиксированная точка (int-десятые) против прежней арифметики на BigDecimal:
+ * ответ, текст вопроса и проверка ввода для всего набора задач второго уровня.
+ *
+ * Аллокации на операцию — в колонке gc.alloc.rate.norm.
+ */
+@State(Scope.Thread)
+public class DecimalArithmeticBenchmark {
+
+    private static final int N = 1024; // степень двойки для маски
+
+    private DecimalTask[] tasks;
+    private BigDecimal[] legacyA, legacyB;
+    private char[] ops;
+    private String[] inputs;
+    private int i;
+
+    @Setup
+    public void setup() {
+        TaskRandom rnd = TaskRandom.seeded(42);
+        tasks = new DecimalTask[N];
+        legacyA = new BigDecimal[N];
+        legacyB = new BigDecimal[N];
+        ops = new char[N];
+        inputs = new String[N];
+        for (int k = 0; k < N; k++) {
+            DecimalTaskCatalog c = DecimalTaskCatalog.forType(rnd.nextInt(DecimalTaskCatalog.TYPES));
+            DecimalTask t = c.random(rnd);
+            tasks[k] = t;
+            legacyA[k] = BigDecimal.valueOf(t.getATenths(), 1);
+            legacyB[k] = BigDecimal.valueOf(t.getBTenths(), 1);
+            ops[k] = t.getOp();
+            inputs[k] = t.getAnswer().toPlainString().replace('.', ',');
+        }
+    }
+
+    private int next() {
+        return i = (i + 1) & (N - 1);
+    }
+
+    // ---------- Ответ ----------
+
+    @Benchmark
+    public int answerTenths() {
+        return tasks[next()].getAnswerTenths();
+    }
+
+    @Benchmark
+    public BigDecimal answerLegacyBigDecimal() {
+        int k = next();
+        return Legacy.answer(legacyA[k], legacyB[k], ops[k]);
+    }
+
+    // ---------- Текст вопроса ----------
+
+    @Benchmark
+    public String textTenths() {
+        DecimalTask t = tasks[next()];
+        return DecimalTask.buildText(t.getATenths(), t.getBTenths(), t.getOp());
+    }
+
+    @Benchmark
+    public String textLegacyBigDecimal() {
+        int k = next();
+        return Legacy.fmt(legacyA[k]) + " " + ops[k] + " " + Legacy.fmt(legacyB[k]) + " = ?";
+    }
+
+    // ---------- Разбор и сравнение ввода ----------
+
+    @Benchmark
+    public boolean checkTenths() {
+        int k = next();
+        return tasks[k].isCorrect(DecimalTask.parseTenths(inputs[k]));
+    }
+
+    @Benchmark
+    public boolean checkLegacyBigDecimal() {
+        int k = next();
+        BigDecimal user = new BigDecimal(inputs[k].replace(',', '.')).setScale(1, RoundingMode.HALF_UP);
+        return user.compareTo(Legacy.answer(legacyA[k], legacyB[k], ops[k])) == 0;
+    }
+
+    /** Прежняя реализация DecimalTask на BigDecimal — точка отсчёта. */
+    static final class Legacy {
+        static BigDecimal answer(BigDecimal a, BigDecimal b, char op) {
+            BigDecimal res;
+            switch (op) {
+                case '+': res = a.add(b); break;
+                case '-': res = a.subtract(b); break;
+                case '×': res = a.multiply(BigDecimal.valueOf(b.intValue())); break;
+                case '÷':
+                    int k = BigDecimal.valueOf(b.intValue()).intValueExact();
+                    res = a.divide(BigDecimal.valueOf(k), 1, RoundingMode.UNNECESSARY);
+                    break;
+                default:  res = BigDecimal.ZERO;
+            }
+            return res.setScale(1, RoundingMode.UNNECESSARY);
+        }
+
+        static String fmt(BigDecimal x) {
+            BigDecimal z = x.stripTrailingZeros();
+            if (z.scale() <= 0) return z.toPlainString();
+            return x.setScale(1, RoundingMode.UNNECESSARY).toPlainString();
+        }
+    }
+}
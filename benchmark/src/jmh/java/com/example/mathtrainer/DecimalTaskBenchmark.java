@@ -0,0 +1,47 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+
+/** Второй уровень: генерация, ответ и текст вопроса. */
+@State(Scope.Thread)
+public class DecimalTaskBenchmark {
+
+    private static final int N = 1024; // степень двойки для маски
+
+    private final DecimalTask[] tasks = new DecimalTask[N];
+    private int i;
+
+    @Setup
+    public void setup() {
+        for (int k = 0; k < N; k++) tasks[k] = DecimalTask.random();
+    }
+
+    private DecimalTask next() {
+        return tasks[i = (i + 1) & (N - 1)];
+    }
+
+    @Benchmark
+    public DecimalTask random() {
+        return DecimalTask.random();
+    }
+
+    @Benchmark
+    public BigDecimal getAnswer() {
+        return next().getAnswer();
+    }
+
+    @Benchmark
+    public int getAnswerTenths() {
+        return next().getAnswerTenths();
+    }
+
+    @Benchmark
+    public String getText() {
+        return next().getText();
+    }
+}
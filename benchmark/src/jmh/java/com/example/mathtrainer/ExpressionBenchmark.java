@@ -0,0 +1,84 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Уровень 4: вычисление скомпилированного {@link Expression} против разбора текста на каждый
+ * вызов и генерация задачи — таблица каталога против отбраковки по тем же доменам.
+ */
+@State(Scope.Thread)
+public class ExpressionBenchmark {
+
+    /** Тип уровня 4 — строка levels.conf: домены a, b, c и границы ответа. */
+    @Param({"0", "1", "2", "3", "4"})
+    public int type;
+
+    private static final String[] EXPR = {"a + b × c", "a × b - c", "(a + b) × c", "(a - b) × c", "a ÷ b + c"};
+    private static final int[][] DOMAINS = { // aMin, aMax, bMin, bMax (-1 — до a), cMin, cMax, rMin
+            {1, 20, 2, 9, 2, 9, 0},
+            {2, 9, 2, 9, 1, 20, 1},
+            {1, 12, 1, 12, 2, 9, 0},
+            {2, 20, 1, -1, 2, 9, 1},
+            {4, 81, 2, 9, 1, 20, 0},
+    };
+    private static final int R_MAX = 100;
+
+    private Expression expression;
+    private TaskCatalog catalog;
+    private TaskRandom rnd;
+    private int[] stack;
+    private int[][] bindings;
+    private String[] texts;
+    private int i;
+
+    @Setup
+    public void setup() {
+        expression = Expression.compile(EXPR[type]);
+        catalog = TaskCatalog.forType(4, type);
+        rnd = TaskRandom.seeded(2024);
+        stack = new int[expression.stackSize()];
+        bindings = new int[256][];
+        texts = new String[bindings.length];
+        for (int k = 0; k < bindings.length; k++) {
+            int j = rnd.nextInt(catalog.size());
+            bindings[k] = new int[] {catalog.a(j), catalog.b(j), catalog.c(j)};
+            texts[k] = expression.text(bindings[k]);
+        }
+    }
+
+    @Benchmark
+    public int evaluateCompiled() {
+        return expression.evaluate(bindings[i++ & 255], stack);
+    }
+
+    /** Без компиляции: текст разбирается при каждом вычислении. */
+    @Benchmark
+    public int parseAndEvaluate() {
+        return Expression.compile(texts[i++ & 255]).evaluate();
+    }
+
+    @Benchmark
+    public Task generateCatalog() {
+        return catalog.random(rnd);
+    }
+
+    /** Случайные a, b, c до целого ответа в границах; задача с текстом, как у каталога. */
+    @Benchmark
+    public Task generateRejection() {
+        int[] d = DOMAINS[type];
+        int[] vars = new int[3];
+        int r;
+        do {
+            vars[0] = d[0] + rnd.nextInt(d[1] - d[0] + 1);
+            int bMax = d[3] < 0 ? vars[0] : d[3];
+            vars[1] = d[2] + rnd.nextInt(bMax - d[2] + 1);
+            vars[2] = d[4] + rnd.nextInt(d[5] - d[4] + 1);
+            r = expression.evaluate(vars, stack);
+        } while (r == Expression.NOT_AN_INTEGER || r < d[6] || r > R_MAX);
+        return new Task(expression.text(vars) + " = ?", r);
+    }
+}
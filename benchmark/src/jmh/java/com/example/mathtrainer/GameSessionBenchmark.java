@@ -0,0 +1,57 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Прогон игрового процесса без эмулятора: одна операция — один отвеченный вопрос
+ * (проверка ввода, начисление баллов, выдача следующей задачи). Время — ручные часы,
+ * ответы заранее подготовлены по id задачи в каталоге.
+ */
+@State(Scope.Thread)
+public class GameSessionBenchmark {
+
+    private long now;
+    private GameSession<Task> intSession;
+    private GameSession<DecimalTask> decimalSession;
+    private String[] intAnswers;
+    private String[] decimalAnswers;
+
+    @Setup
+    public void setup() {
+        intAnswers = new String[TaskCatalog.totalSize()];
+        for (int id = 0; id < intAnswers.length; id++) {
+            TaskCatalog c = TaskCatalog.forId(id);
+            intAnswers[id] = String.valueOf(c.task(id - c.idBase()).getAnswer());
+        }
+        decimalAnswers = new String[DecimalTaskCatalog.totalSize()];
+        for (int id = 0; id < decimalAnswers.length; id++) {
+            DecimalTaskCatalog c = DecimalTaskCatalog.forId(id);
+            decimalAnswers[id] = c.task(id - c.idBase()).getAnswer().toPlainString();
+        }
+
+        GameClock clock = () -> now;
+        intSession = new GameSession<>(TaskSource.integers(), clock, null);
+        decimalSession = new GameSession<>(TaskSource.decimals(), clock, null);
+        intSession.start();
+        decimalSession.start();
+    }
+
+    @Benchmark
+    public double answerInt() {
+        now += 7_000;
+        intSession.submit(intAnswers[intSession.currentTask().getId()]);
+        if (intSession.isFinished()) intSession.start();
+        return intSession.totalScore();
+    }
+
+    @Benchmark
+    public double answerDecimal() {
+        now += 7_000;
+        decimalSession.submit(decimalAnswers[decimalSession.currentTask().getId()]);
+        if (decimalSession.isFinished()) decimalSession.start();
+        return decimalSession.totalScore();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Статистика по истории из 500 000 ответов: запросы к отображённому файлу
+ * против прохода по всему журналу (то, что пришлось бы делать без индекса).
+ */
+@State(Scope.Benchmark)
+public class HistoryStoreBenchmark {
+
+    private static final int RECORDS = 500_000;
+
+    private File dir;
+    private File logFile;
+    private HistoryStore store;
+    private int factId;      // факт из каждой десятой записи
+    private int firstDay;
+    private int days;
+    private int step;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("history-bench").toFile();
+        logFile = new File(dir, "events.bin");
+        long[] wall = {1_700_000_000_000L};
+        EventLog log = new EventLog(logFile, Runnable::run, () -> wall[0]);
+        Random rnd = new Random(42);
+        Task frequent = Task.random();
+        factId = frequent.getId();
+        for (int i = 0; i < RECORDS; i++) {
+            wall[0] += rnd.nextInt(120_000);
+            long latency = rnd.nextInt(130_000);
+            Task t = i % 10 == 0 ? frequent : Task.random();
+            log.append(t, latency, rnd.nextInt(2), GameSession.pointsFor(latency / 1000));
+        }
+        log.flush();
+        store = HistoryStore.openFresh(logFile, new File(dir, "history.bin"), 0L);
+        firstDay = store.day(0);
+        days = store.dayCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public double factMean() {
+        return store.meanLatencyMs(store.factBlock(1, factId));
+    }
+
+    @Benchmark
+    public int factP90() {
+        return store.percentileLatencyMs(store.factBlock(1, factId), 0.9);
+    }
+
+    @Benchmark
+    public long dayTotals() {
+        int block = store.dayBlock(firstDay + (step = (step + 1) % days));
+        return block < 0 ? 0 : store.sumPointsMilli(block) + store.count(block);
+    }
+
+    @Benchmark
+    public int opP50() {
+        return store.percentileLatencyMs(store.opBlock(1, '*'), 0.5);
+    }
+
+    /** Без индекса: прочитать весь журнал и посчитать среднее по факту. */
+    @Benchmark
+    public double factMeanByReplay() throws IOException {
+        long sum = 0;
+        int n = 0;
+        try (EventLog.Cursor c = EventLog.Cursor.open(logFile)) {
+            while (c.next()) {
+                if (c.level() == 1 && c.taskId() == factId) {
+                    sum += c.latencyMs();
+                    n++;
+                }
+            }
+        }
+        return sum / (double) n;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+
+/**
+ * Текст шапки на каждом тике: MM:SS и балл "%.3f".
+ * Прежний путь — String.format, новый — {@link HudText} в собственный char[].
+ */
+@State(Scope.Thread)
+public class HudTextBenchmark {
+
+    private static final Locale RU = new Locale("ru", "RU");
+
+    private HudText hud;
+    private long sec;
+    private int step;
+
+    @Setup
+    public void setup() {
+        hud = new HudText(RU);
+    }
+
+    @Benchmark
+    public String timeLegacy() {
+        long s = sec = (sec + 1) % 7200;
+        return String.format(RU, "%02d:%02d", s / 60, s % 60);
+    }
+
+    @Benchmark
+    public int time() {
+        long s = sec = (sec + 1) % 7200;
+        return hud.time(s);
+    }
+
+    @Benchmark
+    public String pointsLegacy() {
+        int k = step = (step + 1) % 121;
+        return String.format(RU, "%.3f", GameSession.pointsFor(k));
+    }
+
+    @Benchmark
+    public int points() {
+        int k = step = (step + 1) % 121;
+        return hud.points(GameSession.pointsFor(k));
+    }
+}
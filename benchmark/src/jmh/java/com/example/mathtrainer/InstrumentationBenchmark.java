@@ -0,0 +1,41 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Цена замера на горячем пути: start/stop при включённых и выключенных замерах. */
+@State(Scope.Thread)
+public class InstrumentationBenchmark {
+
+    @Param({"true", "false"})
+    public boolean enabled;
+
+    private long v;
+
+    @Setup
+    public void setup() {
+        Instrumentation.setEnabled(enabled);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Instrumentation.setEnabled(true);
+        Instrumentation.reset();
+    }
+
+    @Benchmark
+    public long startStop() {
+        long t = Instrumentation.start();
+        Instrumentation.stop(Instrumentation.TICK, t);
+        return t;
+    }
+
+    @Benchmark
+    public void record() {
+        Instrumentation.BIND.record(v = (v + 7_919) & 0xFFFFF);
+    }
+}
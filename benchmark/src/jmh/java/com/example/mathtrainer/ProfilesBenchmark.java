@@ -0,0 +1,77 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.Executor;
+
+/**
+ * Переключение между 30 профилями на главном потоке (бюджет — кадр, 16 мс):
+ * первое переключение читает заголовок шарда, повторные — только память.
+ * Запись реестра уходит писателю и здесь не считается.
+ */
+@State(Scope.Benchmark)
+public class ProfilesBenchmark {
+
+    private static final int PROFILES = 30;
+
+    private static final Executor DROP = r -> {}; // фоновая запись — не на главном потоке
+
+    private File root;
+    private Profiles warm;
+    private int[] ids;
+    private int k;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("profiles-bench").toFile();
+        long[] wall = {1_700_000_000_000L};
+        Profiles p = Profiles.open(root, Runnable::run, () -> wall[0]++);
+        for (int i = 1; i < PROFILES; i++) p.create("Ученик " + (i + 1));
+        ids = new int[PROFILES];
+        for (int i = 0; i < PROFILES; i++) {
+            Profiles.Profile profile = p.list().get(i);
+            ids[i] = profile.id();
+            for (int run = 0; run < 20; run++) profile.noteRun(1 + run % 2, 60_000 + run * 1_000);
+        }
+        warm = Profiles.open(root, DROP, () -> wall[0]);
+        for (int id : ids) warm.switchTo(id);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        File[] dirs = root.listFiles();
+        if (dirs != null) {
+            for (File d : dirs) {
+                File[] files = d.listFiles();
+                if (files != null) for (File f : files) f.delete();
+                d.delete();
+            }
+        }
+        root.delete();
+    }
+
+    /** Заголовки уже в памяти. */
+    @Benchmark
+    public Profiles.Header switchWarm() {
+        k = k + 1 == PROFILES ? 0 : k + 1;
+        return warm.switchTo(ids[k]).header();
+    }
+
+    /** Открыть реестр и пройти по всем профилям: каждый читает свой заголовок с диска. */
+    @Benchmark
+    @OperationsPerInvocation(PROFILES)
+    public Profiles openAndSwitchAll() {
+        Profiles p = Profiles.open(root, DROP, () -> 0L);
+        for (int id : ids) p.switchTo(id);
+        return p;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Расписание повторений на всём пространстве фактов уровня 1 (10 594) и уровня 2 (11 237):
+ * выбор следующей задачи с учётом ответа и загрузка при старте из снимка, где
+ * отвечали на каждый факт (худший случай по размеру).
+ */
+@State(Scope.Thread)
+public class RepetitionSchedulerBenchmark {
+
+    private RepetitionScheduler level1;
+    private RepetitionScheduler level2;
+    private byte[] fullSnapshot1;
+    private int prev1 = -1;
+    private int prev2 = -1;
+    private int k;
+
+    @Setup
+    public void setup() {
+        level1 = new RepetitionScheduler(TaskCatalog.idProbabilities(), 1);
+        level2 = new RepetitionScheduler(DecimalTaskCatalog.idProbabilities(), 2);
+        RepetitionScheduler full = new RepetitionScheduler(TaskCatalog.idProbabilities(), 3);
+        for (int f = 0; f < full.size(); f++) full.record(f, (f % 13) * 7_000L, f % 9 == 0 ? 1 : 0);
+        fullSnapshot1 = full.snapshot();
+    }
+
+    @Benchmark
+    public int nextAndRecordLevel1() {
+        int f = prev1 = level1.next(prev1);
+        level1.record(f, (k = (k + 1) & 63) * 1_500L, k == 0 ? 1 : 0);
+        return f;
+    }
+
+    @Benchmark
+    public int nextAndRecordLevel2() {
+        int f = prev2 = level2.next(prev2);
+        level2.record(f, (k = (k + 1) & 63) * 1_500L, k == 0 ? 1 : 0);
+        return f;
+    }
+
+    /** Прежний выбор для сравнения: равномерно, без учёта ответов. */
+    @Benchmark
+    public Task randomExceptLegacy() {
+        return Task.randomExcept(null);
+    }
+
+    @Benchmark
+    public RepetitionScheduler loadFullLevel1() throws IOException {
+        return RepetitionScheduler.restore(fullSnapshot1, TaskCatalog.idProbabilities());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Первый уровень: генерация задачи по типу и текст вопроса. */
+@State(Scope.Thread)
+public class TaskBenchmark {
+
+    @Param({"0", "1", "2"})
+    public int type;
+
+    private Task task;
+
+    @Setup
+    public void setup() {
+        task = Task.generate(type);
+    }
+
+    @Benchmark
+    public Task generate() {
+        return Task.generate(type);
+    }
+
+    @Benchmark
+    public Task randomExcept() {
+        return task = Task.randomExcept(task);
+    }
+
+    @Benchmark
+    public String getText() {
+        return Task.generate(type).getText();
+    }
+
+    /** Задача вне каталога: текст собирается конкатенацией на каждый вызов. */
+    @Benchmark
+    public String getTextUncached() {
+        Task t = Task.generate(type);
+        return new Task(t.getA(), t.getB(), t.getOp()).getText();
+    }
+}
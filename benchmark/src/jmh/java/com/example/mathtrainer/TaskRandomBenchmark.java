@@ -0,0 +1,65 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Random;
+
+/**
+ * Генерация задач из нескольких потоков сразу (как массовая генерация листов):
+ * прежний общий {@link Random} (одна CAS-ячейка seed на всех) против
+ * {@link TaskRandom#shared()} и отдельного seeded-потока у каждого потока.
+ */
+@Threads(4)
+public class TaskRandomBenchmark {
+
+    private static final Random LEGACY = new Random();
+    private static final TaskRandom LEGACY_ADAPTER = new TaskRandom() {
+        @Override public int nextInt(int bound) { return LEGACY.nextInt(bound); }
+        @Override public TaskRandom split()     { return this; }
+    };
+
+    private static final TaskRandom ROOT = TaskRandom.seeded(2024);
+
+    @State(Scope.Thread)
+    public static class PerThread {
+        TaskRandom rnd;
+        Task task;
+        DecimalTask decimal;
+
+        @Setup
+        public void setup() {
+            synchronized (ROOT) {
+                rnd = ROOT.split();
+            }
+        }
+    }
+
+    @Benchmark
+    public Task legacyRandomExcept(PerThread s) {
+        return s.task = Task.randomExcept(LEGACY_ADAPTER, s.task);
+    }
+
+    @Benchmark
+    public Task sharedRandomExcept(PerThread s) {
+        return s.task = Task.randomExcept(TaskRandom.shared(), s.task);
+    }
+
+    @Benchmark
+    public Task seededRandomExcept(PerThread s) {
+        return s.task = Task.randomExcept(s.rnd, s.task);
+    }
+
+    @Benchmark
+    public DecimalTask legacyDecimal(PerThread s) {
+        return s.decimal = DecimalTask.random(LEGACY_ADAPTER);
+    }
+
+    @Benchmark
+    public DecimalTask seededDecimal(PerThread s) {
+        return s.decimal = DecimalTask.random(s.rnd);
+    }
+}
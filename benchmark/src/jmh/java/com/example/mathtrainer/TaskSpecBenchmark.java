@@ -0,0 +1,138 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Генераторы по описанию {@link TaskSpec} против написанных вручную циклов отбраковки
+ * (как прежние genAddSub / genMul / genDiv, но на int в десятых) и таблиц каталога.
+ * Wide — домен, который не перечислить: a, b до миллиона, ответ в узком окне.
+ */
+public class TaskSpecBenchmark {
+
+    @State(Scope.Thread)
+    public static class Level2 {
+        /** Тип второго уровня: 0 — дробь ± дробь, 1 — целое ± дробь, 2 — × k, 3 — ÷ k. */
+        @Param({"0", "1", "2", "3"})
+        public int type;
+
+        TaskRandom rnd;
+        DecimalTaskCatalog catalog;
+        TaskSpec.Sampler enumerate, prune;
+        final TaskSpec.Draw draw = new TaskSpec.Draw();
+
+        @Setup
+        public void setup() {
+            rnd = TaskRandom.seeded(2024);
+            catalog = DecimalTaskCatalog.forType(type);
+            TaskSpec spec = spec(type);
+            enumerate = spec.sampler(TaskSpec.Strategy.ENUMERATE);
+            prune = spec.sampler(TaskSpec.Strategy.PRUNE);
+        }
+    }
+
+    static TaskSpec spec(int type) {
+        switch (type) {
+            case 0:  return TaskSpec.of(1).a(1, 99).b(1, 99).ops('+', '-').result(1, 99);
+            case 1:  return TaskSpec.of(1).a(0, 90, 10).b(1, 99).ops('+', '-').result(1, 99);
+            case 2:  return TaskSpec.of(1).a(1, 99).b(10, 90, 10).ops('×').result(1, 99).outerB().rows();
+            default: return TaskSpec.of(1).a(1, 99).b(10, 90, 10).ops('÷').result(1, 99).outerB();
+        }
+    }
+
+    @Benchmark
+    public TaskSpec.Draw handWritten(Level2 s) {
+        TaskRandom rnd = s.rnd;
+        TaskSpec.Draw d = s.draw;
+        switch (s.type) {
+            case 0:
+            case 1:
+                do {
+                    d.a = s.type == 0 ? 1 + rnd.nextInt(99) : 10 * rnd.nextInt(10);
+                    d.b = 1 + rnd.nextInt(99);
+                    d.op = rnd.nextInt(2) == 0 ? '+' : '-';
+                    d.result = d.op == '+' ? d.a + d.b : d.a - d.b;
+                } while (d.result <= 0 || d.result > 99);
+                return d;
+            case 2: {
+                int k = 1 + rnd.nextInt(9);
+                d.a = 1 + rnd.nextInt(99 / k);
+                d.b = 10 * k;
+                d.op = '×';
+                d.result = (long) d.a * k;
+                return d;
+            }
+            default: {
+                int k, r;
+                do {
+                    k = 1 + rnd.nextInt(9);
+                    r = 1 + rnd.nextInt(99);
+                } while (r * k > 99);
+                d.a = r * k;
+                d.b = 10 * k;
+                d.op = '÷';
+                d.result = r;
+                return d;
+            }
+        }
+    }
+
+    @Benchmark
+    public int catalog(Level2 s) {
+        return s.catalog.randomIndex(s.rnd);
+    }
+
+    @Benchmark
+    public TaskSpec.Draw enumerate(Level2 s) {
+        s.enumerate.next(s.rnd, s.draw);
+        return s.draw;
+    }
+
+    @Benchmark
+    public TaskSpec.Draw prune(Level2 s) {
+        s.prune.next(s.rnd, s.draw);
+        return s.draw;
+    }
+
+    // ---------- Широкий домен ----------
+
+    @State(Scope.Thread)
+    public static class Wide {
+        static final int N = 1_000_000;
+
+        /** Ширина окна ответа (N − window, N]: доля подходящих пар ≈ window / N / 2 … 1/2. */
+        @Param({"1000000", "1000"})
+        public int window;
+
+        TaskRandom rnd;
+        TaskSpec.Sampler prune;
+        final TaskSpec.Draw draw = new TaskSpec.Draw();
+
+        @Setup
+        public void setup() {
+            rnd = TaskRandom.seeded(2024);
+            prune = TaskSpec.of(0).a(1, N).b(1, N).ops('+').result(N - window + 1, N).sampler();
+        }
+    }
+
+    @Benchmark
+    public TaskSpec.Draw wideRejection(Wide s) {
+        TaskSpec.Draw d = s.draw;
+        do {
+            d.a = 1 + s.rnd.nextInt(Wide.N);
+            d.b = 1 + s.rnd.nextInt(Wide.N);
+            d.result = (long) d.a + d.b;
+        } while (d.result <= Wide.N - s.window || d.result > Wide.N);
+        d.op = '+';
+        return d;
+    }
+
+    @Benchmark
+    public TaskSpec.Draw widePrune(Wide s) {
+        s.prune.next(s.rnd, s.draw);
+        return s.draw;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.mathtrainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Лист на 10 млн задач всех типов в канал-заглушку (время на одну задачу):
+ * генерация и кодирование в один поток против всего пула.
+ */
+@State(Scope.Benchmark)
+public class WorksheetBenchmark {
+
+    private static final int N = 10_000_000;
+
+    @Param({"1", "0"}) // 0 — по числу ядер
+    public int threads;
+
+    @Param({"CSV", "JSON"})
+    public Worksheet.Format format;
+
+    private final Worksheet worksheet = Worksheet.allTypes();
+    private final WritableByteChannel sink = new WritableByteChannel() {
+        @Override public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        }
+        @Override public boolean isOpen() { return true; }
+        @Override public void close() {}
+    };
+    private ForkJoinPool pool;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public long write10M() throws IOException {
+        return worksheet.write(sink, format, N, seed++, pool);
+    }
+}
@@ -0,0 +1,28 @@
+// Инструменты сборки: компилятор объявлений уровней (LevelCompiler) и его задача Gradle.
+plugins {
+    java
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+// Описание типа задачи (TaskSpec) и выражения (Expression) — общие с app: один источник
+// правил для таблиц уровней при сборке и для генераторов на устройстве.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include("com/example/mathtrainer/build/**", "**/TaskSpec.java", "**/TaskRandom.java", "**/Expression.java")
+        }
+    }
+}
+
+dependencies {
+    implementation(gradleApi())
+}
@@ -0,0 +1,30 @@
+package com.example.mathtrainer.build;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.IOException;
+
+/** levels.conf → таблицы задач в каталоге ресурсов (см. {@link LevelCompiler}). */
+@CacheableTask
+public abstract class CompileLevelsTask extends DefaultTask {
+
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getLevels();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDir();
+
+    @TaskAction
+    public void compile() throws IOException {
+        LevelCompiler.compile(getLevels().get().getAsFile(), getOutputDir().get().getAsFile());
+    }
+}
@@ -0,0 +1,441 @@
+package com.example.mathtrainer.build;
+
+import com.example.mathtrainer.Expression;
+import com.example.mathtrainer.TaskSpec;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Компилятор объявлений уровней (app/src/main/levels/levels.conf, синтаксис — в его шапке)
+ * в готовые таблицы задач.
+ *
+ * Объявление типа переводится в {@link TaskSpec} (тот же класс app, подключён в buildSrc
+ * исходником), и {@link TaskSpec#forEach} перечисляет его при сборке: внешний операнд,
+ * внутренний, знаки — в порядке объявления. Тип-выражение (expr) перечисляет a, b, c
+ * и вычисляет скомпилированный {@link Expression}: остаются наборы с ответом нацело
+ * в границах result. Значения хранятся целыми в единицах scale (десятые для scale 1).
+ * Читает результат com.example.mathtrainer.LevelRegistry; формат меняется только вместе
+ * с {@link #VERSION}.
+ *
+ * levels/index.bin (big-endian):
+ * <pre>
+ * int MAGIC, int VERSION, int уровней
+ * на уровень: int номер, UTF название, byte scale, int цель × 1000, int free_time (сек), int типов
+ *             на тип: UTF название, UTF выражение ("" — a op b), int задач
+ * </pre>
+ * levels/level&lt;N&gt;.bin:
+ * <pre>
+ * int MAGIC, int VERSION, int номер, int типов
+ * на тип: int задач, int строк (0 — равномерный выбор), int[строк] начало строки,
+ *         int[задач] a, int[задач] b, затем char[задач] op или у выражения int[задач] c
+ * </pre>
+ */
+public final class LevelCompiler {
+
+    public static final int MAGIC   = 0x4D544C56; // "MTLV"
+    public static final int VERSION = 2;
+
+    /** Предел задач в типе: опечатка в домене не должна раздуть APK. */
+    static final int MAX_TYPE_SIZE = 1 << 20;
+
+    private LevelCompiler() {}
+
+    /** Запуск без Gradle: {@code LevelCompiler <levels.conf> <каталог ресурсов>}. */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) throw new IllegalArgumentException("Ожидается: <levels.conf> <каталог ресурсов>");
+        compile(new File(args[0]), new File(args[1]));
+    }
+
+    /** Разобрать объявления и записать таблицы в {@code outDir}/levels. */
+    public static void compile(File source, File outDir) throws IOException {
+        List<Level> levels = parse(source.getName(), Files.readAllLines(source.toPath(), StandardCharsets.UTF_8));
+        File dir = new File(outDir, "levels");
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Не создать каталог " + dir);
+        File[] stale = dir.listFiles();
+        if (stale != null) for (File f : stale) f.delete();
+
+        List<Table[]> tables = new ArrayList<>();
+        for (Level level : levels) {
+            Table[] t = new Table[level.types.size()];
+            for (int i = 0; i < t.length; i++) t[i] = enumerate(level, level.types.get(i));
+            tables.add(t);
+        }
+        try (DataOutputStream out = open(new File(dir, "index.bin"))) {
+            writeIndex(out, levels, tables);
+        }
+        for (int i = 0; i < levels.size(); i++) {
+            try (DataOutputStream out = open(new File(dir, "level" + levels.get(i).number + ".bin"))) {
+                writeLevel(out, levels.get(i).number, tables.get(i));
+            }
+        }
+    }
+
+    // ---------- Объявления ----------
+
+    static final class Domain {
+        final int min, max, step;
+        final boolean upToA; // «b 1..a»: верхняя граница — текущее a
+
+        Domain(int min, int max, int step, boolean upToA) {
+            this.min = min;
+            this.max = max;
+            this.step = step;
+            this.upToA = upToA;
+        }
+    }
+
+    static final class Type {
+        final String name;
+        final int line;
+        Domain a, b, c;
+        char[] ops;
+        Expression expr; // expr: вместо op
+        long resultMin = Long.MIN_VALUE, resultMax = Long.MAX_VALUE;
+        int divisor = 1; // divisible; whole — кратно единице
+        boolean bOuter;  // order b a
+        boolean rows;    // pick rows
+
+        Type(String name, int line) {
+            this.name = name;
+            this.line = line;
+        }
+    }
+
+    static final class Level {
+        final int number;
+        final String title;
+        int scale;
+        double target = 30.0;
+        int freeTimeSec = 60;
+        final List<Type> types = new ArrayList<>();
+
+        Level(int number, String title) {
+            this.number = number;
+            this.title = title;
+        }
+    }
+
+    /** Построчный разбор; ошибка — IllegalArgumentException с файлом и строкой. */
+    static List<Level> parse(String fileName, List<String> lines) {
+        List<Level> levels = new ArrayList<>();
+        Level level = null;
+        Type type = null;
+        for (int n = 1; n <= lines.size(); n++) {
+            String line = stripComment(lines.get(n - 1)).trim();
+            if (line.isEmpty()) continue;
+            int sp = line.indexOf(' ');
+            String key = sp < 0 ? line : line.substring(0, sp);
+            String arg = sp < 0 ? "" : line.substring(sp + 1).trim();
+            String at = fileName + ":" + n + ": ";
+            try {
+                if (key.equals("level")) {
+                    int q = arg.indexOf('"');
+                    int number = Integer.parseInt((q < 0 ? arg : arg.substring(0, q)).trim());
+                    if (number != levels.size() + 1) throw new IllegalArgumentException("уровни нумеруются подряд с 1");
+                    level = new Level(number, quoted(arg.substring(Math.max(q, 0))));
+                    levels.add(level);
+                    type = null;
+                    continue;
+                }
+                if (level == null) throw new IllegalArgumentException("«" + key + "» вне уровня");
+                switch (key) {
+                    case "scale":
+                        level.scale = Integer.parseInt(arg);
+                        if (level.scale != 0 && level.scale != 1) throw new IllegalArgumentException("scale — 0 или 1");
+                        if (!level.types.isEmpty()) throw new IllegalArgumentException("scale — до типов задач");
+                        break;
+                    case "target":    level.target = Double.parseDouble(arg); break;
+                    case "free_time": level.freeTimeSec = Integer.parseInt(arg); break;
+                    case "type":
+                        type = new Type(quoted(arg), n);
+                        level.types.add(type);
+                        break;
+                    default:
+                        if (type == null) throw new IllegalArgumentException("«" + key + "» вне типа задачи");
+                        typeKey(level, type, key, arg);
+                }
+            } catch (IllegalArgumentException e) { // NumberFormatException тоже
+                throw new IllegalArgumentException(at + e.getMessage(), e);
+            }
+        }
+        if (levels.isEmpty()) throw new IllegalArgumentException(fileName + ": нет ни одного уровня");
+        for (Level l : levels) {
+            if (l.types.isEmpty()) throw new IllegalArgumentException(fileName + ": у уровня " + l.number + " нет типов задач");
+            for (Type t : l.types) {
+                String at = fileName + ":" + t.line + ": ";
+                if (t.expr != null) checkExpression(at, l, t);
+                else if (t.a == null || t.b == null || t.ops == null) throw new IllegalArgumentException(at + "у типа нужны a, b и op");
+                else if (t.c != null) throw new IllegalArgumentException(at + "c — только у выражения (expr)");
+                if (t.a.upToA || (t.c != null && t.c.upToA)) throw new IllegalArgumentException(at + "«..a» — только у b");
+                if (t.b != null && t.b.upToA && t.bOuter) throw new IllegalArgumentException(at + "«b ..a» — только при order a b");
+            }
+        }
+        return levels;
+    }
+
+    private static void checkExpression(String at, Level level, Type t) {
+        if (t.ops != null) throw new IllegalArgumentException(at + "у выражения нет op");
+        if (level.scale != 0) throw new IllegalArgumentException(at + "выражения — только при scale 0");
+        if (t.bOuter) throw new IllegalArgumentException(at + "у выражения порядок только a b");
+        int vars = t.expr.variables();
+        if (vars == 0 || vars > 3) throw new IllegalArgumentException(at + "в выражении переменные a, b, c (хотя бы a)");
+        Domain[] d = {t.a, t.b, t.c};
+        for (int i = 0; i < d.length; i++) {
+            if ((d[i] != null) != (i < vars)) {
+                throw new IllegalArgumentException(at + "домены нужны ровно у переменных выражения (a.." + (char) ('a' + vars - 1) + ")");
+            }
+        }
+    }
+
+    private static void typeKey(Level level, Type type, String key, String arg) {
+        switch (key) {
+            case "a":      type.a = domain(arg, level.scale); break;
+            case "b":      type.b = domain(arg, level.scale); break;
+            case "c":      type.c = domain(arg, level.scale); break;
+            case "op":     type.ops = ops(arg, level.scale); break;
+            case "expr":   type.expr = Expression.compile(quoted(arg)); break;
+            case "result": {
+                int[] r = range(arg, level.scale);
+                type.resultMin = r[0];
+                type.resultMax = r[1];
+                break;
+            }
+            case "divisible": {
+                int d = units(arg, level.scale);
+                if (d <= 0) throw new IllegalArgumentException("делитель должен быть больше 0");
+                type.divisor = lcm(type.divisor, d);
+                break;
+            }
+            case "whole":
+                if (!arg.isEmpty()) throw new IllegalArgumentException("у whole нет аргументов");
+                type.divisor = lcm(type.divisor, level.scale == 0 ? 1 : 10);
+                break;
+            case "order":
+                if (!arg.equals("a b") && !arg.equals("b a")) throw new IllegalArgumentException("order — «a b» или «b a»");
+                type.bOuter = arg.equals("b a");
+                break;
+            case "pick":
+                if (!arg.equals("uniform") && !arg.equals("rows")) throw new IllegalArgumentException("pick — uniform или rows");
+                type.rows = arg.equals("rows");
+                break;
+            default:
+                throw new IllegalArgumentException("неизвестный ключ «" + key + "»");
+        }
+    }
+
+    private static Domain domain(String arg, int scale) {
+        String[] parts = arg.split("\\s+");
+        int step = 1;
+        if (parts.length == 3 && parts[1].equals("step")) {
+            step = units(parts[2], scale);
+            if (step <= 0) throw new IllegalArgumentException("шаг должен быть больше 0");
+        } else if (parts.length != 1) {
+            throw new IllegalArgumentException("ожидается <от>..<до> [step <шаг>]");
+        }
+        int dots = parts[0].indexOf("..");
+        if (dots > 0 && parts[0].substring(dots + 2).equals("a")) {
+            return new Domain(units(parts[0].substring(0, dots), scale), Integer.MAX_VALUE, step, true);
+        }
+        int[] r = range(parts[0], scale);
+        return new Domain(r[0], r[1], step, false);
+    }
+
+    private static int[] range(String arg, int scale) {
+        int dots = arg.indexOf("..");
+        if (dots <= 0) throw new IllegalArgumentException("ожидается диапазон <от>..<до>: " + arg);
+        int min = units(arg.substring(0, dots), scale);
+        int max = units(arg.substring(dots + 2), scale);
+        if (min > max) throw new IllegalArgumentException("пустой диапазон " + arg);
+        return new int[] {min, max};
+    }
+
+    // 9.9 при scale 1 → 99; лишние знаки — ошибка, а не округление
+    private static int units(String s, int scale) {
+        try {
+            return new BigDecimal(s.trim()).movePointRight(scale).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("«" + s + "»: больше " + scale + " знаков после запятой");
+        }
+    }
+
+    private static char[] ops(String arg, int scale) {
+        String allowed = scale == 0 ? "+-*÷" : "+-×÷";
+        String s = arg.replace(" ", "");
+        if (s.isEmpty()) throw new IllegalArgumentException("нет знаков операций");
+        for (int i = 0; i < s.length(); i++) {
+            if (allowed.indexOf(s.charAt(i)) < 0 || s.indexOf(s.charAt(i)) != i) {
+                throw new IllegalArgumentException("знаки при scale " + scale + ": " + allowed + ", без повторов");
+            }
+        }
+        return s.toCharArray();
+    }
+
+    private static int lcm(int x, int y) {
+        int a = x, b = y;
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return x / a * y;
+    }
+
+    private static String quoted(String arg) {
+        String s = arg.trim();
+        if (s.length() < 2 || s.charAt(0) != '"' || s.charAt(s.length() - 1) != '"') {
+            throw new IllegalArgumentException("название — в кавычках");
+        }
+        return s.substring(1, s.length() - 1);
+    }
+
+    private static String stripComment(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (c == '#' && !quoted) return line.substring(0, i);
+        }
+        return line;
+    }
+
+    // ---------- Перечисление ----------
+
+    static final class Table {
+        int[] a = new int[64], b = new int[64];
+        char[] op = new char[64];
+        int[] c;    // у выражения вместо op
+        int size;
+        int[] rowOffset = new int[0];
+
+        void put(int x, int y, char o) {
+            if (size == a.length) {
+                if (size >= MAX_TYPE_SIZE) throw new IllegalArgumentException("больше " + MAX_TYPE_SIZE + " задач в типе");
+                a = Arrays.copyOf(a, size * 2);
+                b = Arrays.copyOf(b, size * 2);
+                op = Arrays.copyOf(op, size * 2);
+                if (c != null) c = Arrays.copyOf(c, size * 2);
+            }
+            a[size] = x;
+            b[size] = y;
+            op[size] = o;
+            size++;
+        }
+    }
+
+    /** Объявление типа как {@link TaskSpec}; «b ..a» — домен b до максимума a и b ≤ a. */
+    static TaskSpec spec(Level level, Type type) {
+        TaskSpec spec = TaskSpec.of(level.scale)
+                .a(type.a.min, type.a.max, type.a.step)
+                .ops(type.ops);
+        if (type.b.upToA) spec.b(type.b.min, Math.max(type.b.min, type.a.max), type.b.step).bAtMostA();
+        else spec.b(type.b.min, type.b.max, type.b.step);
+        if (type.resultMin != Long.MIN_VALUE) spec.result(type.resultMin, type.resultMax);
+        if (type.divisor != 1) spec.resultDivisibleBy(type.divisor);
+        if (type.bOuter) spec.outerB();
+        if (type.rows) spec.rows();
+        return spec;
+    }
+
+    static Table enumerate(Level level, Type type) {
+        if (type.expr != null) return enumerateExpression(level, type);
+        Table t = new Table();
+        List<Integer> rows = new ArrayList<>();
+        int[] lastOuter = {0};
+        spec(level, type).forEach((a, b, op) -> {
+            int outer = type.bOuter ? b : a;
+            if (type.rows && (t.size == 0 || outer != lastOuter[0])) rows.add(t.size);
+            lastOuter[0] = outer;
+            t.put(a, b, op);
+        });
+        if (t.size == 0) {
+            throw new IllegalArgumentException("уровень " + level.number + ", тип «" + type.name + "»: нет ни одной задачи");
+        }
+        t.rowOffset = rows.stream().mapToInt(Integer::intValue).toArray();
+        return t;
+    }
+
+    // a — внешний, затем b, c; строки (pick rows) — по значению a
+    static Table enumerateExpression(Level level, Type type) {
+        Table t = new Table();
+        t.c = new int[t.a.length];
+        List<Integer> rows = new ArrayList<>();
+        Domain none = new Domain(0, 0, 1, false);
+        Domain da = type.a, db = type.b == null ? none : type.b, dc = type.c == null ? none : type.c;
+        int[] vars = new int[3];
+        int[] stack = new int[type.expr.stackSize()];
+        for (long x = da.min; x <= da.max; x += da.step) {
+            int rowStart = t.size;
+            long bMax = db.upToA ? x : db.max;
+            for (long y = db.min; y <= bMax; y += db.step) {
+                for (long z = dc.min; z <= dc.max; z += dc.step) {
+                    vars[0] = (int) x;
+                    vars[1] = (int) y;
+                    vars[2] = (int) z;
+                    int r = type.expr.evaluate(vars, stack);
+                    if (r == Expression.NOT_AN_INTEGER || r < type.resultMin || r > type.resultMax || r % type.divisor != 0) continue;
+                    t.put(vars[0], vars[1], '=');
+                    t.c[t.size - 1] = vars[2];
+                }
+            }
+            if (type.rows && t.size > rowStart) rows.add(rowStart);
+        }
+        if (t.size == 0) {
+            throw new IllegalArgumentException("уровень " + level.number + ", тип «" + type.name + "»: нет ни одной задачи");
+        }
+        t.rowOffset = rows.stream().mapToInt(Integer::intValue).toArray();
+        return t;
+    }
+
+    // ---------- Запись ----------
+
+    private static DataOutputStream open(File f) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)));
+    }
+
+    private static void writeIndex(DataOutputStream out, List<Level> levels, List<Table[]> tables) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(levels.size());
+        for (int i = 0; i < levels.size(); i++) {
+            Level l = levels.get(i);
+            out.writeInt(l.number);
+            out.writeUTF(l.title);
+            out.writeByte(l.scale);
+            out.writeInt((int) Math.round(l.target * 1000.0));
+            out.writeInt(l.freeTimeSec);
+            out.writeInt(l.types.size());
+            for (int t = 0; t < l.types.size(); t++) {
+                Type type = l.types.get(t);
+                out.writeUTF(type.name);
+                out.writeUTF(type.expr == null ? "" : type.expr.toString());
+                out.writeInt(tables.get(i)[t].size);
+            }
+        }
+    }
+
+    private static void writeLevel(DataOutputStream out, int number, Table[] tables) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(number);
+        out.writeInt(tables.length);
+        for (Table t : tables) {
+            out.writeInt(t.size);
+            out.writeInt(t.rowOffset.length);
+            for (int r : t.rowOffset) out.writeInt(r);
+            for (int i = 0; i < t.size; i++) out.writeInt(t.a[i]);
+            for (int i = 0; i < t.size; i++) out.writeInt(t.b[i]);
+            if (t.c != null) for (int i = 0; i < t.size; i++) out.writeInt(t.c[i]);
+            else for (int i = 0; i < t.size; i++) out.writeChar(t.op[i]);
+        }
+    }
+}
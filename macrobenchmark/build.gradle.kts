@@ -0,0 +1,48 @@
+// Macrobenchmark: холодный старт, открытие уровня и кадры при ответах на реальном
+// устройстве или эмуляторе. Запуск:
+//   ./gradlew :macrobenchmark:connectedBenchmarkReleaseAndroidTest
+//   ./gradlew :macrobenchmark:pixel6Api34BenchmarkReleaseAndroidTest   (управляемый эмулятор)
+// Профили для :app:
+//   ./gradlew :app:generateBaselineProfile
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.baselineprofile)
+}
+
+android {
+    namespace = "com.example.mathtrainer.macrobenchmark"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 28
+        targetSdk = 36
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+
+    targetProjectPath = ":app"
+
+    testOptions.managedDevices.localDevices {
+        create("pixel6Api34") {
+            device = "Pixel 6"
+            apiLevel = 34
+            systemImageSource = "aosp"
+        }
+    }
+}
+
+baselineProfile {
+    managedDevices += "pixel6Api34"
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(libs.ext.junit)
+    implementation(libs.espresso.core)
+    implementation(libs.uiautomator)
+    implementation(libs.benchmark.macro.junit4)
+}
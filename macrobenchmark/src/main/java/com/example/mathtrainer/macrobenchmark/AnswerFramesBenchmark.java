@@ -0,0 +1,47 @@
+package com.example.mathtrainer.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/** Кадры при ответах: 20 задач подряд в обычном режиме и в ленте истории. */
+@RunWith(AndroidJUnit4.class)
+public class AnswerFramesBenchmark {
+
+    private static final int ITERATIONS = 5;
+    private static final int ANSWERS = 20;
+
+    @Rule
+    public final MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Test public void level1() { answer("btnLevel1", false); }
+    @Test public void level1Feed() { answer("btnLevel1Feed", true); }
+    @Test public void level2() { answer("btnLevel2", false); }
+
+    private void answer(String button, boolean feed) {
+        rule.measureRepeated(Levels.PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(BaselineProfileMode.Require), StartupMode.WARM, ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    Levels.open(scope.getDevice(), button, feed);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Levels.answer(scope.getDevice(), ANSWERS, feed);
+                    return Unit.INSTANCE;
+                });
+    }
+}
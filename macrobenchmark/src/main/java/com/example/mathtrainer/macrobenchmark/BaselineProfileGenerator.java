@@ -0,0 +1,41 @@
+package com.example.mathtrainer.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Сбор Baseline Profile для :app ({@code ./gradlew :app:generateBaselineProfile}).
+ * Путь игрока: старт, уровень 1, лента, уровень 2 — правила попадают и в стартовый
+ * профиль (раскладка dex).
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public final BaselineProfileRule rule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        rule.collect(Levels.PACKAGE, 15, 3, null, true, false, name -> true, scope -> {
+            scope.pressHome();
+            scope.startActivityAndWait();
+            Levels.open(scope.getDevice(), "btnLevel1", false);
+            Levels.answer(scope.getDevice(), 5, false);
+            scope.getDevice().pressBack();
+
+            Levels.open(scope.getDevice(), "btnLevel1Feed", true);
+            Levels.answer(scope.getDevice(), 5, true);
+            scope.getDevice().pressBack();
+
+            Levels.open(scope.getDevice(), "btnLevel2", false);
+            Levels.answer(scope.getDevice(), 5, false);
+            return Unit.INSTANCE;
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.mathtrainer.macrobenchmark;
+
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.regex.Pattern;
+
+/** Сценарии для замеров: открыть уровень с экрана выбора и решить N задач, как игрок. */
+final class Levels {
+
+    static final String PACKAGE = "com.example.mathtrainer";
+
+    private static final long WAIT_MS = 5_000;
+
+    private Levels() {}
+
+    /** Нажать кнопку уровня (btnLevel1, btnLevel1Feed, btnLevel2) и дождаться вопроса. */
+    static void open(UiDevice device, String button, boolean feed) {
+        device.wait(Until.findObject(By.res(PACKAGE, button)), WAIT_MS).click();
+        device.wait(Until.hasObject(By.res(PACKAGE, feed ? "taskProblem" : "textQuestion")), WAIT_MS);
+    }
+
+    /** Ответить верно на {@code count} задач подряд. */
+    static void answer(UiDevice device, int count, boolean feed) {
+        String questionId = feed ? "taskProblem" : "textQuestion";
+        String inputId = feed ? "answerInput" : "editAnswer";
+        for (int i = 0; i < count; i++) {
+            UiObject2 question = device.wait(Until.findObject(By.res(PACKAGE, questionId)), WAIT_MS);
+            if (question == null) return; // уровень пройден — экран победы
+            String text = question.getText();
+            device.findObject(By.res(PACKAGE, inputId)).setText(solve(text));
+            device.pressEnter();
+            device.wait(Until.findObject(By.res(PACKAGE, questionId).text(notEqual(text))), WAIT_MS);
+        }
+    }
+
+    // любой текст, кроме прежнего вопроса
+    private static Pattern notEqual(String text) {
+        return Pattern.compile("(?!" + Pattern.quote(text) + "$).*");
+    }
+
+    /** Ответ на «X op Y = ?» обоих уровней. */
+    static String solve(String question) {
+        String[] p = question.split(" ");
+        BigDecimal x = new BigDecimal(p[0]);
+        BigDecimal y = new BigDecimal(p[2]);
+        BigDecimal r;
+        switch (p[1]) {
+            case "+": r = x.add(y); break;
+            case "-": r = x.subtract(y); break;
+            case "*":
+            case "×": r = x.multiply(y); break;
+            case "÷": r = x.divide(y, 1, RoundingMode.UNNECESSARY); break;
+            default: throw new IllegalArgumentException("Неизвестная операция: " + question);
+        }
+        return r.stripTrailingZeros().toPlainString();
+    }
+}
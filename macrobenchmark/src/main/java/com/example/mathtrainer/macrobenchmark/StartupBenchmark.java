@@ -0,0 +1,68 @@
+package com.example.mathtrainer.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.ExperimentalMetricApi;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Холодный старт до экрана выбора и открытие уровня 1, без профиля и с Baseline Profile.
+ * Разница None/Partial — выигрыш от профиля; TraceSectionMetric меряет onCreate уровня.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public final MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Test public void coldStartNoProfile()  { coldStart(new CompilationMode.None()); }
+    @Test public void coldStartProfile()    { coldStart(new CompilationMode.Partial(BaselineProfileMode.Require)); }
+    @Test public void openLevel1NoProfile() { openLevel1(new CompilationMode.None()); }
+    @Test public void openLevel1Profile()   { openLevel1(new CompilationMode.Partial(BaselineProfileMode.Require)); }
+
+    private void coldStart(CompilationMode mode) {
+        rule.measureRepeated(Levels.PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                mode, StartupMode.COLD, ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @androidx.annotation.OptIn(markerClass = ExperimentalMetricApi.class)
+    private void openLevel1(CompilationMode mode) {
+        rule.measureRepeated(Levels.PACKAGE,
+                Arrays.asList(new TraceSectionMetric("MainActivity.onCreate"), new FrameTimingMetric()),
+                mode, StartupMode.COLD, ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Levels.open(scope.getDevice(), "btnLevel1", false);
+                    return Unit.INSTANCE;
+                });
+    }
+}